@@ -4,12 +4,20 @@ import com.google.auth.oauth2.GoogleCredentials;
 import com.google.auth.oauth2.ServiceAccountCredentials;
 import com.google.cloud.bigquery.BigQuery;
 import com.google.cloud.bigquery.BigQueryOptions;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.Table;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.TableResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 public class BigQueryService {
@@ -30,6 +38,12 @@ public class BigQueryService {
         }
     }
 
+    protected BigQueryService(String projectId, String datasetId, BigQuery bigQuery) {
+        this.projectId = projectId;
+        this.datasetId = datasetId;
+        this.bigQuery = bigQuery;
+    }
+
     public BigQuery getBigQuery() {
         return this.bigQuery;
     }
@@ -42,6 +56,46 @@ public class BigQueryService {
         return this.datasetId;
     }
 
+    public Schema getSchema(String tableName) {
+        return this.getTable(tableName).getDefinition().getSchema();
+    }
+
+    /**
+     * Gets the number of rows the table has in its managed storage,
+     * rows in the streaming buffer of the table are not counted.
+     */
+    public long getNumRows(String tableName) {
+        BigInteger result = this.getTable(tableName).getNumRows();
+        return Objects.isNull(result) ? 0L : result.longValue();
+    }
+
+    /**
+     * Lists one page of the rows of a table.
+     *
+     * @param tableName  the name of the table in the dataset
+     * @param startIndex the index of the first row to list
+     * @param maxRows    the maximal number of rows to list
+     * @return the listed rows, which is empty if there are no more rows from the start index
+     */
+    public List<FieldValueList> listRows(String tableName, long startIndex, long maxRows) {
+        TableId tableId = TableId.of(this.datasetId, tableName);
+        TableResult result = this.bigQuery.listTableData(tableId,
+                BigQuery.TableDataListOption.startIndex(startIndex),
+                BigQuery.TableDataListOption.pageSize(maxRows));
+        List<FieldValueList> rows = new ArrayList<>();
+        result.getValues().forEach(rows::add);
+        return rows;
+    }
+
+    private Table getTable(String tableName) {
+        TableId tableId = TableId.of(this.datasetId, tableName);
+        Table result = this.bigQuery.getTable(tableId);
+        if (Objects.isNull(result)) {
+            throw new IllegalStateException("Table " + tableName + " does not exist in dataset " + this.datasetId);
+        }
+        return result;
+    }
+
     private BigQuery getBigQuery(String projectId, String filePath) {
         File credentialsPath = new File(filePath);
 
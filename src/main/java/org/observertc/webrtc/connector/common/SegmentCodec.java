@@ -0,0 +1,176 @@
+package org.observertc.webrtc.connector.common;
+
+import com.github.luben.zstd.Zstd;
+
+import javax.validation.constraints.NotNull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The codecs the blocks of a segment can be compressed with (see {@link SegmentFormat}).
+ * The id of the codec is written into the header of the segment.
+ */
+public enum SegmentCodec {
+    None(0, NullCodec::new),
+    Deflate(1, () -> new DeflateCodec(Deflater.DEFAULT_COMPRESSION)),
+    Snappy(2, SnappyCodec::new),
+    Zstandard(3, () -> new ZstandardCodec(ZstandardCodec.DEFAULT_LEVEL))
+    ;
+
+    /**
+     * Compresses and decompresses blocks. The returned buffers start at position 0.
+     */
+    public interface Codec {
+        ByteBuffer compress(ByteBuffer uncompressed) throws IOException;
+
+        /**
+         * @throws IOException if the block is invalid, or it is bigger than maxSizeInBytes uncompressed
+         */
+        ByteBuffer decompress(ByteBuffer compressed, int maxSizeInBytes) throws IOException;
+    }
+
+    private final int id;
+    private final Supplier<Codec> codecSupplier;
+
+    SegmentCodec(int id, Supplier<Codec> codecSupplier) {
+        this.id = id;
+        this.codecSupplier = codecSupplier;
+    }
+
+    public byte getId() {
+        return (byte) this.id;
+    }
+
+    /**
+     * Makes a new instance of the codec, codec instances must not be shared between threads.
+     */
+    public Codec createCodec() {
+        return this.codecSupplier.get();
+    }
+
+    public static Optional<SegmentCodec> getValueFromId(byte id) {
+        return Arrays.stream(SegmentCodec.values()).filter(codec -> codec.getId() == id).findFirst();
+    }
+
+    public static Optional<SegmentCodec> getValueFromString(@NotNull String value, AtomicReference<String> errorMessage) {
+        SegmentCodec[] codecs = SegmentCodec.values();
+        for (int i = 0; i < codecs.length; ++i) {
+            SegmentCodec codec = codecs[i];
+            if (codec.name().equalsIgnoreCase(value)) {
+                return Optional.of(codec);
+            }
+        }
+        if (Objects.nonNull(errorMessage)) {
+            errorMessage.set("No match for value " + value + " in SegmentCodec. possible values are:" + Arrays.stream(codecs).map(Enum::name).collect(Collectors.joining(", ")));
+        }
+        return Optional.empty();
+    }
+
+    static void checkSize(long size, int maxSizeInBytes) throws IOException {
+        if (size < 0 || maxSizeInBytes < size) {
+            throw new IOException(String.format("Block has an invalid uncompressed size %d, the maximal size is %d", size, maxSizeInBytes));
+        }
+    }
+
+    static byte[] toArray(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] result = new byte[buffer.remaining()];
+        buffer.duplicate().get(result);
+        return result;
+    }
+
+    private static class NullCodec implements Codec {
+        @Override
+        public ByteBuffer compress(ByteBuffer uncompressed) {
+            return uncompressed.slice();
+        }
+
+        @Override
+        public ByteBuffer decompress(ByteBuffer compressed, int maxSizeInBytes) throws IOException {
+            checkSize(compressed.remaining(), maxSizeInBytes);
+            return compressed.slice();
+        }
+    }
+
+    private static class DeflateCodec implements Codec {
+        private final Deflater deflater;
+        private final Inflater inflater = new Inflater(true);
+        private final byte[] chunk = new byte[8192];
+
+        private DeflateCodec(int level) {
+            this.deflater = new Deflater(level, true);
+        }
+
+        @Override
+        public ByteBuffer compress(ByteBuffer uncompressed) {
+            ByteArrayOutputStream result = new ByteArrayOutputStream(uncompressed.remaining() / 2 + 16);
+            this.deflater.reset();
+            this.deflater.setInput(toArray(uncompressed));
+            this.deflater.finish();
+            while (!this.deflater.finished()) {
+                int length = this.deflater.deflate(this.chunk);
+                result.write(this.chunk, 0, length);
+            }
+            return ByteBuffer.wrap(result.toByteArray());
+        }
+
+        @Override
+        public ByteBuffer decompress(ByteBuffer compressed, int maxSizeInBytes) throws IOException {
+            ByteArrayOutputStream result = new ByteArrayOutputStream((int) Math.min(compressed.remaining() * 3L, maxSizeInBytes));
+            this.inflater.reset();
+            this.inflater.setInput(toArray(compressed));
+            try {
+                while (!this.inflater.finished()) {
+                    int length = this.inflater.inflate(this.chunk);
+                    if (length == 0 && (this.inflater.needsInput() || this.inflater.needsDictionary())) {
+                        throw new IOException("Deflated block is truncated");
+                    }
+                    result.write(this.chunk, 0, length);
+                    checkSize(result.size(), maxSizeInBytes);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException(e);
+            }
+            return ByteBuffer.wrap(result.toByteArray());
+        }
+    }
+
+    private static class ZstandardCodec implements Codec {
+        private static final int DEFAULT_LEVEL = 3;
+        private final int level;
+
+        private ZstandardCodec(int level) {
+            this.level = level;
+        }
+
+        @Override
+        public ByteBuffer compress(ByteBuffer uncompressed) {
+            return ByteBuffer.wrap(Zstd.compress(toArray(uncompressed), this.level));
+        }
+
+        @Override
+        public ByteBuffer decompress(ByteBuffer compressed, int maxSizeInBytes) throws IOException {
+            byte[] source = toArray(compressed);
+            long size = Zstd.decompressedSize(source);
+            checkSize(size, maxSizeInBytes);
+            try {
+                return ByteBuffer.wrap(Zstd.decompress(source, (int) size));
+            } catch (RuntimeException e) {
+                // corrupt blocks are reported by ZstdException
+                throw new IOException(e);
+            }
+        }
+    }
+}
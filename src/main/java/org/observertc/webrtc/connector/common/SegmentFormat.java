@@ -0,0 +1,51 @@
+package org.observertc.webrtc.connector.common;
+
+import java.nio.file.Path;
+
+/**
+ * Describes the segment files written by the {@link org.observertc.webrtc.connector.sinks.file.FileSink}
+ * and read by the {@link org.observertc.webrtc.connector.sources.file.FileSource}.
+ *
+ * <p>A segment holds many encoded reports appended one after the other. It starts with the
+ * segment magic, the version, the id of the {@link SegmentCodec} the blocks are compressed with
+ * and the maximal uncompressed size of a block (4 bytes, big endian), followed by the blocks.
+ * A block is the length of the compressed records (4 bytes, big endian) followed by the compressed records.
+ * A block claiming to be bigger uncompressed than the maximal size of the segment is invalid.
+ * A record is the length of the encoded report (4 bytes, big endian) followed by the encoded report itself.
+ *
+ * <p>The optional index of a segment has the same name with {@link #INDEX_EXTENSION}. It starts with the index magic,
+ * the version and a byte reserved for later use, followed by an entry for every record of the segment in the order they are written.
+ * An entry is the timestamp of the report (8 bytes), the position of the block in the segment (8 bytes),
+ * the position of the record in the uncompressed block (4 bytes) and the ordinal of the type of the report (2 bytes).
+ */
+public final class SegmentFormat {
+
+    public static final String SEGMENT_EXTENSION = ".seg";
+    public static final String INDEX_EXTENSION = ".idx";
+    public static final byte[] SEGMENT_MAGIC = {'O', 'S', 'E', 'G'};
+    public static final byte[] INDEX_MAGIC = {'O', 'I', 'D', 'X'};
+    public static final byte VERSION = 1;
+    public static final int HEADER_SIZE = 6;
+    public static final int SEGMENT_HEADER_SIZE = HEADER_SIZE + 4;
+    public static final int BLOCK_HEADER_SIZE = 4;
+    public static final int RECORD_HEADER_SIZE = 4;
+    public static final int INDEX_ENTRY_SIZE = 22;
+
+    private SegmentFormat() {
+
+    }
+
+    public static boolean isSegment(Path path) {
+        return path.getFileName().toString().endsWith(SEGMENT_EXTENSION);
+    }
+
+    public static boolean isIndex(Path path) {
+        return path.getFileName().toString().endsWith(INDEX_EXTENSION);
+    }
+
+    public static Path getIndexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        String indexName = name.substring(0, name.length() - SEGMENT_EXTENSION.length()) + INDEX_EXTENSION;
+        return segment.resolveSibling(indexName);
+    }
+}
@@ -0,0 +1,24 @@
+package org.observertc.webrtc.connector.common;
+
+import org.xerial.snappy.Snappy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses the blocks of a segment by Snappy, kept apart from {@link SegmentCodec},
+ * as its Snappy constant hides the Snappy class there.
+ */
+class SnappyCodec implements SegmentCodec.Codec {
+    @Override
+    public ByteBuffer compress(ByteBuffer uncompressed) throws IOException {
+        return ByteBuffer.wrap(Snappy.compress(SegmentCodec.toArray(uncompressed)));
+    }
+
+    @Override
+    public ByteBuffer decompress(ByteBuffer compressed, int maxSizeInBytes) throws IOException {
+        byte[] source = SegmentCodec.toArray(compressed);
+        SegmentCodec.checkSize(Snappy.uncompressedLength(source), maxSizeInBytes);
+        return ByteBuffer.wrap(Snappy.uncompress(source));
+    }
+}
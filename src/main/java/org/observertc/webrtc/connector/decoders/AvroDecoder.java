@@ -19,11 +19,14 @@ package org.observertc.webrtc.connector.decoders;
 import io.reactivex.rxjava3.annotations.NonNull;
 import io.reactivex.rxjava3.core.Observer;
 import io.reactivex.rxjava3.disposables.Disposable;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
 import org.apache.avro.specific.SpecificDatumReader;
 import org.observertc.webrtc.schemas.reports.Report;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Objects;
@@ -33,6 +36,7 @@ public class AvroDecoder implements Decoder {
 	private static final Logger logger = LoggerFactory.getLogger(AvroDecoder.class);
 
 	private final SpecificDatumReader<Report> reader;
+	private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
 	private final boolean rethrowException;
 
 	public AvroDecoder() {
@@ -40,7 +44,15 @@ public class AvroDecoder implements Decoder {
 	}
 
 	public AvroDecoder(boolean rethrowException) {
-		this.reader = new SpecificDatumReader<>(Report.class);
+		this(new SpecificDatumReader<>(Report.class), rethrowException);
+	}
+
+	/**
+	 * @param reader the datum reader of the messages written with the schema of this {@link Report},
+	 *               its writer schema must be the schema of the {@link Report}
+	 */
+	protected AvroDecoder(SpecificDatumReader<Report> reader, boolean rethrowException) {
+		this.reader = reader;
 		this.rethrowException = rethrowException;
 	}
 
@@ -76,10 +88,29 @@ public class AvroDecoder implements Decoder {
 	}
 
 	public Report decode(byte[] bytes) {
+		return this.decode(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Decodes the remaining bytes of the buffer without copying them.
+	 * The position of the given buffer is not changed.
+	 */
+	public Report decode(ByteBuffer buffer) {
+		return this.decode(buffer, null);
+	}
+
+	/**
+	 * Decodes the remaining bytes of the buffer into the given report, if it is not null.
+	 * The fields of the reused report are overwritten, hence it can be reused only
+	 * if the previously decoded report is not held by anyone (i.e.: it is dropped after it is inspected).
+	 */
+	public Report decode(ByteBuffer buffer, Report reuse) {
 		Report report;
 		try {
-			report = Report.fromByteBuffer(ByteBuffer.wrap(bytes));
+			report = this.read(buffer, reuse);
 		} catch (Exception e) {
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.duplicate().get(bytes);
 			logger.error("Error during avro decoding process. BYTES:" + Arrays.toString(bytes), e);
 			if (rethrowException) {
 				throw new RuntimeException(e);
@@ -89,4 +120,22 @@ public class AvroDecoder implements Decoder {
 		return report;
 	}
 
+	/**
+	 * Reads a report from the remaining bytes of the buffer without logging errors.
+	 *
+	 * <p>Messages written with the schema of this {@link Report} are read by a {@link BinaryDecoder}
+	 * reused by the thread, and by the datum reader of the decoder, so only the report itself is allocated
+	 * (or not even that, if a report is given to reuse). Other messages (i.e.: written by an other version of the schema)
+	 * and buffers without accessible arrays are read by {@link Report#fromByteBuffer(ByteBuffer)}.
+	 */
+	public Report read(ByteBuffer buffer, Report reuse) throws IOException {
+		if (!buffer.hasArray() || !SingleObjectHeader.isWrittenByReportSchema(buffer)) {
+			return Report.fromByteBuffer(buffer.duplicate());
+		}
+		int offset = buffer.arrayOffset() + buffer.position() + SingleObjectHeader.LENGTH;
+		int length = buffer.remaining() - SingleObjectHeader.LENGTH;
+		BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(buffer.array(), offset, length, this.decoders.get());
+		this.decoders.set(decoder);
+		return this.reader.read(reuse, decoder);
+	}
 }
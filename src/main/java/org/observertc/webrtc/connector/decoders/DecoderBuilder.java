@@ -2,6 +2,7 @@ package org.observertc.webrtc.connector.decoders;
 
 import io.micronaut.context.annotation.Prototype;
 import org.observertc.webrtc.connector.configbuilders.AbstractBuilder;
+import org.observertc.webrtc.connector.configbuilders.Builder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,7 +21,13 @@ public class DecoderBuilder extends AbstractBuilder {
 
     public Optional<Decoder> build() {
         Config config = this.convertAndValidate(Config.class);
-
+        String builderClassName = AbstractBuilder.getBuilderClassName(config.type);
+        Optional<Builder> builderHolder = this.tryInvoke(builderClassName);
+        if (builderHolder.isPresent()) {
+            Builder<Decoder> builder = (Builder<Decoder>) builderHolder.get();
+            builder.withConfiguration(config.config);
+            return Optional.ofNullable(builder.build());
+        }
         Optional<Decoder> result = this.tryInvoke(config.type);
         return result;
     }
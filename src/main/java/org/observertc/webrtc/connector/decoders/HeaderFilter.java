@@ -0,0 +1,151 @@
+package org.observertc.webrtc.connector.decoders;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.core.ObservableOperator;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.observertc.webrtc.connector.transformations.Filter;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.observertc.webrtc.schemas.reports.ReportType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Drops the encoded reports not matching a {@link Filter} before they are decoded.
+ *
+ * <p>Only the fields of the report preceding the payload (version, serviceUUID, serviceName, marker, timestamp)
+ * are read from the bytes, and the type of the report is taken from the branch of the payload, so the payload
+ * itself is never decoded. The filter is tested on a report having only these fields, hence it must not refer to
+ * the payload. Messages not written with the schema of the {@link Report}, and messages the header of which cannot be
+ * read are passed to the decoder as they are.
+ */
+public class HeaderFilter implements ObservableOperator<byte[], byte[]> {
+	private static final Logger logger = LoggerFactory.getLogger(HeaderFilter.class);
+	private static final ReportType[] PAYLOAD_TYPES = makePayloadTypes();
+
+	private final Filter filter;
+	private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+	private final ThreadLocal<Report> headers = ThreadLocal.withInitial(Report::new);
+
+	public HeaderFilter(Filter filter) {
+		this.filter = filter;
+	}
+
+	@NonNull
+	@Override
+	public Observer<? super byte[]> apply(@NonNull Observer<? super byte[]> observer) throws Exception {
+		return new Observer<byte[]>() {
+			@Override
+			public void onSubscribe(@NonNull Disposable d) {
+				observer.onSubscribe(d);
+			}
+
+			@Override
+			public void onNext(@NonNull byte[] bytes) {
+				boolean matches;
+				try {
+					matches = HeaderFilter.this.matches(bytes);
+				} catch (Throwable t) {
+					observer.onError(t);
+					return;
+				}
+				if (matches) {
+					observer.onNext(bytes);
+				}
+			}
+
+			@Override
+			public void onError(@NonNull Throwable e) {
+				observer.onError(e);
+			}
+
+			@Override
+			public void onComplete() {
+				observer.onComplete();
+			}
+		};
+	}
+
+	/**
+	 * Gets the filter the headers are tested by, which can test decoded reports as well.
+	 */
+	public Filter getFilter() {
+		return this.filter;
+	}
+
+	/**
+	 * Tests the header of the encoded report by the filter, returns true if the header cannot be read.
+	 */
+	public boolean matches(byte[] bytes) throws Throwable {
+		Report header;
+		try {
+			header = this.readHeader(bytes);
+		} catch (IOException | RuntimeException e) {
+			// i.e.: negative lengths, or branches and symbols the schema does not have
+			logger.debug("The header of the report cannot be read, it is passed to the decoder", e);
+			return true;
+		}
+		if (Objects.isNull(header)) {
+			return true;
+		}
+		return this.filter.matches(header);
+	}
+
+	/**
+	 * Reads the fields of the report preceding the payload and the type of the report into a report reused by the thread,
+	 * or returns null if the message is not written with the schema of the {@link Report}.
+	 */
+	private Report readHeader(byte[] bytes) throws IOException {
+		if (!SingleObjectHeader.isWrittenByReportSchema(ByteBuffer.wrap(bytes))) {
+			return null;
+		}
+		int length = bytes.length - SingleObjectHeader.LENGTH;
+		BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(bytes, SingleObjectHeader.LENGTH, length, this.decoders.get());
+		this.decoders.set(decoder);
+		Report result = this.headers.get();
+		result.put(0, decoder.readInt());
+		result.put(1, decoder.readString());
+		result.put(2, decoder.readIndex() == 0 ? null : decoder.readString());
+		result.put(3, decoder.readIndex() == 0 ? null : decoder.readString());
+		result.put(4, decoder.readLong());
+		int payloadIndex = decoder.readIndex();
+		ReportType reportType;
+		if (payloadIndex == 0) {
+			// the type follows the payload, which is null
+			int symbol = decoder.readEnum();
+			if (symbol < 0 || ReportType.values().length <= symbol) {
+				throw new IOException("No report type is known for the symbol " + symbol);
+			}
+			reportType = ReportType.values()[symbol];
+		} else if (payloadIndex < PAYLOAD_TYPES.length && Objects.nonNull(PAYLOAD_TYPES[payloadIndex])) {
+			reportType = PAYLOAD_TYPES[payloadIndex];
+		} else {
+			throw new IOException("No report type is known for the payload of branch " + payloadIndex);
+		}
+		result.put(6, reportType);
+		return result;
+	}
+
+	/**
+	 * Makes the report types by the branches of the payload union of the {@link Report} schema.
+	 */
+	private static ReportType[] makePayloadTypes() {
+		List<Schema> branches = Report.getClassSchema().getField("payload").schema().getTypes();
+		ReportType[] result = new ReportType[branches.size()];
+		for (int i = 0; i < branches.size(); ++i) {
+			Schema branch = branches.get(i);
+			if (branch.getType() == Schema.Type.RECORD) {
+				result[i] = PayloadSchemas.getReportType(branch.getFullName());
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,30 @@
+package org.observertc.webrtc.connector.decoders;
+
+import io.micronaut.context.annotation.Prototype;
+import org.observertc.webrtc.connector.configbuilders.AbstractBuilder;
+import org.observertc.webrtc.connector.configbuilders.Builder;
+import org.observertc.webrtc.connector.transformations.Filter;
+import org.observertc.webrtc.connector.transformations.FilterBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds a {@link HeaderFilter} from the configuration of a {@link Filter} (see {@link FilterBuilder.Config}).
+ */
+@Prototype
+public class HeaderFilterBuilder extends AbstractBuilder implements Builder<HeaderFilter> {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeaderFilterBuilder.class);
+
+    public HeaderFilter build() {
+        FilterBuilder.Config config = this.convertAndValidate(FilterBuilder.Config.class);
+        if (!config.nullableCallNames) {
+            logger.error("A HeaderFilter cannot filter by the call names (nullableCallNames), which are in the payload");
+            return null;
+        }
+        FilterBuilder filterBuilder = new FilterBuilder();
+        filterBuilder.withConfiguration(this.getConfig());
+        Filter filter = filterBuilder.build();
+        return new HeaderFilter(filter);
+    }
+}
@@ -0,0 +1,19 @@
+package org.observertc.webrtc.connector.decoders;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.core.ObservableOperator;
+import io.reactivex.rxjava3.core.Observer;
+import org.observertc.webrtc.schemas.reports.Report;
+
+/**
+ * The decoder of sources emitting reports (see {@link org.observertc.webrtc.connector.sources.Source#emitsReports()}),
+ * which hands over the reports of the source as they are.
+ */
+public class PassThroughDecoder implements ObservableOperator<Report, Report> {
+
+    @NonNull
+    @Override
+    public Observer<? super Report> apply(@NonNull Observer<? super Report> observer) {
+        return observer;
+    }
+}
@@ -0,0 +1,55 @@
+package org.observertc.webrtc.connector.decoders;
+
+import org.apache.avro.Schema;
+import org.observertc.webrtc.schemas.reports.*;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the report types to the schemas of their payloads.
+ */
+class PayloadSchemas {
+	private static final Map<ReportType, Schema> SCHEMAS = new EnumMap<>(ReportType.class);
+	private static final Map<String, ReportType> REPORT_TYPES = new HashMap<>();
+
+	static {
+		SCHEMAS.put(ReportType.INITIATED_CALL, InitiatedCall.getClassSchema());
+		SCHEMAS.put(ReportType.FINISHED_CALL, FinishedCall.getClassSchema());
+		SCHEMAS.put(ReportType.JOINED_PEER_CONNECTION, JoinedPeerConnection.getClassSchema());
+		SCHEMAS.put(ReportType.DETACHED_PEER_CONNECTION, DetachedPeerConnection.getClassSchema());
+		SCHEMAS.put(ReportType.OBSERVER_EVENT, ObserverEventReport.getClassSchema());
+		SCHEMAS.put(ReportType.INBOUND_RTP, InboundRTP.getClassSchema());
+		SCHEMAS.put(ReportType.OUTBOUND_RTP, OutboundRTP.getClassSchema());
+		SCHEMAS.put(ReportType.REMOTE_INBOUND_RTP, RemoteInboundRTP.getClassSchema());
+		SCHEMAS.put(ReportType.ICE_CANDIDATE_PAIR, ICECandidatePair.getClassSchema());
+		SCHEMAS.put(ReportType.ICE_LOCAL_CANDIDATE, ICELocalCandidate.getClassSchema());
+		SCHEMAS.put(ReportType.ICE_REMOTE_CANDIDATE, ICERemoteCandidate.getClassSchema());
+		SCHEMAS.put(ReportType.TRACK, Track.getClassSchema());
+		SCHEMAS.put(ReportType.MEDIA_SOURCE, MediaSource.getClassSchema());
+		SCHEMAS.put(ReportType.USER_MEDIA_ERROR, UserMediaError.getClassSchema());
+		SCHEMAS.put(ReportType.MEDIA_DEVICE, MediaDevice.getClassSchema());
+		SCHEMAS.put(ReportType.CLIENT_DETAILS, ClientDetails.getClassSchema());
+		SCHEMAS.put(ReportType.EXTENSION, ExtensionReport.getClassSchema());
+		SCHEMAS.forEach((reportType, schema) -> REPORT_TYPES.put(schema.getFullName(), reportType));
+	}
+
+	/**
+	 * Gets the schema of the payload of the report type, or null if the report type has no payload.
+	 */
+	static Schema get(ReportType reportType) {
+		return SCHEMAS.get(reportType);
+	}
+
+	/**
+	 * Gets the report type of the payload by the full name of its schema, or null if no report type has that payload.
+	 */
+	static ReportType getReportType(String payloadFullName) {
+		return REPORT_TYPES.get(payloadFullName);
+	}
+
+	private PayloadSchemas() {
+
+	}
+}
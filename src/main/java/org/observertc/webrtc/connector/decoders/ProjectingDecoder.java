@@ -0,0 +1,122 @@
+package org.observertc.webrtc.connector.decoders;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.io.ResolvingDecoder;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.observertc.webrtc.schemas.reports.ReportType;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decodes only the given fields of the payloads of the reports, and skips the rest of the fields in the binary stream.
+ *
+ * <p>The fields of the report itself (type, marker, timestamp, etc.) are always decoded. The payloads of the report types
+ * not given are decoded entirely. Fields not decoded keep the default values of the payload classes (null, or 0
+ * for primitive fields), hence projected reports are for sinks writing the decoded fields only, and they
+ * cannot be encoded again (i.e.: by a FileSink) if a required field is skipped.
+ *
+ * <p>Messages written by other versions of the schema are decoded entirely (see {@link AvroDecoder}).
+ */
+public class ProjectingDecoder extends AvroDecoder {
+
+	/**
+	 * @param payloadFields the names of the fields decoded from the payloads by the report types
+	 * @throws IllegalArgumentException if a report type has no payload, or a field does not exist in the payload
+	 */
+	public ProjectingDecoder(Map<ReportType, Set<String>> payloadFields) {
+		super(new ProjectingDatumReader(makeReaderSchema(payloadFields)), false);
+	}
+
+	/**
+	 * Makes the schema of the report, where the payloads of the given report types have only the given fields.
+	 */
+	static Schema makeReaderSchema(Map<ReportType, Set<String>> payloadFields) {
+		Map<String, Set<String>> projections = new HashMap<>();
+		for (Map.Entry<ReportType, Set<String>> entry : payloadFields.entrySet()) {
+			Schema payloadSchema = PayloadSchemas.get(entry.getKey());
+			if (Objects.isNull(payloadSchema)) {
+				throw new IllegalArgumentException("Report type " + entry.getKey() + " has no payload");
+			}
+			for (String fieldName : entry.getValue()) {
+				if (Objects.isNull(payloadSchema.getField(fieldName))) {
+					throw new IllegalArgumentException("Field " + fieldName + " does not exist in " + payloadSchema.getName());
+				}
+			}
+			projections.put(payloadSchema.getFullName(), entry.getValue());
+		}
+		Schema reportSchema = Report.getClassSchema();
+		List<Schema.Field> fields = reportSchema.getFields().stream()
+				.map(field -> {
+					if (!field.name().equals("payload")) {
+						return new Schema.Field(field, field.schema());
+					}
+					List<Schema> types = field.schema().getTypes().stream()
+							.map(type -> {
+								if (type.getType() != Schema.Type.RECORD) {
+									return type;
+								}
+								return project(type, projections.get(type.getFullName()));
+							})
+							.collect(Collectors.toList());
+					return new Schema.Field(field, Schema.createUnion(types));
+				})
+				.collect(Collectors.toList());
+		return Schema.createRecord(reportSchema.getName(), reportSchema.getDoc(), reportSchema.getNamespace(), false, fields);
+	}
+
+	/**
+	 * Copies the record schema with the given fields, or with all of its fields if no field is given.
+	 *
+	 * <p>Defaults of enum fields, which are not symbols of the enum (i.e.: "unknown" for "UNKNOWN"), are dropped,
+	 * because the resolution tries the defaults when it matches the records of the payload union.
+	 */
+	private static Schema project(Schema recordSchema, Set<String> fieldNames) {
+		List<Schema.Field> fields = recordSchema.getFields().stream()
+				.filter(field -> Objects.isNull(fieldNames) || fieldNames.contains(field.name()))
+				.map(field -> {
+					Schema fieldSchema = field.schema();
+					if (fieldSchema.getType() == Schema.Type.ENUM && field.hasDefaultValue() &&
+							!fieldSchema.hasEnumSymbol(String.valueOf(field.defaultVal()))) {
+						return new Schema.Field(field.name(), fieldSchema, field.doc());
+					}
+					return new Schema.Field(field, fieldSchema);
+				})
+				.collect(Collectors.toList());
+		return Schema.createRecord(recordSchema.getName(), recordSchema.getDoc(), recordSchema.getNamespace(), false, fields);
+	}
+
+	/**
+	 * Reads the messages written with the schema of the {@link Report} by the projected reader schema.
+	 *
+	 * <p>The positions of the fields of a projected record differ from the positions of the fields
+	 * of the generated class the record is read into, so the fields are set by the positions of the class.
+	 */
+	private static class ProjectingDatumReader extends SpecificDatumReader<Report> {
+
+		ProjectingDatumReader(Schema readerSchema) {
+			super(Report.getClassSchema(), readerSchema, SpecificData.get());
+		}
+
+		@Override
+		protected void readField(Object record, Schema.Field field, Object oldDatum, ResolvingDecoder in, Object state) throws IOException {
+			IndexedRecord indexedRecord = (IndexedRecord) record;
+			Schema.Field classField = indexedRecord.getSchema().getField(field.name());
+			if (classField.pos() == field.pos()) {
+				super.readField(record, field, oldDatum, in, state);
+				return;
+			}
+			// the given old datum is at the position of the projected field, so it is taken by the position of the class
+			Object value = this.readWithoutConversion(indexedRecord.get(classField.pos()), field.schema(), in);
+			indexedRecord.put(classField.pos(), value);
+		}
+	}
+}
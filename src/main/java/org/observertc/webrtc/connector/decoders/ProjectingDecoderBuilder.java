@@ -0,0 +1,54 @@
+package org.observertc.webrtc.connector.decoders;
+
+import io.micronaut.context.annotation.Prototype;
+import org.observertc.webrtc.connector.configbuilders.AbstractBuilder;
+import org.observertc.webrtc.connector.configbuilders.Builder;
+import org.observertc.webrtc.schemas.reports.ReportType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Prototype
+public class ProjectingDecoderBuilder extends AbstractBuilder implements Builder<Decoder> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectingDecoderBuilder.class);
+
+    public Decoder build() {
+        Config config = this.convertAndValidate(Config.class);
+        Map<ReportType, Set<String>> payloadFields = new EnumMap<>(ReportType.class);
+        for (Map.Entry<String, List<String>> entry : config.payloadFields.entrySet()) {
+            ReportType reportType;
+            try {
+                reportType = ReportType.valueOf(entry.getKey());
+            } catch (IllegalArgumentException e) {
+                logger.error("The given report type ({}) for a ProjectingDecoder does not exist", entry.getKey());
+                return null;
+            }
+            payloadFields.put(reportType, new HashSet<>(entry.getValue()));
+        }
+        try {
+            return new ProjectingDecoder(payloadFields);
+        } catch (IllegalArgumentException e) {
+            logger.error("The given payload fields for a ProjectingDecoder are invalid: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public static class Config {
+
+        /**
+         * The names of the fields decoded from the payloads by the report types,
+         * payloads of report types not given are decoded entirely
+         */
+        @NotNull
+        public Map<String, List<String>> payloadFields = new HashMap<>();
+
+    }
+}
@@ -0,0 +1,182 @@
+package org.observertc.webrtc.connector.decoders;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.message.MissingSchemaException;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decodes reports written by any known version of the report schema.
+ *
+ * <p>Messages are expected in the Avro single-object encoding, where the header carries the fingerprint
+ * of the schema the message was written with. The resolution of a writer schema against the schema of
+ * the {@link Report} is made once, when the first message of the writer schema is read, and the datum reader
+ * holding the resolution is cached by the fingerprint, so messages of mixed versions are decoded
+ * without resolving the schemas per message.
+ *
+ * <p>The schema of the {@link Report} is always known, other versions have to be added by
+ * {@link #withWriterSchema(Schema)} (see {@link SchemaResolvingDecoderBuilder}).
+ * Messages of unknown schemas are dropped: an unknown fingerprint is logged once,
+ * and the dropped messages are counted (see {@link #getUnknownSchemaMessages()}).
+ */
+public class SchemaResolvingDecoder implements Decoder {
+	private static final Logger logger = LoggerFactory.getLogger(SchemaResolvingDecoder.class);
+
+	private final Map<Long, SpecificDatumReader<Report>> readers = new ConcurrentHashMap<>();
+	private final Map<Long, Schema> writerSchemas = new ConcurrentHashMap<>();
+	private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+	private final Set<Long> unknownFingerprints = ConcurrentHashMap.newKeySet();
+	private final AtomicLong unknownSchemaMessages = new AtomicLong(0);
+	private final boolean rethrowException;
+
+	public SchemaResolvingDecoder() {
+		this(false);
+	}
+
+	public SchemaResolvingDecoder(boolean rethrowException) {
+		this.rethrowException = rethrowException;
+		this.withWriterSchema(Report.getClassSchema());
+	}
+
+	@NonNull
+	@Override
+	public Observer<? super byte[]> apply(@NonNull Observer<? super Report> observer) throws Exception {
+		return new Observer<byte[]>() {
+			Disposable disposable;
+			@Override
+			public void onSubscribe(@NonNull Disposable d) {
+				disposable = d;
+			}
+
+			@Override
+			public void onNext(@NonNull byte[] bytes) {
+				Report result = decode(bytes);
+				if (Objects.isNull(result)) {
+					return;
+				}
+				observer.onNext(result);
+			}
+
+			@Override
+			public void onError(@NonNull Throwable e) {
+				observer.onError(e);
+			}
+
+			@Override
+			public void onComplete() {
+				observer.onComplete();
+			}
+		};
+	}
+
+	/**
+	 * Adds a schema messages can be written with. The schema must be resolvable to the schema of the {@link Report}.
+	 */
+	public SchemaResolvingDecoder withWriterSchema(Schema writerSchema) {
+		long fingerprint = SchemaNormalization.parsingFingerprint64(writerSchema);
+		this.writerSchemas.put(fingerprint, writerSchema);
+		this.readers.remove(fingerprint);
+		this.unknownFingerprints.remove(fingerprint);
+		return this;
+	}
+
+	/**
+	 * Gets the number of messages dropped, because the schema they are written with is not known.
+	 */
+	public long getUnknownSchemaMessages() {
+		return this.unknownSchemaMessages.get();
+	}
+
+	public Report decode(byte[] bytes) {
+		return this.decode(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Decodes the remaining bytes of the buffer. The position of the given buffer is not changed.
+	 */
+	public Report decode(ByteBuffer buffer) {
+		try {
+			return this.read(buffer, null);
+		} catch (MissingSchemaException e) {
+			this.unknownSchemaMessages.incrementAndGet();
+			if (rethrowException) {
+				throw new RuntimeException(e);
+			}
+			return null;
+		} catch (Exception e) {
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.duplicate().get(bytes);
+			logger.error("Error during avro decoding process. BYTES:" + Arrays.toString(bytes), e);
+			if (rethrowException) {
+				throw new RuntimeException(e);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Reads a report from the remaining bytes of the buffer into the given report, if it is not null.
+	 *
+	 * @throws MissingSchemaException if the schema the message is written with is not known
+	 */
+	public Report read(ByteBuffer buffer, Report reuse) throws IOException {
+		if (!SingleObjectHeader.hasMarker(buffer)) {
+			throw new IOException("The message does not start with the header of the single-object encoding");
+		}
+		int position = buffer.position();
+		long fingerprint = SingleObjectHeader.getFingerprint(buffer);
+		SpecificDatumReader<Report> reader = this.readers.computeIfAbsent(fingerprint, this::makeReader);
+		if (Objects.isNull(reader)) {
+			if (this.unknownFingerprints.add(fingerprint)) {
+				logger.warn("Messages written by the unknown schema of fingerprint {} are dropped", fingerprint);
+			}
+			throw new MissingSchemaException("Cannot resolve the writer schema of fingerprint " + fingerprint);
+		}
+		byte[] bytes;
+		int offset;
+		int length = buffer.remaining() - SingleObjectHeader.LENGTH;
+		if (buffer.hasArray()) {
+			bytes = buffer.array();
+			offset = buffer.arrayOffset() + position + SingleObjectHeader.LENGTH;
+		} else {
+			bytes = new byte[length];
+			offset = 0;
+			ByteBuffer payload = buffer.duplicate();
+			payload.position(position + SingleObjectHeader.LENGTH);
+			payload.get(bytes);
+		}
+		BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(bytes, offset, length, this.decoders.get());
+		this.decoders.set(decoder);
+		return reader.read(reuse, decoder);
+	}
+
+	/**
+	 * Makes the datum reader resolving the writer schema of the fingerprint to the schema of the {@link Report},
+	 * or returns null if the writer schema is not known.
+	 */
+	private SpecificDatumReader<Report> makeReader(long fingerprint) {
+		Schema writerSchema = this.writerSchemas.get(fingerprint);
+		if (Objects.isNull(writerSchema)) {
+			return null;
+		}
+		logger.info("Messages written by the schema of fingerprint {} are resolved to the current report schema", fingerprint);
+		return new SpecificDatumReader<>(writerSchema, Report.getClassSchema());
+	}
+}
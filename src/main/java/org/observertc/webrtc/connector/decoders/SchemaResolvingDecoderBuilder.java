@@ -0,0 +1,72 @@
+package org.observertc.webrtc.connector.decoders;
+
+import io.micronaut.context.annotation.Prototype;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaParseException;
+import org.observertc.webrtc.connector.configbuilders.AbstractBuilder;
+import org.observertc.webrtc.connector.configbuilders.Builder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Prototype
+public class SchemaResolvingDecoderBuilder extends AbstractBuilder implements Builder<Decoder> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaResolvingDecoderBuilder.class);
+    private static final String SCHEMA_FILE_EXTENSION = ".avsc";
+
+    public Decoder build() {
+        Config config = this.convertAndValidate(Config.class);
+        SchemaResolvingDecoder result = new SchemaResolvingDecoder();
+        for (String writerSchema : config.writerSchemas) {
+            List<Path> schemaFiles;
+            try {
+                schemaFiles = this.getSchemaFiles(Paths.get(writerSchema));
+            } catch (IOException e) {
+                logger.error("The given writer schema ({}) for a SchemaResolvingDecoder cannot be listed", writerSchema, e);
+                return null;
+            }
+            for (Path schemaFile : schemaFiles) {
+                try {
+                    result.withWriterSchema(new Schema.Parser().parse(schemaFile.toFile()));
+                } catch (IOException | SchemaParseException e) {
+                    logger.error("The given writer schema ({}) for a SchemaResolvingDecoder cannot be parsed", schemaFile, e);
+                    return null;
+                }
+                logger.info("Writer schema {} is added to the SchemaResolvingDecoder", schemaFile);
+            }
+        }
+        return result;
+    }
+
+    private List<Path> getSchemaFiles(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> paths = Files.list(path)) {
+            return paths.filter(p -> p.getFileName().toString().endsWith(SCHEMA_FILE_EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    public static class Config {
+
+        /**
+         * The schema files (or the directories of the .avsc files) of the report versions messages can be written with,
+         * besides the version of the connector
+         */
+        @NotNull
+        public List<String> writerSchemas = new ArrayList<>();
+
+    }
+}
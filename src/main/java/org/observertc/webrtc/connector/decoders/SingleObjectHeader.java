@@ -0,0 +1,50 @@
+package org.observertc.webrtc.connector.decoders;
+
+import org.apache.avro.SchemaNormalization;
+import org.observertc.webrtc.schemas.reports.Report;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reads the header of the Avro single-object encoding the reports are written with:
+ * the marker (2 bytes) followed by the fingerprint of the writer schema (8 bytes, little endian).
+ * The header is read from the position of the buffer, the position is not changed.
+ */
+final class SingleObjectHeader {
+
+	static final int LENGTH = 10;
+	private static final byte MARKER_FIRST_BYTE = (byte) 0xC3;
+	private static final byte MARKER_SECOND_BYTE = (byte) 0x01;
+	private static final long REPORT_FINGERPRINT = SchemaNormalization.parsingFingerprint64(Report.getClassSchema());
+
+	private SingleObjectHeader() {
+
+	}
+
+	/**
+	 * Checks if the remaining bytes of the buffer are enough for the header and start with the marker.
+	 */
+	static boolean hasMarker(ByteBuffer buffer) {
+		if (buffer.remaining() < LENGTH) {
+			return false;
+		}
+		int position = buffer.position();
+		return buffer.get(position) == MARKER_FIRST_BYTE && buffer.get(position + 1) == MARKER_SECOND_BYTE;
+	}
+
+	/**
+	 * Reads the fingerprint of the header, the buffer must have the marker (see {@link #hasMarker(ByteBuffer)}).
+	 */
+	static long getFingerprint(ByteBuffer buffer) {
+		return buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).getLong(buffer.position() + 2);
+	}
+
+	/**
+	 * Checks if the remaining bytes of the buffer start with the header of the messages
+	 * written with the schema of this {@link Report}.
+	 */
+	static boolean isWrittenByReportSchema(ByteBuffer buffer) {
+		return hasMarker(buffer) && getFingerprint(buffer) == REPORT_FINGERPRINT;
+	}
+}
@@ -0,0 +1,93 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import org.observertc.webrtc.schemas.reports.Report;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Tells the source up to which sequence number its items have been processed.
+ *
+ * <p>Reports arriving to the buffer in the order of their sequence numbers are pending until the sink writes them.
+ * An item is processed if every report decoded from an item with lower or equal sequence number
+ * is either written by the sink or dropped before the buffer. Since the items are decoded and transformed in order,
+ * every item with a lower sequence number than the last buffered one is either buffered or dropped.
+ * When the flow of the items completes, the items following the last buffered one are dropped,
+ * so they are processed as soon as nothing is pending.
+ */
+class Acknowledgements {
+
+    private final ReportSequences sequences;
+    private final ReportAttribute<Long> buffered = new ReportAttribute<>(Integer.MAX_VALUE);
+    private final LongConsumer acknowledge;
+    private final TreeMap<Long, Integer> pending = new TreeMap<>();
+    private long lastBuffered = -1;
+    private long lastAcknowledged = -1;
+    private long lastCompleted = -1;
+    private boolean closed = false;
+
+    Acknowledgements(ReportSequences sequences, LongConsumer acknowledge) {
+        this.sequences = sequences;
+        this.acknowledge = acknowledge;
+    }
+
+    void onBuffered(Report report) {
+        Long sequence = this.sequences.remove(report);
+        if (Objects.isNull(sequence)) {
+            return;
+        }
+        this.buffered.put(report, sequence);
+        synchronized (this) {
+            this.pending.merge(sequence, 1, Integer::sum);
+            this.lastBuffered = Math.max(this.lastBuffered, sequence);
+        }
+    }
+
+    void onWritten(List<Report> reports) {
+        long processed;
+        synchronized (this) {
+            for (Report report : reports) {
+                Long sequence = this.buffered.remove(report);
+                if (Objects.isNull(sequence)) {
+                    continue;
+                }
+                this.pending.computeIfPresent(sequence, (key, count) -> count < 2 ? null : count - 1);
+            }
+            processed = this.pending.isEmpty() ? Math.max(this.lastBuffered, this.lastCompleted) : this.pending.firstKey() - 1;
+            if (processed <= this.lastAcknowledged) {
+                return;
+            }
+            this.lastAcknowledged = processed;
+        }
+        this.acknowledge.accept(processed);
+    }
+
+    /**
+     * Tells that the flow of the items is completed, so every item counted by the sequences is either buffered or dropped.
+     */
+    void onCompleted() {
+        long processed;
+        synchronized (this) {
+            this.lastCompleted = this.sequences.getLast();
+            if (!this.pending.isEmpty() || this.lastCompleted <= this.lastAcknowledged) {
+                return;
+            }
+            processed = this.lastCompleted;
+            this.lastAcknowledged = processed;
+        }
+        this.acknowledge.accept(processed);
+    }
+
+    /**
+     * Tells that no more reports are buffered (i.e.: the partition of the source is revoked).
+     */
+    synchronized void close() {
+        this.closed = true;
+    }
+
+    synchronized boolean isFinished() {
+        return this.closed && this.pending.isEmpty();
+    }
+}
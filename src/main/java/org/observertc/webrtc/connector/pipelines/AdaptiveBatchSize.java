@@ -0,0 +1,62 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Tunes the size of the batches between the given bounds, so the sink spends
+ * about the target flush time to write one batch.
+ *
+ * <p>After every flush the time the sink spent on one item is used to estimate the
+ * batch size fits into the target flush time, and the batch size is moved halfway towards it.
+ * The batch size only grows if the flushed batch was closed by a limit of the batch
+ * (the number of items or the total size of the items), so during quiet periods,
+ * when the batches are closed by the waiting time, the batch size is not inflated.
+ * If the reason is unknown, the batch size only grows if the flushed batch was full.
+ */
+class AdaptiveBatchSize implements IntSupplier {
+
+    private final int minItems;
+    private final int maxItems;
+    private final long targetFlushTimeInMs;
+    private final AtomicInteger batchSize;
+
+    AdaptiveBatchSize(int minItems, int maxItems, long targetFlushTimeInMs) {
+        if (minItems < 1 || maxItems < minItems) {
+            throw new IllegalArgumentException(String.format("Invalid bounds for batch size: [%d, %d]", minItems, maxItems));
+        }
+        this.minItems = minItems;
+        this.maxItems = maxItems;
+        this.targetFlushTimeInMs = targetFlushTimeInMs;
+        this.batchSize = new AtomicInteger(minItems);
+    }
+
+    @Override
+    public int getAsInt() {
+        return this.batchSize.get();
+    }
+
+    void onFlushed(int items, long flushTimeInMs, BatchCloseReason closeReason) {
+        if (items < 1) {
+            return;
+        }
+        this.batchSize.updateAndGet(current -> {
+            double timePerItem = Math.max(flushTimeInMs, 1) / (double) items;
+            long ideal = (long) (this.targetFlushTimeInMs / timePerItem);
+            if (current <= ideal && !this.isClosedByLimit(items, current, closeReason)) {
+                // the input is too slow to tell whether a bigger batch fits
+                return current;
+            }
+            long next = current + (ideal - current) / 2;
+            return (int) Math.max(this.minItems, Math.min(this.maxItems, next));
+        });
+    }
+
+    private boolean isClosedByLimit(int items, int current, BatchCloseReason closeReason) {
+        if (Objects.isNull(closeReason)) {
+            return current <= items;
+        }
+        return closeReason == BatchCloseReason.MaxItems || closeReason == BatchCloseReason.MaxBytes;
+    }
+}
@@ -0,0 +1,20 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import javax.validation.constraints.Min;
+
+public class AdaptiveBufferConfig {
+
+    public boolean enabled = false;
+
+    /**
+     * The lower bound of the batch size, the upper bound is the maxItems of the buffer
+     */
+    @Min(1)
+    public int minItems = 100;
+
+    /**
+     * The time the sink should spend on writing one batch
+     */
+    @Min(1)
+    public int targetFlushTimeInMs = 1000;
+}
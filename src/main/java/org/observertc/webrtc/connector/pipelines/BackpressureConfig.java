@@ -0,0 +1,11 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import javax.validation.constraints.Min;
+
+public class BackpressureConfig {
+
+    public boolean enabled = false;
+
+    @Min(1)
+    public int prefetch = 128;
+}
@@ -0,0 +1,23 @@
+package org.observertc.webrtc.connector.pipelines;
+
+/**
+ * The reasons a {@link BatchingOperator} closes a batch.
+ */
+enum BatchCloseReason {
+    /**
+     * The batch reached the maximal number of items
+     */
+    MaxItems,
+    /**
+     * The batch reached the maximal total size of its items, or the next item would exceed it
+     */
+    MaxBytes,
+    /**
+     * The maximal waiting time elapsed before the batch reached its limits
+     */
+    MaxWaitingTime,
+    /**
+     * The upstream completed
+     */
+    Completed
+}
@@ -0,0 +1,356 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.core.FlowableOperator;
+import io.reactivex.rxjava3.core.FlowableSubscriber;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Collects items into batches by the number of items and by the elapsed time
+ * while honouring the demand of the downstream.
+ *
+ * <p>Unlike {@link io.reactivex.rxjava3.core.Flowable#buffer(long, TimeUnit, int)},
+ * which requests unbounded number of items from its upstream, this operator
+ * requests items only for the batch it is accumulating (in chunks of at most prefetch items),
+ * and stops requesting while a closed batch is waiting for the downstream to request it.
+ * Hence at most two batches are held in memory at any time.
+ *
+ * <p>The maximal number of items in a batch can be changed while the operator is running
+ * (see {@link #withMaxItems(IntSupplier)}), the change is applied from the batch being accumulated.
+ *
+ * <p>Batches can be limited by the total size of their items as well (see {@link #withMaxBytes(long, ToIntFunction)}),
+ * an item which would exceed the limit starts a new batch. An item bigger than the limit forms a batch alone.
+ *
+ * <p>Items can be partitioned (see {@link #withPartitions(Function)}), in which case every partition
+ * accumulates its own batch with its own limits, and a batch contains items of one partition only.
+ * In this case a batch is held in memory for every partition.
+ *
+ * <p>The emitted batches are {@link ClosedBatch} instances, which tell why the batch was closed
+ * (see {@link BatchCloseReason}).
+ */
+class BatchingOperator<T> implements FlowableOperator<List<T>, T> {
+
+    private IntSupplier maxItems;
+    private long maxBytes = 0;
+    private ToIntFunction<T> sizeOf = item -> 0;
+    private Function<T, Object> partitionKey = null;
+    private final long maxWaitingTimeInMs;
+    private final int prefetch;
+    private final Scheduler scheduler;
+
+    BatchingOperator(int maxItems, long maxWaitingTimeInMs, int prefetch) {
+        this(maxItems, maxWaitingTimeInMs, prefetch, Schedulers.computation());
+    }
+
+    BatchingOperator(int maxItems, long maxWaitingTimeInMs, int prefetch, Scheduler scheduler) {
+        if (maxItems < 1) {
+            throw new IllegalArgumentException("maxItems must be positive, but it is " + maxItems);
+        }
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("prefetch must be positive, but it is " + prefetch);
+        }
+        this.maxItems = () -> maxItems;
+        this.maxWaitingTimeInMs = maxWaitingTimeInMs;
+        this.prefetch = prefetch;
+        this.scheduler = scheduler;
+    }
+
+    BatchingOperator<T> withMaxItems(IntSupplier maxItems) {
+        this.maxItems = maxItems;
+        return this;
+    }
+
+    BatchingOperator<T> withMaxBytes(long maxBytes, ToIntFunction<T> sizeOf) {
+        this.maxBytes = maxBytes;
+        this.sizeOf = sizeOf;
+        return this;
+    }
+
+    BatchingOperator<T> withPartitions(Function<T, Object> partitionKey) {
+        this.partitionKey = partitionKey;
+        return this;
+    }
+
+    @Override
+    public @NonNull Subscriber<? super T> apply(@NonNull Subscriber<? super List<T>> subscriber) throws Throwable {
+        return new BatchingSubscriber<>(subscriber, this.maxItems, this.maxBytes, this.sizeOf, this.partitionKey,
+                this.maxWaitingTimeInMs, this.prefetch, this.scheduler);
+    }
+
+    /**
+     * A batch emitted by the {@link BatchingOperator} together with the reason it was closed.
+     */
+    static class ClosedBatch<T> extends ArrayList<T> {
+        private BatchCloseReason closeReason = BatchCloseReason.Completed;
+
+        BatchCloseReason getCloseReason() {
+            return this.closeReason;
+        }
+    }
+
+    private static class Batch<T> {
+        private final ClosedBatch<T> items = new ClosedBatch<>();
+        private long bytes = 0;
+    }
+
+    private static class BatchingSubscriber<T> implements FlowableSubscriber<T>, Subscription {
+        private final Subscriber<? super List<T>> downstream;
+        private final IntSupplier maxItems;
+        private final long maxBytes;
+        private final ToIntFunction<T> sizeOf;
+        private final Function<T, Object> partitionKey;
+        private final long maxWaitingTimeInMs;
+        private final int prefetch;
+        private final Scheduler scheduler;
+
+        private final Object lock = new Object();
+        private final Queue<List<T>> closedBatches = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong(0);
+        private final AtomicInteger wip = new AtomicInteger(0);
+        private final Map<Object, Batch<T>> batches = new LinkedHashMap<>();
+        private long pending = 0;
+
+        private Subscription upstream;
+        private Disposable timer = Disposable.empty();
+        private Throwable error = null;
+        private volatile boolean done = false;
+        private volatile boolean cancelled = false;
+
+        private BatchingSubscriber(Subscriber<? super List<T>> downstream, IntSupplier maxItems, long maxBytes, ToIntFunction<T> sizeOf,
+                                   Function<T, Object> partitionKey, long maxWaitingTimeInMs, int prefetch, Scheduler scheduler) {
+            this.downstream = downstream;
+            this.maxItems = maxItems;
+            this.maxBytes = maxBytes;
+            this.sizeOf = sizeOf;
+            this.partitionKey = partitionKey;
+            this.maxWaitingTimeInMs = maxWaitingTimeInMs;
+            this.prefetch = prefetch;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void onSubscribe(@NonNull Subscription subscription) {
+            this.upstream = subscription;
+            if (0 < this.maxWaitingTimeInMs) {
+                this.timer = this.scheduler.schedulePeriodicallyDirect(this::onTimeout,
+                        this.maxWaitingTimeInMs, this.maxWaitingTimeInMs, TimeUnit.MILLISECONDS);
+            }
+            this.downstream.onSubscribe(this);
+            this.replenish();
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (this.done) {
+                return;
+            }
+            int size = 0 < this.maxBytes ? this.sizeOf.applyAsInt(item) : 0;
+            Object key = Objects.isNull(this.partitionKey) ? this : this.partitionKey.apply(item);
+            synchronized (this.lock) {
+                Batch<T> batch = this.batches.computeIfAbsent(key, k -> new Batch<>());
+                if (0 < this.maxBytes && this.maxBytes < batch.bytes + size) {
+                    this.closeBatch(key, BatchCloseReason.MaxBytes);
+                    batch = this.batches.computeIfAbsent(key, k -> new Batch<>());
+                }
+                batch.items.add(item);
+                batch.bytes += size;
+                --this.pending;
+                if (this.getMaxItems() <= batch.items.size()) {
+                    this.closeBatch(key, BatchCloseReason.MaxItems);
+                } else if (0 < this.maxBytes && this.maxBytes <= batch.bytes) {
+                    this.closeBatch(key, BatchCloseReason.MaxBytes);
+                }
+            }
+            this.drain();
+            this.replenish();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (this.done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            this.error = t;
+            this.done = true;
+            this.timer.dispose();
+            this.drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (this.done) {
+                return;
+            }
+            synchronized (this.lock) {
+                this.closeBatches(BatchCloseReason.Completed);
+            }
+            this.done = true;
+            this.timer.dispose();
+            this.drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n < 1) {
+                this.cancel();
+                this.onError(new IllegalArgumentException("Only positive number of items can be requested, but it was " + n));
+                return;
+            }
+            this.requested.getAndAccumulate(n, (current, added) -> {
+                long result = current + added;
+                return result < 0 ? Long.MAX_VALUE : result;
+            });
+            this.drain();
+            this.replenish();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.timer.dispose();
+            this.upstream.cancel();
+        }
+
+        private void onTimeout() {
+            synchronized (this.lock) {
+                if (!this.closedBatches.isEmpty()) {
+                    return;
+                }
+                this.closeBatches(BatchCloseReason.MaxWaitingTime);
+            }
+            this.drain();
+            this.replenish();
+        }
+
+        /**
+         * Must be called holding the lock
+         */
+        private void closeBatch(Object key, BatchCloseReason reason) {
+            Batch<T> batch = this.batches.remove(key);
+            if (Objects.isNull(batch) || batch.items.isEmpty()) {
+                return;
+            }
+            batch.items.closeReason = reason;
+            this.closedBatches.offer(batch.items);
+        }
+
+        /**
+         * Must be called holding the lock
+         */
+        private void closeBatches(BatchCloseReason reason) {
+            for (Batch<T> batch : this.batches.values()) {
+                if (!batch.items.isEmpty()) {
+                    batch.items.closeReason = reason;
+                    this.closedBatches.offer(batch.items);
+                }
+            }
+            this.batches.clear();
+        }
+
+        private int getMaxItems() {
+            return Math.max(1, this.maxItems.getAsInt());
+        }
+
+        private void replenish() {
+            long toRequest;
+            synchronized (this.lock) {
+                if (this.done || this.cancelled || !this.closedBatches.isEmpty()) {
+                    return;
+                }
+                // the next item can belong to any partition, so only the prefetch limits the request of partitioned batches
+                if (Objects.nonNull(this.partitionKey)) {
+                    if (this.prefetch / 2 < this.pending) {
+                        return;
+                    }
+                    toRequest = this.prefetch - this.pending;
+                } else {
+                    Batch<T> batch = this.batches.get(this);
+                    int batchSize = Objects.isNull(batch) ? 0 : batch.items.size();
+                    if (this.getMaxItems() <= batchSize) {
+                        // the maximal number of items shrank below the size of the open batch after its last item was added,
+                        // so no item would be requested to close it
+                        this.closeBatch(this, BatchCloseReason.MaxItems);
+                        toRequest = 0;
+                    } else if (this.prefetch / 2 < this.pending) {
+                        return;
+                    } else {
+                        toRequest = Math.min(this.prefetch - this.pending, this.getMaxItems() - batchSize - this.pending);
+                    }
+                }
+                if (toRequest < 1) {
+                    toRequest = 0;
+                }
+                this.pending += toRequest;
+            }
+            if (0 < toRequest) {
+                this.upstream.request(toRequest);
+            } else {
+                this.drain();
+            }
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                if (this.cancelled) {
+                    this.closedBatches.clear();
+                    return;
+                }
+                boolean terminated = this.done;
+                if (terminated && Objects.nonNull(this.error)) {
+                    this.closedBatches.clear();
+                    this.downstream.onError(this.error);
+                    return;
+                }
+                long demand = this.requested.get();
+                long emitted = 0;
+                while (emitted != demand) {
+                    if (this.cancelled) {
+                        this.closedBatches.clear();
+                        return;
+                    }
+                    List<T> next = this.closedBatches.poll();
+                    if (Objects.isNull(next)) {
+                        break;
+                    }
+                    this.downstream.onNext(next);
+                    ++emitted;
+                }
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    this.requested.addAndGet(-emitted);
+                }
+                if (terminated && this.closedBatches.isEmpty()) {
+                    this.downstream.onComplete();
+                    return;
+                }
+                missed = this.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+}
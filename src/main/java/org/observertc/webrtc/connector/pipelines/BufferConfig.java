@@ -9,4 +9,23 @@ public class BufferConfig {
 
     @Min(0)
     public int maxWaitingTimeInS = 30;
+
+    /**
+     * If it is given, it overrides maxWaitingTimeInS
+     */
+    @Min(0)
+    public Integer maxWaitingTimeInMs = null;
+
+    /**
+     * The maximal total size of the encoded reports in a batch, 0 means no limit
+     */
+    @Min(0)
+    public long maxBytes = 0;
+
+    /**
+     * If it is true, reports are batched by their types, and every batch contains reports of one type
+     */
+    public boolean partitionByReportType = false;
+
+    public AdaptiveBufferConfig adaptive = new AdaptiveBufferConfig();
 }
@@ -0,0 +1,51 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.observertc.webrtc.connector.sinks.Sink;
+import org.observertc.webrtc.schemas.reports.Report;
+
+import java.util.List;
+
+/**
+ * Measures the time the wrapped sink spends on a batch, and reports it
+ * together with the number of reports in the batch and the reason the batch was closed
+ * to the {@link AdaptiveBatchSize}.
+ */
+class FlushTimingSink extends Sink {
+
+    private final Sink sink;
+    private final AdaptiveBatchSize adaptiveBatchSize;
+
+    FlushTimingSink(Sink sink, AdaptiveBatchSize adaptiveBatchSize) {
+        this.sink = sink;
+        this.adaptiveBatchSize = adaptiveBatchSize;
+    }
+
+    @Override
+    public void onSubscribe(@NonNull Disposable d) {
+        this.sink.onSubscribe(d);
+    }
+
+    @Override
+    public void onNext(@NonNull List<Report> reports) {
+        long started = System.nanoTime();
+        this.sink.onNext(reports);
+        long elapsedInMs = (System.nanoTime() - started) / 1_000_000L;
+        BatchCloseReason closeReason = null;
+        if (reports instanceof BatchingOperator.ClosedBatch) {
+            closeReason = ((BatchingOperator.ClosedBatch<Report>) reports).getCloseReason();
+        }
+        this.adaptiveBatchSize.onFlushed(reports.size(), elapsedInMs, closeReason);
+    }
+
+    @Override
+    public void onError(@NonNull Throwable e) {
+        this.sink.onError(e);
+    }
+
+    @Override
+    public void onComplete() {
+        this.sink.onComplete();
+    }
+}
@@ -0,0 +1,109 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.core.FlowableOperator;
+import io.reactivex.rxjava3.core.FlowableSubscriber;
+import io.reactivex.rxjava3.core.ObservableOperator;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Runs an {@link ObservableOperator} (decoders, transformations) inside a {@link io.reactivex.rxjava3.core.Flowable}.
+ *
+ * <p>The adapted operators emit at most one item for every item they receive, therefore
+ * the demand of the downstream is forwarded to the upstream as it is, and every item
+ * dropped by the operator is compensated by requesting one more from the upstream.
+ */
+class ObservableOperatorAdapter<R, T> implements FlowableOperator<R, T> {
+
+    private final ObservableOperator<R, T> operator;
+
+    ObservableOperatorAdapter(ObservableOperator<R, T> operator) {
+        this.operator = operator;
+    }
+
+    @Override
+    public @NonNull Subscriber<? super T> apply(@NonNull Subscriber<? super R> subscriber) throws Throwable {
+        AdapterSubscriber<R, T> result = new AdapterSubscriber<>(subscriber);
+        result.operatorObserver = this.operator.apply(result.downstreamObserver);
+        return result;
+    }
+
+    private static class AdapterSubscriber<R, T> implements FlowableSubscriber<T>, Subscription {
+        private final Subscriber<? super R> downstream;
+        private final Observer<R> downstreamObserver;
+        private Observer<? super T> operatorObserver;
+        private Subscription upstream;
+        private boolean emitted = false;
+        private boolean done = false;
+
+        private AdapterSubscriber(Subscriber<? super R> downstream) {
+            this.downstream = downstream;
+            this.downstreamObserver = new Observer<R>() {
+                @Override
+                public void onSubscribe(@NonNull Disposable d) {
+                    // the subscription is handed over to the downstream by the adapter itself
+                }
+
+                @Override
+                public void onNext(@NonNull R item) {
+                    emitted = true;
+                    downstream.onNext(item);
+                }
+
+                @Override
+                public void onError(@NonNull Throwable e) {
+                    done = true;
+                    downstream.onError(e);
+                }
+
+                @Override
+                public void onComplete() {
+                    done = true;
+                    downstream.onComplete();
+                }
+            };
+        }
+
+        @Override
+        public void onSubscribe(@NonNull Subscription subscription) {
+            this.upstream = subscription;
+            this.operatorObserver.onSubscribe(Disposable.fromSubscription(subscription));
+            this.downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (this.done) {
+                return;
+            }
+            this.emitted = false;
+            this.operatorObserver.onNext(item);
+            if (!this.emitted && !this.done) {
+                this.upstream.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            this.operatorObserver.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            this.operatorObserver.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            this.upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            this.upstream.cancel();
+        }
+    }
+}
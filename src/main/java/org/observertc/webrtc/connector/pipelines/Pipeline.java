@@ -1,18 +1,40 @@
 package org.observertc.webrtc.connector.pipelines;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivex.rxjava3.core.BackpressureStrategy;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.ObservableOperator;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.observertc.webrtc.connector.decoders.HeaderFilter;
+import org.observertc.webrtc.connector.decoders.PassThroughDecoder;
+import org.observertc.webrtc.connector.decoders.SchemaResolvingDecoder;
 import org.observertc.webrtc.connector.sinks.Sink;
 import org.observertc.webrtc.connector.sources.Source;
+import org.observertc.webrtc.connector.transformations.Filter;
 import org.observertc.webrtc.connector.transformations.Transformation;
 import org.observertc.webrtc.schemas.reports.Report;
+import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
 
 public class Pipeline implements Runnable {
     public enum State {
@@ -28,18 +50,34 @@ public class Pipeline implements Runnable {
         }
     }
 
+    public static final String STAGE_QUEUE_DEPTH_METRIC_NAME = "pipeline.stage.queue.depth";
+    public static final String UNKNOWN_SCHEMA_MESSAGES_METRIC_NAME = "pipeline.decoder.unknown.schema.messages";
+    private static final String DECODER_STAGE_NAME = "decoder";
+    private static final String TRANSFORMATIONS_STAGE_NAME = "transformations";
+    private static final String SINK_STAGE_NAME = "sink";
+    private static final int REPORT_SIZES_CAPACITY = 65536;
+
     private static final Logger DEFAULT_LOGGER = LoggerFactory.getLogger(Pipeline.class);
     private String name;
     private Source source;
     private ObservableOperator<Report, byte[]> decoder;
-    private List<Transformation> transformations = new LinkedList<>();
+    private HeaderFilter headerFilter = null;
+    private List<List<Transformation>> rails = List.of(new LinkedList<>());
     private Runnable closingCallback = () -> {};
     private Sink sink;
     private BufferConfig bufferConfig = null;
+    private BackpressureConfig backpressureConfig = new BackpressureConfig();
+    private StagesConfig stagesConfig = new StagesConfig();
+    private MeterRegistry meterRegistry = null;
+    private final List<Meter> meters = new LinkedList<>();
+    private final ReportSizes reportSizes = new ReportSizes(REPORT_SIZES_CAPACITY);
+    private ReportSequences reportSequences = null;
+    private final Set<Acknowledgements> acknowledgements = ConcurrentHashMap.newKeySet();
     private final Logger logger;
     private volatile State state = State.CREATED;
 
     public Pipeline(String name) {
+        this.name = name;
         this.logger = LoggerFactory.getLogger(name);
     }
 
@@ -48,37 +86,31 @@ public class Pipeline implements Runnable {
         if (Objects.isNull(this.source)) {
             throw new IllegalStateException("A pipeline cannot be started without a source");
         }
-        if (Objects.isNull(this.decoder)) {
+        if (Objects.isNull(this.decoder) && !this.source.emitsReports()) {
             throw new IllegalStateException("A pipeline cannot be started without a decoder");
         }
         if (Objects.isNull(this.sink)) {
             throw new IllegalStateException("A pipeline cannot be started without a sink");
         }
 
-        Observable<byte[]> observableBytes = this.source;
-
-        Observable<Report> observableReport = observableBytes.lift(this.decoder).share();
-
-        for (Transformation transformation : this.transformations) {
-            observableReport = observableReport.lift(transformation).share();
-        }
-
-        Observable<List<Report>> observableReports;
-        if (this.bufferConfig.maxWaitingTimeInS < 1) {
-            observableReports = observableReport.buffer(this.bufferConfig.maxItems).share();
+        this.makeDecoderMeters();
+        Runnable process;
+        if (this.source.isPartitioned()) {
+            process = this.makePartitionedProcess();
+        } else if (this.backpressureConfig.enabled) {
+            process = this.makeFlowableProcess();
         } else {
-            observableReports = observableReport.buffer(this.bufferConfig.maxWaitingTimeInS, TimeUnit.SECONDS, this.bufferConfig.maxItems).share();
+            process = this.makeObservableProcess();
         }
-
-        observableReports.subscribe(this.sink);
         try {
             this.state = State.RUN;
-            this.source.run();
+            process.run();
             this.state = State.FINISHED;
         } catch(Throwable t) {
             logger.error("Exception occurred during the execution of the pipeline", t);
             this.state = State.FINISHED.withException(t);
         } finally{
+            this.removeMeters();
             try {
                 this.closingCallback.run();
             } catch (Throwable t) {
@@ -91,6 +123,438 @@ public class Pipeline implements Runnable {
         }
     }
 
+    private Runnable makeObservableProcess() {
+        if (this.source.requiresAcknowledgement()) {
+            this.reportSequences = new ReportSequences();
+        }
+        Observable<Report> observableReport;
+        if (this.source.emitsReports()) {
+            observableReport = this.observeOn(this.source.asReports().toObservable(), DECODER_STAGE_NAME, this.stagesConfig.decoder)
+                    .lift(this.makePassThroughDecoder(this.reportSequences))
+                    .share();
+        } else {
+            Observable<byte[]> observableBytes = this.observeOn(this.source, DECODER_STAGE_NAME, this.stagesConfig.decoder);
+            observableReport = observableBytes.lift(this.makeDecoder(this.reportSequences)).share();
+        }
+
+        if (1 < this.rails.size()) {
+            observableReport = this.makeObservableRails(observableReport);
+        } else {
+            List<Transformation> transformations = this.rails.get(0);
+            if (!transformations.isEmpty()) {
+                observableReport = this.observeOn(observableReport, TRANSFORMATIONS_STAGE_NAME, this.stagesConfig.transformations);
+            }
+            for (Transformation transformation : transformations) {
+                observableReport = observableReport.lift(this.makeTransformation(transformation, this.reportSequences)).share();
+            }
+        }
+        if (Objects.nonNull(this.reportSequences)) {
+            Acknowledgements acknowledgements = this.makeAcknowledgements(this.reportSequences, this.source::acknowledge);
+            observableReport = observableReport
+                    .doOnNext(acknowledgements::onBuffered)
+                    .doOnComplete(acknowledgements::onCompleted);
+        }
+
+        Observable<List<Report>> observableReports;
+        Sink sink;
+        long maxWaitingTimeInMs = this.getMaxWaitingTimeInMs();
+        if (this.bufferConfig.adaptive.enabled || 0 < this.bufferConfig.maxBytes || this.bufferConfig.partitionByReportType) {
+            BatchingOperator<Report> batchingOperator = this.makeBatchingOperator();
+            sink = this.makeSink(batchingOperator);
+            observableReports = observableReport
+                    .toFlowable(BackpressureStrategy.BUFFER)
+                    .lift(batchingOperator)
+                    .toObservable()
+                    .share();
+        } else if (maxWaitingTimeInMs < 1) {
+            sink = this.makeSink(null);
+            observableReports = observableReport.buffer(this.bufferConfig.maxItems).share();
+        } else {
+            sink = this.makeSink(null);
+            observableReports = observableReport.buffer(maxWaitingTimeInMs, TimeUnit.MILLISECONDS, this.bufferConfig.maxItems).share();
+        }
+        observableReports = this.observeOn(observableReports, SINK_STAGE_NAME, this.stagesConfig.sink);
+
+        CountDownLatch finished = new CountDownLatch(1);
+        Observable<List<Report>> result = observableReports.doFinally(finished::countDown);
+        if (this.source.emitsReports()) {
+            // the reports are emitted when the sink subscribes, not when the source is run
+            return () -> {
+                result.subscribe(sink);
+                this.await(finished, () -> {});
+            };
+        }
+        result.subscribe(sink);
+        return () -> {
+            this.source.run();
+            this.await(finished, () -> {});
+        };
+    }
+
+    /**
+     * Makes a process where the sink requests the batches, and the demand
+     * is propagated back to the source, so the source is not read faster than
+     * the sink can process the reports.
+     */
+    private Runnable makeFlowableProcess() {
+        if (this.source.requiresAcknowledgement()) {
+            this.reportSequences = new ReportSequences();
+        }
+        Flowable<Report> flowableReport;
+        if (this.source.emitsReports()) {
+            flowableReport = this.observeOn(this.source.asReports(), DECODER_STAGE_NAME, this.stagesConfig.decoder)
+                    .lift(new ObservableOperatorAdapter<>(this.makePassThroughDecoder(this.reportSequences)));
+        } else {
+            Flowable<byte[]> flowableBytes = this.observeOn(this.source.asFlowable(), DECODER_STAGE_NAME, this.stagesConfig.decoder);
+            flowableReport = flowableBytes.lift(new ObservableOperatorAdapter<>(this.makeDecoder(this.reportSequences)));
+        }
+
+        if (1 < this.rails.size()) {
+            flowableReport = this.makeFlowableRails(flowableReport);
+        } else {
+            List<Transformation> transformations = this.rails.get(0);
+            if (!transformations.isEmpty()) {
+                flowableReport = this.observeOn(flowableReport, TRANSFORMATIONS_STAGE_NAME, this.stagesConfig.transformations);
+            }
+            for (Transformation transformation : transformations) {
+                flowableReport = flowableReport.lift(new ObservableOperatorAdapter<>(this.makeTransformation(transformation, this.reportSequences)));
+            }
+        }
+        if (Objects.nonNull(this.reportSequences)) {
+            Acknowledgements acknowledgements = this.makeAcknowledgements(this.reportSequences, this.source::acknowledge);
+            flowableReport = flowableReport
+                    .doOnNext(acknowledgements::onBuffered)
+                    .doOnComplete(acknowledgements::onCompleted);
+        }
+        return this.makeFlowableProcess(flowableReport);
+    }
+
+    /**
+     * Makes a process where every partition of the source is processed on a rail,
+     * selected by the id of the partition. A rail decodes and transforms the items of its partitions
+     * one by one on the scheduler of the transformations stage (computation by default),
+     * so the order of the items is kept within a partition, and
+     * the items of a partition are acknowledged to the partition itself.
+     */
+    private Runnable makePartitionedProcess() {
+        Scheduler scheduler = this.getScheduler(TRANSFORMATIONS_STAGE_NAME, this.stagesConfig.transformations)
+                .orElseGet(Schedulers::computation);
+        List<Scheduler.Worker> workers = new ArrayList<>();
+        List<Scheduler> railSchedulers = new ArrayList<>();
+        for (int rail = 0; rail < this.rails.size(); ++rail) {
+            // the tasks of a worker are executed one by one, hence partitions sharing a rail
+            // do not run the transformations of the rail concurrently
+            Scheduler.Worker worker = scheduler.createWorker();
+            workers.add(worker);
+            railSchedulers.add(Schedulers.from(worker::schedule));
+        }
+        int queueSize = this.stagesConfig.transformations.queueSize;
+        AtomicLong queueDepth = this.makeQueueDepth(TRANSFORMATIONS_STAGE_NAME);
+        Flowable<Report> flowableReport = this.source.asPartitions()
+                .flatMap(partition -> {
+                    int rail = Math.floorMod(partition.getId(), this.rails.size());
+                    ReportSequences sequences = this.source.requiresAcknowledgement() ? new ReportSequences() : null;
+                    Flowable<Report> result = partition.getItems()
+                            .doOnNext(item -> queueDepth.incrementAndGet())
+                            .observeOn(railSchedulers.get(rail), false, queueSize)
+                            .doOnNext(item -> queueDepth.decrementAndGet())
+                            .lift(new ObservableOperatorAdapter<>(this.makeDecoder(sequences)));
+                    for (Transformation transformation : this.rails.get(rail)) {
+                        result = result.lift(new ObservableOperatorAdapter<>(this.makeTransformation(transformation, sequences)));
+                    }
+                    if (Objects.isNull(sequences)) {
+                        return result;
+                    }
+                    Acknowledgements partitionAcknowledgements = this.makeAcknowledgements(sequences, partition::acknowledge);
+                    return result
+                            .doOnNext(partitionAcknowledgements::onBuffered)
+                            .doOnComplete(partitionAcknowledgements::onCompleted)
+                            .doFinally(partitionAcknowledgements::close);
+                }, false, Integer.MAX_VALUE, queueSize);
+        Runnable process = this.makeFlowableProcess(flowableReport);
+        return () -> {
+            try {
+                process.run();
+            } finally {
+                workers.forEach(Scheduler.Worker::dispose);
+            }
+        };
+    }
+
+    /**
+     * Makes the process batching the reports and writing the batches by the sink.
+     */
+    private Runnable makeFlowableProcess(Flowable<Report> flowableReport) {
+        BatchingOperator<Report> batchingOperator = this.makeBatchingOperator();
+        Sink sink = this.makeSink(batchingOperator);
+        Flowable<List<Report>> flowableReports = flowableReport.lift(batchingOperator);
+
+        if (!this.getScheduler(SINK_STAGE_NAME, this.stagesConfig.sink).isPresent()) {
+            Flowable<List<Report>> result = flowableReports;
+            return () -> result.blockingSubscribe(sink.toSubscriber());
+        }
+        Flowable<List<Report>> result = this.observeOn(flowableReports, SINK_STAGE_NAME, this.stagesConfig.sink);
+        return () -> {
+            CountDownLatch finished = new CountDownLatch(1);
+            AtomicReference<Subscription> subscription = new AtomicReference<>();
+            result.doOnSubscribe(subscription::set)
+                    .doFinally(finished::countDown)
+                    .subscribe(sink.toSubscriber());
+            this.await(finished, () -> {
+                Subscription s = subscription.get();
+                if (Objects.nonNull(s)) {
+                    s.cancel();
+                }
+            });
+        };
+    }
+
+    private ObservableOperator<Report, byte[]> makeDecoder(ReportSequences sequences) {
+        ObservableOperator<Report, byte[]> result = this.decoder;
+        if (Objects.nonNull(this.headerFilter)) {
+            // items dropped by the header filter get their sequence numbers, like items dropped by the decoder
+            ObservableOperator<Report, byte[]> decoder = result;
+            result = downstream -> this.headerFilter.apply(decoder.apply(downstream));
+        }
+        if (0 < this.bufferConfig.maxBytes) {
+            result = this.reportSizes.recordBy(result);
+        }
+        if (Objects.nonNull(sequences)) {
+            result = sequences.recordBy(result);
+        }
+        return result;
+    }
+
+    /**
+     * Makes the decoder of a source emitting reports. The encoded size of the reports is not known
+     * until they are encoded, hence limiting the batches by bytes encodes the reports to get their size.
+     * The filter of the header filter is tested on the reports, as there are no encoded headers to test.
+     */
+    private ObservableOperator<Report, Report> makePassThroughDecoder(ReportSequences sequences) {
+        ObservableOperator<Report, Report> result = new PassThroughDecoder();
+        if (Objects.nonNull(this.headerFilter)) {
+            // items dropped by the filter get their sequence numbers, like items dropped by the header filter
+            ObservableOperator<Report, Report> decoder = result;
+            Filter filter = this.headerFilter.getFilter();
+            result = downstream -> decoder.apply(filter.apply(downstream));
+        }
+        if (Objects.nonNull(sequences)) {
+            result = sequences.recordBy(result);
+        }
+        return result;
+    }
+
+    private ObservableOperator<Report, Report> makeTransformation(Transformation transformation, ReportSequences sequences) {
+        ObservableOperator<Report, Report> result = transformation;
+        if (0 < this.bufferConfig.maxBytes) {
+            result = this.reportSizes.carryBy(result);
+        }
+        if (Objects.nonNull(sequences)) {
+            result = sequences.carryBy(result);
+        }
+        return result;
+    }
+
+    private Acknowledgements makeAcknowledgements(ReportSequences sequences, LongConsumer acknowledge) {
+        Acknowledgements result = new Acknowledgements(sequences, acknowledge);
+        this.acknowledgements.add(result);
+        return result;
+    }
+
+    private void onWritten(List<Report> reports) {
+        Iterator<Acknowledgements> it = this.acknowledgements.iterator();
+        while (it.hasNext()) {
+            Acknowledgements acknowledgements = it.next();
+            acknowledgements.onWritten(reports);
+            if (acknowledgements.isFinished()) {
+                it.remove();
+            }
+        }
+    }
+
+    private BatchingOperator<Report> makeBatchingOperator() {
+        BatchingOperator<Report> result = new BatchingOperator<>(
+                this.bufferConfig.maxItems,
+                this.getMaxWaitingTimeInMs(),
+                this.backpressureConfig.prefetch
+        );
+        if (0 < this.bufferConfig.maxBytes) {
+            result.withMaxBytes(this.bufferConfig.maxBytes, this.reportSizes::sizeOf);
+        }
+        if (this.bufferConfig.partitionByReportType) {
+            result.withPartitions(Report::getType);
+        }
+        return result;
+    }
+
+    /**
+     * Makes the sink the batches are subscribed to. If the source requires acknowledgements,
+     * the written batches are acknowledged. If the buffer is adaptive,
+     * the time the sink spends on the batches tunes the batch size of the batching operator.
+     */
+    private Sink makeSink(BatchingOperator<Report> batchingOperator) {
+        Sink result = this.sink;
+        if (this.source.requiresAcknowledgement()) {
+            result = result.thenOnWritten(this::onWritten);
+        }
+        AdaptiveBufferConfig adaptiveConfig = this.bufferConfig.adaptive;
+        if (Objects.isNull(batchingOperator) || !adaptiveConfig.enabled) {
+            return result;
+        }
+        AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize(
+                Math.min(adaptiveConfig.minItems, this.bufferConfig.maxItems),
+                this.bufferConfig.maxItems,
+                adaptiveConfig.targetFlushTimeInMs
+        );
+        batchingOperator.withMaxItems(adaptiveBatchSize);
+        // the time is measured where the batches are written, i.e.: on the writer thread of an async sink
+        return result.decorateWriter(sink -> new FlushTimingSink(sink, adaptiveBatchSize));
+    }
+
+    private long getMaxWaitingTimeInMs() {
+        if (Objects.nonNull(this.bufferConfig.maxWaitingTimeInMs)) {
+            return this.bufferConfig.maxWaitingTimeInMs;
+        }
+        return TimeUnit.SECONDS.toMillis(this.bufferConfig.maxWaitingTimeInS);
+    }
+
+    /**
+     * Distributes the decoded reports amongst the rails by the {@link RailSelector},
+     * executes the transformations of every rail on the scheduler of the transformations stage
+     * (computation by default), and merges the transformed reports.
+     */
+    private Observable<Report> makeObservableRails(Observable<Report> observableReport) {
+        Scheduler scheduler = this.getScheduler(TRANSFORMATIONS_STAGE_NAME, this.stagesConfig.transformations)
+                .orElseGet(Schedulers::computation);
+        int queueSize = this.stagesConfig.transformations.queueSize;
+        AtomicLong queueDepth = this.makeQueueDepth(TRANSFORMATIONS_STAGE_NAME);
+        return observableReport
+                .groupBy(new RailSelector(this.rails.size()))
+                .flatMap(rail -> {
+                    Observable<Report> result = rail
+                            .doOnNext(item -> queueDepth.incrementAndGet())
+                            .observeOn(scheduler, false, queueSize)
+                            .doOnNext(item -> queueDepth.decrementAndGet());
+                    for (Transformation transformation : this.rails.get(rail.getKey())) {
+                        result = result.lift(this.makeTransformation(transformation, this.reportSequences));
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Distributes the decoded reports amongst the rails by the {@link RailSelector},
+     * executes the transformations of every rail on the scheduler of the transformations stage
+     * (computation by default), and merges the transformed reports.
+     * Every rail requests at most queueSize number of reports.
+     */
+    private Flowable<Report> makeFlowableRails(Flowable<Report> flowableReport) {
+        Scheduler scheduler = this.getScheduler(TRANSFORMATIONS_STAGE_NAME, this.stagesConfig.transformations)
+                .orElseGet(Schedulers::computation);
+        int queueSize = this.stagesConfig.transformations.queueSize;
+        AtomicLong queueDepth = this.makeQueueDepth(TRANSFORMATIONS_STAGE_NAME);
+        int parallelism = this.rails.size();
+        return flowableReport
+                .groupBy(new RailSelector(parallelism), report -> report, false, queueSize)
+                .flatMap(rail -> {
+                    Flowable<Report> result = rail
+                            .doOnNext(item -> queueDepth.incrementAndGet())
+                            .observeOn(scheduler, false, queueSize)
+                            .doOnNext(item -> queueDepth.decrementAndGet());
+                    for (Transformation transformation : this.rails.get(rail.getKey())) {
+                        result = result.lift(new ObservableOperatorAdapter<>(this.makeTransformation(transformation, this.reportSequences)));
+                    }
+                    return result;
+                }, false, parallelism, queueSize);
+    }
+
+    /**
+     * Makes the observers of the stage to receive the items on the scheduler configured for the stage.
+     * Since the scheduler of an observable has an unbounded queue, the queue size is only a capacity hint here.
+     */
+    private <T> Observable<T> observeOn(Observable<T> observable, String stageName, StageConfig stageConfig) {
+        Optional<Scheduler> schedulerHolder = this.getScheduler(stageName, stageConfig);
+        if (!schedulerHolder.isPresent()) {
+            return observable;
+        }
+        AtomicLong queueDepth = this.makeQueueDepth(stageName);
+        return observable
+                .doOnNext(item -> queueDepth.incrementAndGet())
+                .observeOn(schedulerHolder.get(), false, stageConfig.queueSize)
+                .doOnNext(item -> queueDepth.decrementAndGet());
+    }
+
+    /**
+     * Makes the subscribers of the stage to receive the items on the scheduler configured for the stage.
+     * At most queueSize number of items are requested from the previous stage.
+     */
+    private <T> Flowable<T> observeOn(Flowable<T> flowable, String stageName, StageConfig stageConfig) {
+        Optional<Scheduler> schedulerHolder = this.getScheduler(stageName, stageConfig);
+        if (!schedulerHolder.isPresent()) {
+            return flowable;
+        }
+        AtomicLong queueDepth = this.makeQueueDepth(stageName);
+        return flowable
+                .doOnNext(item -> queueDepth.incrementAndGet())
+                .observeOn(schedulerHolder.get(), false, stageConfig.queueSize)
+                .doOnNext(item -> queueDepth.decrementAndGet());
+    }
+
+    private Optional<Scheduler> getScheduler(String stageName, StageConfig stageConfig) {
+        AtomicReference<String> errorMessage = new AtomicReference<>();
+        Optional<StageScheduler> stageSchedulerHolder = StageScheduler.getValueFromString(stageConfig.scheduler, errorMessage);
+        if (!stageSchedulerHolder.isPresent()) {
+            logger.warn("Scheduler {} for stage {} cannot be converted to enum ({}). The default is used ({}).",
+                    stageConfig.scheduler, stageName, errorMessage.get(), StageScheduler.None.name());
+            return Optional.empty();
+        }
+        return stageSchedulerHolder.get().getScheduler();
+    }
+
+    private AtomicLong makeQueueDepth(String stageName) {
+        AtomicLong result = new AtomicLong(0);
+        if (Objects.isNull(this.meterRegistry)) {
+            return result;
+        }
+        Gauge gauge = Gauge.builder(STAGE_QUEUE_DEPTH_METRIC_NAME, result, AtomicLong::get)
+                .description("The number of items waiting in the queue of a pipeline stage")
+                .tag("pipeline", this.getName())
+                .tag("stage", stageName)
+                .register(this.meterRegistry);
+        this.meters.add(gauge);
+        return result;
+    }
+
+    private void makeDecoderMeters() {
+        if (Objects.isNull(this.meterRegistry) || !(this.decoder instanceof SchemaResolvingDecoder)) {
+            return;
+        }
+        FunctionCounter counter = FunctionCounter.builder(UNKNOWN_SCHEMA_MESSAGES_METRIC_NAME,
+                (SchemaResolvingDecoder) this.decoder, SchemaResolvingDecoder::getUnknownSchemaMessages)
+                .description("The number of messages dropped by the decoder, because their schemas are not known")
+                .tag("pipeline", this.getName())
+                .register(this.meterRegistry);
+        this.meters.add(counter);
+    }
+
+    private void removeMeters() {
+        if (Objects.isNull(this.meterRegistry)) {
+            return;
+        }
+        this.meters.forEach(this.meterRegistry::remove);
+        this.meters.clear();
+    }
+
+    private void await(CountDownLatch finished, Runnable interruptedCallback) {
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            interruptedCallback.run();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(this.getName() + ": interrupted while waiting for the stages to finish", e);
+        }
+    }
+
     public State getState() {
         return this.state;
     }
@@ -120,13 +584,53 @@ public class Pipeline implements Runnable {
         return this;
     }
 
+    /**
+     * Sets the filter dropping the encoded items before they are decoded.
+     * Sources emitting reports bypass it, as their items are not encoded.
+     */
+    Pipeline withHeaderFilter(HeaderFilter headerFilter) {
+        this.headerFilter = headerFilter;
+        return this;
+    }
+
     Pipeline withBuffer(BufferConfig bufferConfig) {
         this.bufferConfig = bufferConfig;
         return this;
     }
 
+    Pipeline withBackpressure(BackpressureConfig backpressureConfig) {
+        this.backpressureConfig = backpressureConfig;
+        return this;
+    }
+
+    Pipeline withStages(StagesConfig stagesConfig) {
+        this.stagesConfig = stagesConfig;
+        return this;
+    }
+
+    Pipeline withMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        return this;
+    }
+
+    Pipeline withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(this.getName() + ": parallelism must be positive, but it is " + parallelism);
+        }
+        List<List<Transformation>> rails = new ArrayList<>();
+        for (int rail = 0; rail < parallelism; ++rail) {
+            rails.add(new LinkedList<>());
+        }
+        this.rails = rails;
+        return this;
+    }
+
     Pipeline withTransformation(Transformation transformation) {
-        this.transformations.add(transformation);
+        return this.withTransformation(0, transformation);
+    }
+
+    Pipeline withTransformation(int rail, Transformation transformation) {
+        this.rails.get(rail).add(transformation);
         return this;
     }
 
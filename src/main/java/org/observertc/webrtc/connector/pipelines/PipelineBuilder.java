@@ -8,6 +8,8 @@ import org.observertc.webrtc.ObjectToString;
 import org.observertc.webrtc.connector.configbuilders.AbstractBuilder;
 import org.observertc.webrtc.connector.decoders.Decoder;
 import org.observertc.webrtc.connector.decoders.DecoderBuilder;
+import org.observertc.webrtc.connector.decoders.HeaderFilter;
+import org.observertc.webrtc.connector.decoders.HeaderFilterBuilder;
 import org.observertc.webrtc.connector.sinks.Sink;
 import org.observertc.webrtc.connector.sinks.SinkBuilder;
 import org.observertc.webrtc.connector.sources.Source;
@@ -53,6 +55,11 @@ public class PipelineBuilder extends AbstractBuilder implements Function<Map<Str
             logger.warn("Source was not build for pipeline {}, this pipeline cannot be built.", config.name);
             return Optional.empty();
         }
+        if (source.requiresAcknowledgement() && !source.isPartitioned() && 1 < config.parallelism) {
+            logger.warn("{} requires acknowledgements, which needs the reports to be processed in order, " +
+                    "hence pipeline {} cannot be built with parallelism {}.", source.getClass().getSimpleName(), config.name, config.parallelism);
+            return Optional.empty();
+        }
         result.withSource(source);
 
         DecoderBuilder decoderBuilder = new DecoderBuilder();
@@ -64,7 +71,48 @@ public class PipelineBuilder extends AbstractBuilder implements Function<Map<Str
             return Optional.empty();
         }
         result.withDecoder(decoderHolder.get());
+        if (Objects.nonNull(config.headerFilter) && !config.headerFilter.isEmpty()) {
+            HeaderFilterBuilder headerFilterBuilder = new HeaderFilterBuilder();
+            headerFilterBuilder.withConfiguration(config.headerFilter);
+            HeaderFilter headerFilter = headerFilterBuilder.build();
+            if (Objects.isNull(headerFilter)) {
+                logger.warn("Header filter was not build for pipeline {}, this pipeline cannot be built.", config.name);
+                return Optional.empty();
+            }
+            result.withHeaderFilter(headerFilter);
+        }
+        if (source.emitsReports() && !source.isPartitioned()) {
+            logger.info("{} emits decoded reports, pipeline {} takes them as they are without using the decoder, " +
+                            "and the header filter, if it is given, tests the decoded reports.",
+                    source.getClass().getSimpleName(), config.name);
+        }
+
+        result.withParallelism(config.parallelism);
+        for (int rail = 0; rail < config.parallelism; ++rail) {
+            // every rail needs its own instances, as transformations can be stateful
+            for (Transformation transformation : this.buildTransformations(config)) {
+                result.withTransformation(rail, transformation);
+            }
+        }
+
+        result.withBuffer(config.buffer);
+        result.withBackpressure(config.backpressure);
+        result.withStages(config.stages);
+
+        SinkBuilder sinkBuilder = new SinkBuilder();
+        sinkBuilder.withConfiguration(config.sink);
+        Sink sink = sinkBuilder.build();
+        if (Objects.isNull(sink)) {
+            logger.warn("Sink was not build for pipeline {}, this pipeline cannot be built.", config.name);
+            return Optional.empty();
+        }
+        result.withSink(sink);
 
+        return Optional.of(result);
+    }
+
+    private List<Transformation> buildTransformations(PipelineConfig config) {
+        List<Transformation> result = new LinkedList<>();
         Map<Integer, List<Transformation>> orderedTransformations = new HashMap<>();
         List<Integer> indexes = new ArrayList<>();
         Integer lastInsertedIndex = 0;
@@ -89,23 +137,9 @@ public class PipelineBuilder extends AbstractBuilder implements Function<Map<Str
         indexes.sort(Integer::compareTo);
         for (Integer index : indexes) {
             List<Transformation> transformations = orderedTransformations.get(index);
-            for (Transformation transformation : transformations) {
-                result.withTransformation(transformation);
-            }
-        }
-
-        result.withBuffer(config.buffer);
-
-        SinkBuilder sinkBuilder = new SinkBuilder();
-        sinkBuilder.withConfiguration(config.sink);
-        Sink sink = sinkBuilder.build();
-        if (Objects.isNull(sink)) {
-            logger.warn("Sink was not build for pipeline {}, this pipeline cannot be built.", config.name);
-            return Optional.empty();
+            result.addAll(transformations);
         }
-        result.withSink(sink);
-
-        return Optional.of(result);
+        return result;
     }
 
 }
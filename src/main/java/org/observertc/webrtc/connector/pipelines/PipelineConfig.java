@@ -1,5 +1,6 @@
 package org.observertc.webrtc.connector.pipelines;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -14,12 +15,25 @@ public class PipelineConfig {
     @NotNull
     public Map<String, Object> source;
 
+    /**
+     * The configuration of a filter (see transformations) tested on the header of the encoded reports
+     * before they are decoded, empty means no reports are filtered before the decoder
+     */
+    public Map<String, Object> headerFilter = new HashMap<>();
+
     public Map<String, Object> decoder = new HashMap<>();
 
     public List<Map<String, Object>> transformations = new ArrayList<>();
 
+    @Min(1)
+    public int parallelism = 1;
+
     public BufferConfig buffer = new BufferConfig();
 
+    public BackpressureConfig backpressure = new BackpressureConfig();
+
+    public StagesConfig stages = new StagesConfig();
+
     @NotNull
     public Map<String, Object> sink;
 
@@ -1,5 +1,7 @@
 package org.observertc.webrtc.connector.pipelines;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jooq.Meta;
 import org.observertc.webrtc.ObjectToString;
 import org.observertc.webrtc.connector.configbuilders.ConfigConverter;
@@ -21,6 +23,7 @@ public class Pipelines {
 
     private final Provider<PipelineBuilder> pipelineBuilderProvider;
     private final ThreadPoolExecutor executorService;
+    private final MeterRegistry meterRegistry;
 //    private final Map<UUID, List<Pipeline>> pipelines;
 //    private final Map<UUID, List<Future>> running;
 
@@ -41,12 +44,14 @@ public class Pipelines {
 
     public Pipelines(
                     PipelinesConfig config,
-                    Provider<PipelineBuilder> pipelineBuilderProvider)
+                    Provider<PipelineBuilder> pipelineBuilderProvider,
+                    @Nullable MeterRegistry meterRegistry)
     {
         this.pipelines = new HashMap<>();
         this.executorService = new ThreadPoolExecutor(config.corePoolSize, config.maxPoolSize, 0L, TimeUnit.MILLISECONDS,
                 new LinkedBlockingQueue<Runnable>());
         this.pipelineBuilderProvider = pipelineBuilderProvider;
+        this.meterRegistry = meterRegistry;
 
     }
 
@@ -74,7 +79,7 @@ public class Pipelines {
                 String message = "Cannot build pipeline for configuration: " + ObjectToString.toString(config);
                 throw new IllegalStateException(message);
             }
-            Pipeline pipeline = pipelineHolder.get();
+            Pipeline pipeline = pipelineHolder.get().withMeterRegistry(this.meterRegistry);
             pipelines.prepared.add(pipeline);
         }
         return uuid;
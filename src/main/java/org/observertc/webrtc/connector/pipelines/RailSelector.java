@@ -0,0 +1,139 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import io.reactivex.rxjava3.functions.Function;
+import org.observertc.webrtc.connector.common.ReportVisitor;
+import org.observertc.webrtc.schemas.reports.*;
+
+import java.util.Objects;
+
+/**
+ * Selects the rail a report is processed on.
+ *
+ * <p>Reports about the same call (initiated, finished calls, joined and detached peer connections)
+ * are selected by the callUUID, every other report is selected by the peerConnectionUUID,
+ * so the stateful transformations of a rail see every report belongs to the same call in order.
+ */
+class RailSelector implements Function<Report, Integer> {
+
+    private final int rails;
+    private final ReportVisitor<String> keyResolver;
+
+    RailSelector(int rails) {
+        if (rails < 1) {
+            throw new IllegalArgumentException("The number of rails must be positive, but it is " + rails);
+        }
+        this.rails = rails;
+        this.keyResolver = this.makeKeyResolver();
+    }
+
+    @Override
+    public Integer apply(Report report) {
+        if (this.rails < 2) {
+            return 0;
+        }
+        String key = this.keyResolver.apply(report);
+        if (Objects.isNull(key)) {
+            return 0;
+        }
+        return Math.floorMod(key.hashCode(), this.rails);
+    }
+
+    private ReportVisitor<String> makeKeyResolver() {
+        return new ReportVisitor<String>() {
+            @Override
+            public String visitTrackReport(Report report, Track payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitFinishedCallReport(Report report, FinishedCall payload) {
+                return payload.getCallUUID();
+            }
+
+            @Override
+            public String visitInitiatedCallReport(Report report, InitiatedCall payload) {
+                return payload.getCallUUID();
+            }
+
+            @Override
+            public String visitJoinedPeerConnectionReport(Report report, JoinedPeerConnection payload) {
+                return payload.getCallUUID();
+            }
+
+            @Override
+            public String visitDetachedPeerConnectionReport(Report report, DetachedPeerConnection payload) {
+                return payload.getCallUUID();
+            }
+
+            @Override
+            public String visitInboundRTPReport(Report report, InboundRTP payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitOutboundRTPReport(Report report, OutboundRTP payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitRemoteInboundRTPReport(Report report, RemoteInboundRTP payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitMediaSourceReport(Report report, MediaSource payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitObserverReport(Report report, ObserverEventReport payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitUserMediaErrorReport(Report report, UserMediaError payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitICECandidatePairReport(Report report, ICECandidatePair payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitICELocalCandidateReport(Report report, ICELocalCandidate payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitICERemoteCandidateReport(Report report, ICERemoteCandidate payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitUnrecognizedReport(Report report) {
+                return report.getServiceUUID();
+            }
+
+            @Override
+            public String visitExtensionReport(Report report, ExtensionReport payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitClientDetailsReport(Report report, ClientDetails payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitMediaDeviceReport(Report report, MediaDevice payload) {
+                return payload.getPeerConnectionUUID();
+            }
+
+            @Override
+            public String visitUnknownType(Report report) {
+                return report.getServiceUUID();
+            }
+        };
+    }
+}
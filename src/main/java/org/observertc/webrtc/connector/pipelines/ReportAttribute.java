@@ -0,0 +1,153 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.core.ObservableOperator;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.functions.Function;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Attaches a value to the reports flowing through a pipeline, without changing the reports.
+ *
+ * <p>The value is attached by the decoder returned by {@link #recordBy(ObservableOperator, Function)},
+ * from the item (bytes, or the report itself for sources emitting reports) the report is decoded from, and it is moved from the input to the output report
+ * of the transformations returned by {@link #carryBy(ObservableOperator)}, so transformations
+ * making new reports do not lose the attached value. Reports are identified by their identity.
+ * The wrapped operators must emit their output before they return from onNext.
+ */
+class ReportAttribute<V> {
+    private static final Logger logger = LoggerFactory.getLogger(ReportAttribute.class);
+
+    private final int capacity;
+    private final Map<Key, V> values = new ConcurrentHashMap<>();
+
+    ReportAttribute(int capacity) {
+        this.capacity = capacity;
+    }
+
+    V remove(Report report) {
+        return this.values.remove(new Key(report));
+    }
+
+    void put(Report report, V value) {
+        if (this.capacity <= this.values.size()) {
+            logger.warn("The number of reports with {} attached exceeded the capacity {}, the attached values are cleared",
+                    this.getClass().getSimpleName(), this.capacity);
+            this.values.clear();
+        }
+        this.values.put(new Key(report), value);
+    }
+
+    <T> ObservableOperator<Report, T> recordBy(ObservableOperator<Report, T> decoder, Function<T, V> valueOf) {
+        return downstream -> {
+            AttachingObserver attachingObserver = new AttachingObserver(downstream);
+            Observer<? super T> decoderObserver = decoder.apply(attachingObserver);
+            return new ForwardingObserver<T>(decoderObserver) {
+                @Override
+                public void onNext(@NonNull T item) {
+                    try {
+                        attachingObserver.value = valueOf.apply(item);
+                    } catch (Throwable t) {
+                        this.onError(t);
+                        return;
+                    }
+                    decoderObserver.onNext(item);
+                }
+            };
+        };
+    }
+
+    ObservableOperator<Report, Report> carryBy(ObservableOperator<Report, Report> transformation) {
+        return downstream -> {
+            AttachingObserver attachingObserver = new AttachingObserver(downstream);
+            Observer<? super Report> transformationObserver = transformation.apply(attachingObserver);
+            return new ForwardingObserver<Report>(transformationObserver) {
+                @Override
+                public void onNext(@NonNull Report report) {
+                    attachingObserver.value = remove(report);
+                    transformationObserver.onNext(report);
+                }
+            };
+        };
+    }
+
+    private class AttachingObserver implements Observer<Report> {
+        private final Observer<? super Report> downstream;
+        private V value;
+
+        private AttachingObserver(Observer<? super Report> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(@NonNull Disposable d) {
+            this.downstream.onSubscribe(d);
+        }
+
+        @Override
+        public void onNext(@NonNull Report report) {
+            if (Objects.nonNull(this.value)) {
+                put(report, this.value);
+            }
+            this.downstream.onNext(report);
+        }
+
+        @Override
+        public void onError(@NonNull Throwable e) {
+            this.downstream.onError(e);
+        }
+
+        @Override
+        public void onComplete() {
+            this.downstream.onComplete();
+        }
+    }
+
+    private static abstract class ForwardingObserver<T> implements Observer<T> {
+        private final Observer<? super T> operatorObserver;
+
+        private ForwardingObserver(Observer<? super T> operatorObserver) {
+            this.operatorObserver = operatorObserver;
+        }
+
+        @Override
+        public void onSubscribe(@NonNull Disposable d) {
+            this.operatorObserver.onSubscribe(d);
+        }
+
+        @Override
+        public void onError(@NonNull Throwable e) {
+            this.operatorObserver.onError(e);
+        }
+
+        @Override
+        public void onComplete() {
+            this.operatorObserver.onComplete();
+        }
+    }
+
+    private static final class Key {
+        private final Report report;
+
+        private Key(Report report) {
+            this.report = report;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.report);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).report == this.report;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import io.reactivex.rxjava3.core.ObservableOperator;
+import org.observertc.webrtc.schemas.reports.Report;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Attaches the sequence number of the source item to the reports decoded from it.
+ *
+ * <p>The sequence number is the index of the item in the order the source emitted it,
+ * it is counted by the decoder, hence items must arrive to the decoder in the order the source emitted them.
+ */
+class ReportSequences extends ReportAttribute<Long> {
+
+    private final AtomicLong sequence = new AtomicLong(0);
+
+    ReportSequences() {
+        // every attached sequence is removed when the report is dropped or written,
+        // clearing them would acknowledge reports not yet written
+        super(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the sequence number of the last item counted, or -1 if no item is counted yet.
+     */
+    long getLast() {
+        return this.sequence.get() - 1;
+    }
+
+    <T> ObservableOperator<Report, T> recordBy(ObservableOperator<Report, T> decoder) {
+        return this.recordBy(decoder, item -> this.sequence.getAndIncrement());
+    }
+}
@@ -0,0 +1,37 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import io.reactivex.rxjava3.core.ObservableOperator;
+import org.observertc.webrtc.schemas.reports.Report;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Keeps the encoded size of the reports from the decoding until the reports are batched.
+ *
+ * <p>The sizes are recorded by the decoder returned by {@link #recordBy(ObservableOperator)},
+ * which takes the size of the bytes the report is decoded from. Reports without a recorded
+ * size (i.e.: made by a transformation not wrapped by {@link #carryBy(ObservableOperator)}) are encoded to get their size.
+ */
+class ReportSizes extends ReportAttribute<Integer> {
+
+    ReportSizes(int capacity) {
+        super(capacity);
+    }
+
+    int sizeOf(Report report) {
+        Integer result = this.remove(report);
+        if (Objects.nonNull(result)) {
+            return result;
+        }
+        try {
+            return report.toByteBuffer().remaining();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode report to get its size", e);
+        }
+    }
+
+    ObservableOperator<Report, byte[]> recordBy(ObservableOperator<Report, byte[]> decoder) {
+        return this.recordBy(decoder, bytes -> bytes.length);
+    }
+}
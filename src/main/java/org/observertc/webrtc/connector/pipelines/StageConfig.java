@@ -0,0 +1,17 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import javax.validation.constraints.Min;
+
+public class StageConfig {
+
+    public static StageConfig of(int queueSize) {
+        StageConfig result = new StageConfig();
+        result.queueSize = queueSize;
+        return result;
+    }
+
+    public String scheduler = StageScheduler.None.name();
+
+    @Min(1)
+    public int queueSize = 128;
+}
@@ -0,0 +1,49 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+import javax.validation.constraints.NotNull;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The thread pools a stage of a pipeline can be executed on.
+ * {@link StageScheduler#None} executes the stage on the thread of its upstream.
+ */
+public enum StageScheduler {
+    None(() -> null),
+    Computation(Schedulers::computation),
+    IO(Schedulers::io),
+    Single(Schedulers::single),
+    NewThread(Schedulers::newThread)
+    ;
+
+    private final Supplier<Scheduler> schedulerSupplier;
+
+    StageScheduler(Supplier<Scheduler> schedulerSupplier) {
+        this.schedulerSupplier = schedulerSupplier;
+    }
+
+    public Optional<Scheduler> getScheduler() {
+        return Optional.ofNullable(this.schedulerSupplier.get());
+    }
+
+    public static Optional<StageScheduler> getValueFromString(@NotNull String value, AtomicReference<String> errorMessage) {
+        StageScheduler[] schedulers = StageScheduler.values();
+        for (int i = 0; i < schedulers.length; ++i) {
+            StageScheduler scheduler = schedulers[i];
+            if (scheduler.name().equalsIgnoreCase(value)) {
+                return Optional.of(scheduler);
+            }
+        }
+        if (Objects.nonNull(errorMessage)) {
+            errorMessage.set("No match for value " + value + " in StageScheduler. possible values are:" + Arrays.stream(schedulers).map(Enum::name).collect(Collectors.joining(", ")));
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,10 @@
+package org.observertc.webrtc.connector.pipelines;
+
+public class StagesConfig {
+
+    public StageConfig decoder = StageConfig.of(128);
+
+    public StageConfig transformations = StageConfig.of(128);
+
+    public StageConfig sink = StageConfig.of(2);
+}
@@ -0,0 +1,163 @@
+package org.observertc.webrtc.connector.sinks;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.observertc.webrtc.connector.pipelines.Pipeline;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Writes the batches by a wrapped sink on a separate thread, so the upstream
+ * can accumulate the next batch while the previous one is being written.
+ *
+ * <p>The batches are written one after another in the order they are received.
+ * At most maxInFlightBatches batches are accepted but not yet written,
+ * if the limit is reached, {@link #onNext(List)} blocks until the oldest batch is written.
+ *
+ * <p>If a batch cannot be written, the batches accepted after it are skipped, the next {@link #onNext(List)} throws,
+ * and the completion of the sink fails: the wrapped sink receives the failure by onError instead of onComplete.
+ */
+public class AsyncSink extends Sink {
+
+    private Sink sink;
+    private final Semaphore inFlightBatches;
+    private final ExecutorService executor;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicLong skippedBatches = new AtomicLong();
+
+    public AsyncSink(Sink sink, int maxInFlightBatches) {
+        if (maxInFlightBatches < 1) {
+            throw new IllegalArgumentException("maxInFlightBatches must be positive, but it is " + maxInFlightBatches);
+        }
+        this.sink = sink;
+        this.inFlightBatches = new Semaphore(maxInFlightBatches);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread result = new Thread(runnable, sink.getClass().getSimpleName() + "-writer");
+            result.setDaemon(true);
+            return result;
+        });
+    }
+
+    @Override
+    public void onSubscribe(@NonNull Disposable d) {
+        super.onSubscribe(d);
+        this.sink.onSubscribe(d);
+    }
+
+    @Override
+    public void onNext(@NonNull List<Report> reports) {
+        Throwable thrown = this.failure.get();
+        if (Objects.nonNull(thrown)) {
+            throw new IllegalStateException("A previous batch could not be written by " + this.sink.getClass().getSimpleName(), thrown);
+        }
+        try {
+            this.inFlightBatches.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a batch to be written", e);
+        }
+        this.executor.execute(() -> {
+            try {
+                if (Objects.isNull(this.failure.get())) {
+                    this.sink.onNext(reports);
+                } else {
+                    this.skippedBatches.incrementAndGet();
+                }
+            } catch (Throwable t) {
+                logger.error("Error occurred while writing a batch of {} reports", reports.size(), t);
+                this.failure.compareAndSet(null, t);
+            } finally {
+                this.inFlightBatches.release();
+            }
+        });
+    }
+
+    @Override
+    public void onError(@NonNull Throwable e) {
+        this.executor.execute(() -> this.sink.onError(e));
+        this.awaitTermination();
+        this.logSkippedBatches();
+    }
+
+    /**
+     * Completes the wrapped sink after the accepted batches are written.
+     *
+     * @throws IllegalStateException if a batch could not be written, after the failure is passed to the wrapped sink
+     */
+    @Override
+    public void onComplete() {
+        this.executor.execute(() -> {
+            Throwable thrown = this.failure.get();
+            if (Objects.isNull(thrown)) {
+                this.sink.onComplete();
+            } else {
+                this.sink.onError(thrown);
+            }
+        });
+        this.awaitTermination();
+        this.logSkippedBatches();
+        Throwable thrown = this.failure.get();
+        if (Objects.nonNull(thrown)) {
+            throw new IllegalStateException("A batch could not be written by " + this.sink.getClass().getSimpleName(), thrown);
+        }
+    }
+
+    @Override
+    public Sink thenOnWritten(Consumer<List<Report>> callback) {
+        this.sink = this.sink.thenOnWritten(callback);
+        return this;
+    }
+
+    @Override
+    public Sink decorateWriter(UnaryOperator<Sink> decorator) {
+        this.sink = decorator.apply(this.sink);
+        return this;
+    }
+
+    @Override
+    public Sink inPipeline(Pipeline pipeline) {
+        this.sink.inPipeline(pipeline);
+        return super.inPipeline(pipeline);
+    }
+
+    @Override
+    public Sink withLogger(Logger logger) {
+        this.sink.withLogger(logger);
+        return super.withLogger(logger);
+    }
+
+    private void logSkippedBatches() {
+        long skipped = this.skippedBatches.get();
+        if (0 < skipped) {
+            logger.warn("{} accepted batches were not written by {}, because a previous batch could not be written",
+                    skipped, this.sink.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Waits until the accepted batches are written, so the pipeline is not finished before its sink.
+     */
+    private void awaitTermination() {
+        this.executor.shutdown();
+        try {
+            while (!this.executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for {} to write the remaining batches", this.sink.getClass().getSimpleName());
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while waiting for the remaining batches to be written", e);
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
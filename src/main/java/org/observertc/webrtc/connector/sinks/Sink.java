@@ -1,17 +1,21 @@
 package org.observertc.webrtc.connector.sinks;
 
 import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.core.FlowableSubscriber;
 import io.reactivex.rxjava3.core.Observer;
 import io.reactivex.rxjava3.disposables.Disposable;
 import org.observertc.webrtc.connector.common.RestartPolicy;
 import org.observertc.webrtc.connector.pipelines.Pipeline;
 import org.observertc.webrtc.schemas.reports.Report;
+import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 public abstract class Sink implements Observer<List<Report>> {
     private static final Logger DEFAULT_LOGGER = LoggerFactory.getLogger(Sink.class);
@@ -40,6 +44,87 @@ public abstract class Sink implements Observer<List<Report>> {
         logger.info("Pipeline is completed");
     }
 
+    /**
+     * Makes a subscriber from the sink, which requests the next batch of reports
+     * only after the previous one has been processed by the sink,
+     * so the pace of the sink drives the demand of the upstream components.
+     *
+     * @return a subscriber delegating the received batches to the sink
+     */
+    public FlowableSubscriber<List<Report>> toSubscriber() {
+        return new FlowableSubscriber<List<Report>>() {
+            private Subscription upstream;
+
+            @Override
+            public void onSubscribe(@NonNull Subscription subscription) {
+                this.upstream = subscription;
+                Sink.this.onSubscribe(Disposable.fromSubscription(subscription));
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(List<Report> reports) {
+                Sink.this.onNext(reports);
+                this.upstream.request(1);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                Sink.this.onError(t);
+            }
+
+            @Override
+            public void onComplete() {
+                Sink.this.onComplete();
+            }
+        };
+    }
+
+    /**
+     * Makes a sink calling the callback right after this sink has written a batch.
+     * Sinks writing the batches asynchronously must call the callback only after the batch is written.
+     *
+     * @param callback called with the written batch
+     * @return a sink delegating the batches to this sink
+     */
+    public Sink thenOnWritten(Consumer<List<Report>> callback) {
+        final Sink sink = this;
+        return new Sink() {
+            @Override
+            public void onSubscribe(@NonNull Disposable d) {
+                sink.onSubscribe(d);
+            }
+
+            @Override
+            public void onNext(@NonNull List<Report> reports) {
+                sink.onNext(reports);
+                callback.accept(reports);
+            }
+
+            @Override
+            public void onError(@NonNull Throwable e) {
+                sink.onError(e);
+            }
+
+            @Override
+            public void onComplete() {
+                sink.onComplete();
+            }
+        };
+    }
+
+    /**
+     * Decorates the sink writing the batches. Sinks writing the batches on another thread
+     * decorate the sink writing them there, so the decorator sees the batches when they are written,
+     * not when they are accepted.
+     *
+     * @param decorator makes the decorating sink of the given one
+     * @return the sink the batches are given to
+     */
+    public Sink decorateWriter(UnaryOperator<Sink> decorator) {
+        return decorator.apply(this);
+    }
+
     public Sink inPipeline(Pipeline pipeline) {
         if (Objects.isNull(pipeline)) {
             logger.warn("tried to be assigned with a null pipeline");
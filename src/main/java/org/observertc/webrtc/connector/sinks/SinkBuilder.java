@@ -5,10 +5,12 @@ import org.observertc.webrtc.connector.configbuilders.Builder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -35,7 +37,11 @@ public class SinkBuilder extends AbstractBuilder {
         }
         Builder<Sink> sinkBuilder = (Builder<Sink>) builderHolder.get();
         sinkBuilder.withConfiguration(config.config);
-        return sinkBuilder.build();
+        Sink result = sinkBuilder.build();
+        if (Objects.isNull(result) || config.maxInFlightBatches < 1) {
+            return result;
+        }
+        return new AsyncSink(result, config.maxInFlightBatches);
     }
 
 
@@ -45,6 +51,13 @@ public class SinkBuilder extends AbstractBuilder {
         @NotNull
         public String type;
 
+        /**
+         * The number of batches accepted by the sink, but not yet written.
+         * 0 means the batches are written synchronously.
+         */
+        @Min(0)
+        public int maxInFlightBatches = 0;
+
         public Map<String, Object> config;
 
     }
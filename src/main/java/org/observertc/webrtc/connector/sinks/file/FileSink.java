@@ -2,6 +2,7 @@ package org.observertc.webrtc.connector.sinks.file;
 
 import io.reactivex.rxjava3.annotations.NonNull;
 import io.reactivex.rxjava3.disposables.Disposable;
+import org.observertc.webrtc.connector.common.SegmentCodec;
 import org.observertc.webrtc.connector.sinks.Sink;
 import org.observertc.webrtc.schemas.reports.Report;
 import org.observertc.webrtc.schemas.reports.ReportType;
@@ -10,6 +11,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.validation.constraints.NotNull;
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -18,6 +20,7 @@ import java.util.Set;
 public class FileSink extends Sink {
 
     private static final Logger logger = LoggerFactory.getLogger(FileSink.class);
+    private static final int DEFAULT_BLOCK_SIZE_IN_BYTES = 65536;
     private boolean overWriteExistingFile = true;
     private String path;
     private volatile int seqNum = 0;
@@ -28,6 +31,7 @@ public class FileSink extends Sink {
 
     private Set<ReportType> reportedTypes = new HashSet<>();
     private int maxFileNum;
+    private SegmentWriter segmentWriter = null;
 
     @Override
     public void onSubscribe(@NotNull Disposable d) {
@@ -37,6 +41,10 @@ public class FileSink extends Sink {
 
     @Override
     public void onNext(@NonNull List<Report> reports) {
+        if (Objects.nonNull(this.segmentWriter)) {
+            this.writeSegments(reports);
+            return;
+        }
         boolean maxFileReached = false;
         boolean reportsAdded = false;
         for (Report report : reports) {
@@ -62,6 +70,47 @@ public class FileSink extends Sink {
         }
     }
 
+    @Override
+    public void onError(@NonNull Throwable e) {
+        this.closeSegments();
+        super.onError(e);
+    }
+
+    @Override
+    public void onComplete() {
+        this.closeSegments();
+        super.onComplete();
+    }
+
+    private void writeSegments(List<Report> reports) {
+        try {
+            for (Report report : reports) {
+                if (this.onlyOnePerReportType) {
+                    if (this.reportedTypes.contains(report.getType())) {
+                        continue;
+                    }
+                    this.reportedTypes.add(report.getType());
+                }
+                this.segmentWriter.write(report);
+            }
+            this.segmentWriter.flush();
+        } catch (IOException e) {
+            logger.warn("Exception occurred while writing segment in {}", this.path, e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void closeSegments() {
+        if (Objects.isNull(this.segmentWriter)) {
+            return;
+        }
+        try {
+            this.segmentWriter.close();
+        } catch (IOException e) {
+            logger.error("Cannot close segment in {} due to exception", this.path, e);
+        }
+    }
+
     FileSink withPath(String path) {
         this.path = path;
         return this;
@@ -134,6 +183,22 @@ public class FileSink extends Sink {
         return this;
     }
 
+    /**
+     * Makes the sink to append the reports to segment files instead of writing every report into its own file.
+     */
+    FileSink withSegments(long maxSizeInBytes, long maxAgeInMs, boolean indexed) {
+        return this.withSegments(maxSizeInBytes, maxAgeInMs, indexed, SegmentCodec.None, DEFAULT_BLOCK_SIZE_IN_BYTES);
+    }
+
+    /**
+     * Makes the sink to append the reports to segment files, which blocks are compressed by the given codec.
+     */
+    FileSink withSegments(long maxSizeInBytes, long maxAgeInMs, boolean indexed, SegmentCodec codec, int blockSizeInBytes) {
+        Objects.requireNonNull(this.path, "Path must be set for FileSink before segments");
+        this.segmentWriter = new SegmentWriter(Paths.get(this.path), maxSizeInBytes, maxAgeInMs, indexed, codec, blockSizeInBytes);
+        return this;
+    }
+
     public FileSink withMaxFileNum(int maxFileNum) {
         this.maxFileNum = maxFileNum;
         return this;
@@ -1,25 +1,77 @@
 package org.observertc.webrtc.connector.sinks.file;
 
 import io.micronaut.context.annotation.Prototype;
+import org.observertc.webrtc.connector.common.SegmentCodec;
 import org.observertc.webrtc.connector.configbuilders.AbstractBuilder;
 import org.observertc.webrtc.connector.configbuilders.Builder;
 import org.observertc.webrtc.connector.sinks.Sink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Prototype
 public class FileSinkBuilder extends AbstractBuilder implements Builder<Sink> {
+    private static final Logger logger = LoggerFactory.getLogger(FileSinkBuilder.class);
 
     @Override
     public Sink build() {
         Config config = this.convertAndValidate(Config.class);
-        FileSink result = new FileSink();
-        return result
+        FileSink result = new FileSink()
                 .withPath(config.path)
                 .withOverwriteExistingFile(config.overwriteExistingFile)
                 .withOnlyOnePerReportType(config.onlyOnePerReportType)
                 .withMaxFileNum(config.maxFileNum)
                 ;
+        SegmentsConfig segments = config.segments;
+        if (!segments.enabled) {
+            return result;
+        }
+        AtomicReference<String> errorMessage = new AtomicReference<>();
+        Optional<SegmentCodec> codec = SegmentCodec.getValueFromString(segments.codec, errorMessage);
+        if (!codec.isPresent()) {
+            logger.error("Codec {} for FileSink segments cannot be converted to enum ({})", segments.codec, errorMessage.get());
+            return null;
+        }
+        return result.withSegments(segments.maxSizeInBytes, TimeUnit.SECONDS.toMillis(segments.maxAgeInS), segments.indexed,
+                codec.get(), segments.blockSizeInBytes);
+    }
+
+    public static class SegmentsConfig {
+        public boolean enabled = false;
+
+        /**
+         * The size a segment is rolled at, 0 means segments are not rolled by their size
+         */
+        @Min(0)
+        public long maxSizeInBytes = 67108864;
+
+        /**
+         * The age a segment is rolled at, 0 means segments are not rolled by their age
+         */
+        @Min(0)
+        public int maxAgeInS = 3600;
+
+        /**
+         * If it is true, the timestamp and type of the reports are written into an index beside the segment
+         */
+        public boolean indexed = true;
+
+        /**
+         * The codec the blocks of the segments are compressed with (None, Deflate, Snappy, Zstandard)
+         */
+        @NotNull
+        public String codec = SegmentCodec.None.name();
+
+        /**
+         * The uncompressed size a block is compressed at, blocks are compressed at every batch as well
+         */
+        @Min(1)
+        public int blockSizeInBytes = 65536;
     }
 
     public static class Config {
@@ -31,5 +83,7 @@ public class FileSinkBuilder extends AbstractBuilder implements Builder<Sink> {
         public int maxFileNum = -1;
 
         public boolean onlyOnePerReportType = false;
+
+        public SegmentsConfig segments = new SegmentsConfig();
     }
 }
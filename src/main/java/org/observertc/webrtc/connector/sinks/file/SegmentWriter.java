@@ -0,0 +1,205 @@
+package org.observertc.webrtc.connector.sinks.file;
+
+import org.observertc.webrtc.connector.common.SegmentCodec;
+import org.observertc.webrtc.connector.common.SegmentFormat;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Appends reports to segment files (see {@link SegmentFormat}), and rolls to the next segment
+ * when the size of the current one would exceed the limit, or the current one is older than the limit.
+ * The age of the segment is checked only when a report is written.
+ *
+ * <p>Records are collected into a block until the block reaches its size or the writer is flushed,
+ * and the block is compressed by the codec when it is written. The size limit of the segment is checked
+ * with the uncompressed size of the block being collected, so compressed segments are smaller than the limit.
+ * A block never exceeds its size, the size is written into the header of the segment, so readers can reject corrupt blocks.
+ * Hence a report bigger than the block size is not written.
+ *
+ * <p>Segments are numbered after the last segment found in the directory, so existing segments are not overwritten.
+ */
+class SegmentWriter implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentWriter.class);
+    private static final String SEGMENT_NAME_FORMAT = "%010d";
+    private static final int BUFFER_SIZE = 65536;
+
+    private static class BlockOutputStream extends ByteArrayOutputStream {
+        private BlockOutputStream(int size) {
+            super(size);
+        }
+
+        private ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(this.buf, 0, this.count);
+        }
+    }
+
+    private final Path directory;
+    private final long maxSizeInBytes;
+    private final long maxAgeInMs;
+    private final boolean indexed;
+    private final SegmentCodec segmentCodec;
+    private final SegmentCodec.Codec codec;
+    private final int blockSizeInBytes;
+    private final BlockOutputStream block;
+    private final DataOutputStream blockOutput;
+
+    private long segmentNumber = -1;
+    private DataOutputStream segment = null;
+    private DataOutputStream index = null;
+    private long position = 0;
+    private long openedAt = 0;
+
+    SegmentWriter(Path directory, long maxSizeInBytes, long maxAgeInMs, boolean indexed) {
+        this(directory, maxSizeInBytes, maxAgeInMs, indexed, SegmentCodec.None, BUFFER_SIZE);
+    }
+
+    SegmentWriter(Path directory, long maxSizeInBytes, long maxAgeInMs, boolean indexed, SegmentCodec segmentCodec, int blockSizeInBytes) {
+        this.directory = directory;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.maxAgeInMs = maxAgeInMs;
+        this.indexed = indexed;
+        this.segmentCodec = segmentCodec;
+        this.codec = segmentCodec.createCodec();
+        this.blockSizeInBytes = blockSizeInBytes;
+        this.block = new BlockOutputStream(blockSizeInBytes);
+        this.blockOutput = new DataOutputStream(this.block);
+    }
+
+    void write(Report report) throws IOException {
+        ByteBuffer encoded = report.toByteBuffer();
+        int length = encoded.remaining();
+        if (this.blockSizeInBytes < SegmentFormat.RECORD_HEADER_SIZE + length) {
+            logger.error("Report ({} bytes) is bigger than the block size ({} bytes) of the segments, it is not written", length, this.blockSizeInBytes);
+            return;
+        }
+        if (this.shouldRoll(length)) {
+            this.roll();
+        }
+        if (this.blockSizeInBytes < this.block.size() + SegmentFormat.RECORD_HEADER_SIZE + length) {
+            this.writeBlock();
+        }
+        if (Objects.nonNull(this.index)) {
+            this.index.writeLong(report.getTimestamp());
+            this.index.writeLong(this.position);
+            this.index.writeInt(this.block.size());
+            this.index.writeShort(report.getType().ordinal());
+        }
+        this.blockOutput.writeInt(length);
+        this.blockOutput.write(encoded.array(), encoded.arrayOffset() + encoded.position(), length);
+        if (this.blockSizeInBytes <= this.block.size()) {
+            this.writeBlock();
+        }
+    }
+
+    void flush() throws IOException {
+        if (Objects.isNull(this.segment)) {
+            return;
+        }
+        this.writeBlock();
+        this.segment.flush();
+        if (Objects.nonNull(this.index)) {
+            this.index.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.isNull(this.segment)) {
+            return;
+        }
+        try {
+            this.writeBlock();
+            this.segment.close();
+        } finally {
+            this.segment = null;
+            this.block.reset();
+            if (Objects.nonNull(this.index)) {
+                this.index.close();
+                this.index = null;
+            }
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (this.block.size() < 1) {
+            return;
+        }
+        ByteBuffer compressed = this.codec.compress(this.block.toByteBuffer());
+        int length = compressed.remaining();
+        this.segment.writeInt(length);
+        if (compressed.hasArray()) {
+            this.segment.write(compressed.array(), compressed.arrayOffset() + compressed.position(), length);
+        } else {
+            byte[] bytes = new byte[length];
+            compressed.get(bytes);
+            this.segment.write(bytes);
+        }
+        this.position += SegmentFormat.BLOCK_HEADER_SIZE + length;
+        this.block.reset();
+    }
+
+    private boolean shouldRoll(int length) {
+        if (Objects.isNull(this.segment)) {
+            return true;
+        }
+        if (this.position == SegmentFormat.SEGMENT_HEADER_SIZE && this.block.size() < 1) {
+            // a report bigger than the limit is written into a segment alone
+            return false;
+        }
+        long size = this.position + SegmentFormat.BLOCK_HEADER_SIZE + this.block.size() + SegmentFormat.RECORD_HEADER_SIZE + length;
+        if (0 < this.maxSizeInBytes && this.maxSizeInBytes < size) {
+            return true;
+        }
+        return 0 < this.maxAgeInMs && this.maxAgeInMs <= System.currentTimeMillis() - this.openedAt;
+    }
+
+    private void roll() throws IOException {
+        this.close();
+        if (this.segmentNumber < 0) {
+            this.segmentNumber = this.findLastSegmentNumber();
+        }
+        String name = String.format(SEGMENT_NAME_FORMAT, ++this.segmentNumber);
+        Path segmentPath = this.directory.resolve(name + SegmentFormat.SEGMENT_EXTENSION);
+        this.segment = this.open(segmentPath, SegmentFormat.SEGMENT_MAGIC, this.segmentCodec.getId());
+        this.segment.writeInt(this.blockSizeInBytes);
+        if (this.indexed) {
+            this.index = this.open(SegmentFormat.getIndexOf(segmentPath), SegmentFormat.INDEX_MAGIC, (byte) 0);
+        }
+        this.position = SegmentFormat.SEGMENT_HEADER_SIZE;
+        this.openedAt = System.currentTimeMillis();
+        logger.debug("Segment {} is opened", segmentPath);
+    }
+
+    private DataOutputStream open(Path path, byte[] magic, byte flags) throws IOException {
+        DataOutputStream result = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path.toFile()), BUFFER_SIZE));
+        result.write(magic);
+        result.writeByte(SegmentFormat.VERSION);
+        result.writeByte(flags);
+        return result;
+    }
+
+    private long findLastSegmentNumber() throws IOException {
+        try (Stream<Path> paths = Files.list(this.directory)) {
+            return paths.filter(SegmentFormat::isSegment)
+                    .map(path -> path.getFileName().toString())
+                    .map(name -> name.substring(0, name.length() - SegmentFormat.SEGMENT_EXTENSION.length()))
+                    .filter(name -> name.chars().allMatch(Character::isDigit) && !name.isEmpty())
+                    .mapToLong(Long::parseLong)
+                    .max()
+                    .orElse(0L);
+        }
+    }
+}
@@ -1,32 +1,232 @@
 package org.observertc.webrtc.connector.sinks.jdbc;
 
+import com.mysql.cj.jdbc.JdbcStatement;
 import io.reactivex.rxjava3.annotations.NonNull;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.InsertValuesStepN;
 import org.jooq.Table;
+import org.jooq.impl.DSL;
 import org.observertc.webrtc.connector.databases.ReportMapper;
 import org.observertc.webrtc.connector.sinks.Sink;
 import org.observertc.webrtc.schemas.reports.Report;
 import org.observertc.webrtc.schemas.reports.ReportType;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Writes the reports into the tables of their types.
+ *
+ * <p>By default the reports of a batch are written by one multi-row INSERT statement per table (see {@link JDBCWriteMode}).
+ * With batched inserts (see {@link #withBatchedInserts(DataSource)}) the sink keeps a connection and
+ * one prepared INSERT statement per table, binds the values of the reports by the positions of the columns,
+ * and executes them as a JDBC batch, which the drivers can rewrite into multi-row inserts
+ * (reWriteBatchedInserts for PostgreSQL, rewriteBatchedStatements for MySQL).
+ * With COPY (see {@link #withCopy(DataSource)}) the reports of a batch are formatted into CSV rows per table,
+ * and every table is loaded by one COPY ... FROM STDIN statement (PostgreSQL only).
+ * With LOAD DATA (see {@link #withLoadData(DataSource)}) the rows are tab separated, and every table is loaded by
+ * one LOAD DATA LOCAL INFILE statement reading the rows from memory (MySQL only).
+ *
+ * <p>Except for the multi-row inserts, a batch is written in one transaction. A batch failed by a transient error
+ * (deadlock, serialization failure, connection reset) is rolled back and retried on a new connection
+ * (see {@link #withRetries(int, long)}). If a batch fails by a data error (SQLSTATE class 22 or 23), and a dead letter sink is given
+ * (see {@link #withDeadLetterSink(Sink)}), the batch is bisected, and the halves are written in their own transactions
+ * until the reports failing on their own are isolated and routed to the dead letter sink.
+ * Otherwise the connection is closed, and the error stops the pipeline.
+ *
+ * <p>With concurrent writes (see {@link #withConcurrentWrites(int)}) the reports of a batch are grouped by their types,
+ * and the groups are written concurrently by writers having their own connections, so the time a batch is written
+ * is the time of its slowest table. Batches are not atomic then: every group is committed in its own transaction,
+ * so a failed batch may leave the groups of other report types written.
+ */
 public class JDBCSink extends Sink {
     private final Supplier<DSLContext> contextSupplier;
     private final Map<ReportType, Route> routes = new HashMap<>();
+    private JDBCWriteMode writeMode = JDBCWriteMode.MultiRowInsert;
+    private DataSource dataSource = null;
+    private final List<Writer> writers = new ArrayList<>();
+    private final BlockingQueue<Writer> idleWriters = new LinkedBlockingQueue<>();
+    private ExecutorService executor = null;
+    private int maxRetries = 0;
+    private long retryBackoffInMs = 0;
+    private Sink deadLetterSink = null;
 
     public JDBCSink(Supplier<DSLContext> contextSupplier) {
         this.contextSupplier = contextSupplier;
+        this.writers.add(new Writer());
     }
 
     @Override
     public void onNext(@NonNull List<Report> reports) {
+        if (this.writeMode == JDBCWriteMode.MultiRowInsert) {
+            this.insertMultiRows(reports);
+            return;
+        }
+        List<Report> deadLetters = Collections.synchronizedList(new ArrayList<>());
+        if (Objects.isNull(this.executor)) {
+            this.writeOrIsolate(this.writers.get(0), reports, deadLetters);
+        } else {
+            this.writeConcurrently(reports, deadLetters);
+        }
+        if (!deadLetters.isEmpty()) {
+            logger.warn("{} reports cannot be written, they are routed to the dead letter sink", deadLetters.size());
+            this.deadLetterSink.onNext(deadLetters);
+        }
+    }
+
+    @Override
+    public void onError(@NonNull Throwable e) {
+        this.close();
+        if (Objects.nonNull(this.deadLetterSink)) {
+            this.deadLetterSink.onError(e);
+        }
+        super.onError(e);
+    }
+
+    @Override
+    public void onComplete() {
+        this.close();
+        if (Objects.nonNull(this.deadLetterSink)) {
+            this.deadLetterSink.onComplete();
+        }
+        super.onComplete();
+    }
+
+    /**
+     * Writes the reports of every report type by an idle writer, concurrently with the other report types,
+     * and waits until all of them are written or failed.
+     */
+    private void writeConcurrently(List<Report> reports, List<Report> deadLetters) {
+        Map<ReportType, List<Report>> groups = new EnumMap<>(ReportType.class);
+        for (Report report : reports) {
+            groups.computeIfAbsent(report.getType(), type -> new ArrayList<>()).add(report);
+        }
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<Report> group : groups.values()) {
+            futures.add(this.executor.submit(() -> {
+                Writer writer = this.idleWriters.take();
+                try {
+                    this.writeOrIsolate(writer, group, deadLetters);
+                } finally {
+                    this.idleWriters.add(writer);
+                }
+                return null;
+            }));
+        }
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (Objects.isNull(failure)) {
+                    failure = e.getCause() instanceof RuntimeException ?
+                            (RuntimeException) e.getCause() :
+                            new RuntimeException("Reports cannot be written by " + this.writeMode, e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the reports to be written", e);
+            }
+        }
+        if (Objects.nonNull(failure)) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the reports in a transaction, or, if it fails by a data error and there is a dead letter sink,
+     * bisects the reports until the reports failing on their own are isolated into the dead letters.
+     * Other errors (i.e.: a missing table or privilege) would fail every report, so they fail the batch.
+     * The writer is closed on every error stopping the pipeline.
+     */
+    private void writeOrIsolate(Writer writer, List<Report> reports, List<Report> deadLetters) {
+        try {
+            writer.writeInTransaction(reports);
+            return;
+        } catch (SQLException e) {
+            if (Objects.isNull(this.deadLetterSink) || !isDataError(e)) {
+                writer.close();
+                throw new RuntimeException("Reports cannot be written by " + this.writeMode, e);
+            }
+            if (reports.size() == 1) {
+                logger.warn("Report of type {} cannot be written. Message: {}", reports.get(0).getType(), e.getMessage());
+                deadLetters.add(reports.get(0));
+                return;
+            }
+        } catch (RuntimeException e) {
+            writer.close();
+            throw e;
+        }
+        int half = reports.size() / 2;
+        this.writeOrIsolate(writer, reports.subList(0, half), deadLetters);
+        this.writeOrIsolate(writer, reports.subList(half, reports.size()), deadLetters);
+    }
+
+    /**
+     * Tells if the error, or any of its chained errors, is caused by the values of a row:
+     * a data exception (SQLSTATE class 22) or an integrity constraint violation (SQLSTATE class 23).
+     */
+    static boolean isDataError(SQLException exception) {
+        for (SQLException e = exception; Objects.nonNull(e); e = e.getNextException()) {
+            if (e instanceof SQLDataException || e instanceof SQLIntegrityConstraintViolationException) {
+                return true;
+            }
+            String sqlState = e.getSQLState();
+            if (Objects.nonNull(sqlState) && (sqlState.startsWith("22") || sqlState.startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells if the error, or any of its chained errors, is a transient one: a transaction rollback
+     * (deadlock, serialization failure) or a connection error, where the batch can succeed if it is retried.
+     */
+    static boolean isTransient(SQLException exception) {
+        for (SQLException e = exception; Objects.nonNull(e); e = e.getNextException()) {
+            if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+                return true;
+            }
+            String sqlState = e.getSQLState();
+            if (Objects.nonNull(sqlState) && (sqlState.startsWith("40") || sqlState.startsWith("08"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void insertMultiRows(List<Report> reports) {
         var context = this.contextSupplier.get();
         Map<ReportType, InsertValuesStepN> batch = new HashMap<>();
         for (Report report : reports) {
@@ -40,9 +240,6 @@ public class JDBCSink extends Sink {
 //                var insertValuesStep = insertSetStep.set(recordValues);
                 batch.put(reportType, insertValuesStepN);
             }
-            var lowerCasedRecordValues = recordValues.entrySet().stream()
-                    .collect(Collectors.toMap(entry -> entry.getKey() != null ? entry.getKey().toLowerCase() : null,
-                            Map.Entry::getValue));
             var values = route.fields.stream().map(f -> recordValues.get(f.getName())).collect(Collectors.toList());
             insertValuesStepN.values(values);
         }
@@ -58,21 +255,434 @@ public class JDBCSink extends Sink {
         }
     }
 
+    /**
+     * Formats the reports into rows by the report types, where the values are in the order of the columns of the routes,
+     * and the rows are terminated by new lines.
+     */
+    private Map<ReportType, StringBuilder> formatRows(List<Report> reports, char separator, BiConsumer<StringBuilder, Object> valueAppender) {
+        Map<ReportType, StringBuilder> result = new EnumMap<>(ReportType.class);
+        for (Report report : reports) {
+            var reportType = report.getType();
+            Route route = this.routes.get(reportType);
+            if (Objects.isNull(route)) {
+                logger.warn("No table is routed for report type {}, the report is not written", reportType);
+                continue;
+            }
+            StringBuilder rows = result.computeIfAbsent(reportType, type -> new StringBuilder());
+            Map<String, Object> recordValues = route.mapper.apply(report);
+            for (int i = 0; i < route.columns.length; ++i) {
+                if (0 < i) {
+                    rows.append(separator);
+                }
+                valueAppender.accept(rows, recordValues.get(route.columns[i]));
+            }
+            rows.append('\n');
+        }
+        return result;
+    }
+
+    /**
+     * Appends the value in the CSV format of the COPY statement, where null is an unquoted empty value,
+     * strings are quoted, and bytes are hex encoded bytea values.
+     */
+    static void appendCsvValue(StringBuilder csv, Object value) {
+        if (Objects.isNull(value)) {
+            return;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            csv.append(value);
+            return;
+        }
+        String text;
+        if (value instanceof ByteBuffer) {
+            text = "\\x" + toHex((ByteBuffer) value);
+        } else {
+            text = value.toString();
+        }
+        csv.append('"');
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        csv.append('"');
+    }
+
+    /**
+     * Appends the value in the tab separated format of the LOAD DATA statement, where null is \\N,
+     * backslashes, tabs and new lines are escaped, booleans are 1 or 0, and bytes are hex encoded
+     * (the LOAD DATA statement of the route unhexes them).
+     */
+    static void appendTsvValue(StringBuilder tsv, Object value) {
+        if (Objects.isNull(value)) {
+            tsv.append("\\N");
+            return;
+        }
+        if (value instanceof Boolean) {
+            tsv.append((Boolean) value ? '1' : '0');
+            return;
+        }
+        if (value instanceof Number) {
+            tsv.append(value);
+            return;
+        }
+        if (value instanceof ByteBuffer) {
+            tsv.append(toHex((ByteBuffer) value));
+            return;
+        }
+        String text = value.toString();
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\':
+                    tsv.append("\\\\");
+                    break;
+                case '\t':
+                    tsv.append("\\t");
+                    break;
+                case '\n':
+                    tsv.append("\\n");
+                    break;
+                case '\r':
+                    tsv.append("\\r");
+                    break;
+                case '\0':
+                    tsv.append("\\0");
+                    break;
+                default:
+                    tsv.append(c);
+            }
+        }
+    }
+
+    private static String toHex(ByteBuffer value) {
+        ByteBuffer buffer = value.duplicate();
+        StringBuilder result = new StringBuilder(2 * buffer.remaining());
+        while (buffer.hasRemaining()) {
+            result.append(String.format("%02x", buffer.get()));
+        }
+        return result.toString();
+    }
+
+    private void close() {
+        if (Objects.nonNull(this.executor)) {
+            this.executor.shutdown();
+        }
+        for (Writer writer : this.writers) {
+            writer.close();
+        }
+    }
+
     JDBCSink withRoute(ReportType reportType, Table<?> table, ReportMapper adapter, List<Field> fields) {
-        JDBCSink.Route route = new JDBCSink.Route(table, adapter, fields);
+        var context = this.contextSupplier.get();
+        var insertSql = context
+                .insertInto(table)
+                .columns(fields.toArray(new Field[0]))
+                .values(fields.stream().map(field -> DSL.param(field.getName(), field.getDataType())).collect(Collectors.toList()))
+                .getSQL();
+        var copySql = "COPY " + context.render(table) +
+                fields.stream().map(field -> context.render(DSL.name(field.getName()))).collect(Collectors.joining(", ", " (", ")")) +
+                " FROM STDIN WITH CSV";
+        JDBCSink.Route route = new JDBCSink.Route(table, adapter, fields, insertSql, copySql, makeLoadDataSql(context, table, fields));
         this.routes.put(reportType, route);
         return this;
     }
 
+    /**
+     * Makes the LOAD DATA statement of the table reading the rows formatted by {@link #appendTsvValue(StringBuilder, Object)}.
+     * Binary columns are read into user variables and set by their unhexed values.
+     */
+    private static String makeLoadDataSql(DSLContext context, Table<?> table, List<Field> fields) {
+        List<String> columns = new ArrayList<>();
+        List<String> assignments = new ArrayList<>();
+        for (int i = 0; i < fields.size(); ++i) {
+            Field field = fields.get(i);
+            String column = context.render(DSL.name(field.getName()));
+            if (field.getDataType().isBinary()) {
+                columns.add("@v" + i);
+                assignments.add(column + " = UNHEX(@v" + i + ")");
+            } else {
+                columns.add(column);
+            }
+        }
+        var result = new StringBuilder()
+                .append("LOAD DATA LOCAL INFILE 'reports.tsv' INTO TABLE ").append(context.render(table))
+                .append(" CHARACTER SET utf8mb4")
+                .append(" FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'")
+                .append(" LINES TERMINATED BY '\\n'")
+                .append(" (").append(String.join(", ", columns)).append(")");
+        if (!assignments.isEmpty()) {
+            result.append(" SET ").append(String.join(", ", assignments));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Writes the reports by prepared statements executed in JDBC batches on a connection of the given data source.
+     */
+    JDBCSink withBatchedInserts(DataSource dataSource) {
+        this.writeMode = JDBCWriteMode.BatchedInserts;
+        this.dataSource = dataSource;
+        return this;
+    }
+
+    /**
+     * Writes the reports by COPY statements on a connection of the given PostgreSQL data source.
+     */
+    JDBCSink withCopy(DataSource dataSource) {
+        this.writeMode = JDBCWriteMode.Copy;
+        this.dataSource = dataSource;
+        return this;
+    }
+
+    /**
+     * Writes the reports of the report types of a batch concurrently, by the given number of writers
+     * having their own connections, so the data source must be able to provide that many connections.
+     */
+    JDBCSink withConcurrentWrites(int maxConcurrentWrites) {
+        while (this.writers.size() < maxConcurrentWrites) {
+            this.writers.add(new Writer());
+        }
+        this.idleWriters.addAll(this.writers);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrentWrites, runnable -> {
+            Thread result = new Thread(runnable, this.getClass().getSimpleName() + "-writer-" + threads.incrementAndGet());
+            result.setDaemon(true);
+            return result;
+        });
+        return this;
+    }
+
+    /**
+     * Retries the batches failed by transient errors.
+     *
+     * @param maxRetries the number of retries of a batch
+     * @param retryBackoffInMs the time waited before the first retry, doubled for every further retry
+     */
+    JDBCSink withRetries(int maxRetries, long retryBackoffInMs) {
+        this.maxRetries = maxRetries;
+        this.retryBackoffInMs = retryBackoffInMs;
+        return this;
+    }
+
+    /**
+     * Routes the reports, which cannot be written on their own, to the given sink instead of failing the batch.
+     */
+    JDBCSink withDeadLetterSink(Sink deadLetterSink) {
+        this.deadLetterSink = deadLetterSink;
+        return this;
+    }
+
+    /**
+     * Writes the reports by LOAD DATA LOCAL INFILE statements streaming the rows from memory
+     * on a connection of the given MySQL data source. The url of the data source must allow local infiles
+     * (allowLoadLocalInfile=true), and the server must enable them (local_infile=ON).
+     */
+    JDBCSink withLoadData(DataSource dataSource) {
+        this.writeMode = JDBCWriteMode.LoadData;
+        this.dataSource = dataSource;
+        return this;
+    }
+
+    /**
+     * Writes the reports on its own connection, with its own prepared statements.
+     * A writer writes one group of reports at a time.
+     */
+    private class Writer {
+        private Connection connection = null;
+        private final Map<ReportType, PreparedStatement> statements = new EnumMap<>(ReportType.class);
+
+        /**
+         * Writes and commits the reports, and retries it after a backoff if a transient error occurs.
+         *
+         * Any other error (i.e.: of a mapper or of the driver) rolls back the transaction, and it is thrown without retries.
+         *
+         * @throws SQLException the error of the last attempt, after the transaction is rolled back
+         */
+        void writeInTransaction(List<Report> reports) throws SQLException {
+            for (int attempt = 0; ; ++attempt) {
+                try {
+                    this.write(reports);
+                    if (Objects.nonNull(this.connection)) {
+                        this.connection.commit();
+                    }
+                    return;
+                } catch (RuntimeException e) {
+                    this.rollback();
+                    throw e;
+                } catch (SQLException e) {
+                    this.rollback();
+                    if (!isTransient(e) || maxRetries <= attempt) {
+                        throw e;
+                    }
+                    // the connection may be broken, so the next attempt opens a new one
+                    this.close();
+                    long backoffInMs = retryBackoffInMs << attempt;
+                    logger.warn("Writing {} reports failed by a transient error, retry {} of {} in {}ms. Message: {}",
+                            reports.size(), attempt + 1, maxRetries, backoffInMs, e.getMessage());
+                    try {
+                        Thread.sleep(backoffInMs);
+                    } catch (InterruptedException interruptedException) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        private void write(List<Report> reports) throws SQLException {
+            if (writeMode == JDBCWriteMode.Copy) {
+                this.copy(reports);
+            } else if (writeMode == JDBCWriteMode.LoadData) {
+                this.loadData(reports);
+            } else {
+                this.insertBatches(reports);
+            }
+        }
+
+        private void rollback() {
+            for (PreparedStatement statement : this.statements.values()) {
+                try {
+                    statement.clearBatch();
+                } catch (SQLException e) {
+                    logger.warn("Batch of prepared statement cannot be cleared", e);
+                }
+            }
+            if (Objects.isNull(this.connection)) {
+                return;
+            }
+            try {
+                this.connection.rollback();
+            } catch (SQLException e) {
+                logger.warn("Transaction cannot be rolled back, the connection is closed", e);
+                this.close();
+            }
+        }
+
+        private void insertBatches(List<Report> reports) throws SQLException {
+            Map<ReportType, Integer> batchSizes = new EnumMap<>(ReportType.class);
+            for (Report report : reports) {
+                var reportType = report.getType();
+                Route route = routes.get(reportType);
+                if (Objects.isNull(route)) {
+                    logger.warn("No table is routed for report type {}, the report is not written", reportType);
+                    continue;
+                }
+                PreparedStatement statement = this.getStatement(reportType, route);
+                Map<String, Object> recordValues = route.mapper.apply(report);
+                for (int i = 0; i < route.columns.length; ++i) {
+                    Object value = recordValues.get(route.columns[i]);
+                    if (Objects.isNull(value)) {
+                        statement.setNull(i + 1, route.sqlTypes[i]);
+                    } else {
+                        statement.setObject(i + 1, value);
+                    }
+                }
+                statement.addBatch();
+                batchSizes.merge(reportType, 1, Integer::sum);
+            }
+
+            for (Map.Entry<ReportType, Integer> entry : batchSizes.entrySet()) {
+                ReportType reportType = entry.getKey();
+                // the update counts are not summed, as rewritten batches report them as unknown
+                this.statements.get(reportType).executeBatch();
+                logger.info("For report type {} inserted {} records", reportType, entry.getValue());
+            }
+        }
+
+        private void copy(List<Report> reports) throws SQLException {
+            Map<ReportType, StringBuilder> rows = formatRows(reports, ',', JDBCSink::appendCsvValue);
+            for (Map.Entry<ReportType, StringBuilder> entry : rows.entrySet()) {
+                ReportType reportType = entry.getKey();
+                byte[] bytes = entry.getValue().toString().getBytes(StandardCharsets.UTF_8);
+                CopyIn copyIn = this.getConnection().unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(routes.get(reportType).copySql);
+                try {
+                    copyIn.writeToCopy(bytes, 0, bytes.length);
+                    long copiedRecords = copyIn.endCopy();
+                    logger.info("For report type {} copied {} records", reportType, copiedRecords);
+                } finally {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                }
+            }
+        }
+
+        private void loadData(List<Report> reports) throws SQLException {
+            Map<ReportType, StringBuilder> rows = formatRows(reports, '\t', JDBCSink::appendTsvValue);
+            for (Map.Entry<ReportType, StringBuilder> entry : rows.entrySet()) {
+                ReportType reportType = entry.getKey();
+                byte[] bytes = entry.getValue().toString().getBytes(StandardCharsets.UTF_8);
+                try (Statement statement = this.getConnection().createStatement()) {
+                    statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(new ByteArrayInputStream(bytes));
+                    int loadedRecords = statement.executeUpdate(routes.get(reportType).loadDataSql);
+                    logger.info("For report type {} loaded {} records", reportType, loadedRecords);
+                }
+            }
+        }
+
+        private Connection getConnection() throws SQLException {
+            if (Objects.isNull(this.connection)) {
+                this.connection = dataSource.getConnection();
+                this.connection.setAutoCommit(false);
+            }
+            return this.connection;
+        }
+
+        private PreparedStatement getStatement(ReportType reportType, Route route) throws SQLException {
+            PreparedStatement result = this.statements.get(reportType);
+            if (Objects.nonNull(result)) {
+                return result;
+            }
+            result = this.getConnection().prepareStatement(route.sql);
+            this.statements.put(reportType, result);
+            return result;
+        }
+
+        void close() {
+            for (PreparedStatement statement : this.statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    logger.warn("Prepared statement cannot be closed", e);
+                }
+            }
+            this.statements.clear();
+            if (Objects.isNull(this.connection)) {
+                return;
+            }
+            try {
+                this.connection.close();
+            } catch (SQLException e) {
+                logger.warn("Connection cannot be closed", e);
+            }
+            this.connection = null;
+        }
+    }
+
     private class Route {
         public final List<Field> fields;
         public final Table<?> table;
         public final ReportMapper mapper;
+        public final String sql;
+        public final String copySql;
+        public final String loadDataSql;
+        public final String[] columns;
+        public final int[] sqlTypes;
 
-        private Route(Table<?> table, ReportMapper mapper, List<Field> fields) {
+        private Route(Table<?> table, ReportMapper mapper, List<Field> fields, String sql, String copySql, String loadDataSql) {
             this.table = table;
             this.mapper = mapper;
             this.fields = fields;
+            this.sql = sql;
+            this.copySql = copySql;
+            this.loadDataSql = loadDataSql;
+            // the mappers make lower cased keys
+            this.columns = fields.stream().map(field -> field.getName().toLowerCase()).toArray(String[]::new);
+            this.sqlTypes = fields.stream().mapToInt(field -> field.getDataType().getSQLType()).toArray();
         }
     }
 }
@@ -18,13 +18,16 @@ import org.observertc.webrtc.connector.databases.jdbc.version1.JOOQSchemaMapper;
 import org.observertc.webrtc.connector.databases.jdbc.version1.MYSQLSchemaMapper;
 import org.observertc.webrtc.connector.databases.jdbc.version1.PostgresSchemaMapper;
 import org.observertc.webrtc.connector.sinks.Sink;
+import org.observertc.webrtc.connector.sinks.SinkBuilder;
 import org.observertc.webrtc.schemas.reports.ReportType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -41,6 +44,43 @@ public class JDBCSinkBuilder extends AbstractBuilder implements Builder<Sink> {
     @Override
     public Sink build() {
         Config config = this.convertAndValidate(Config.class);
+        SQLDialect dialect;
+        try {
+            dialect = SQLDialect.valueOf(config.SQLDialect);
+        } catch (Throwable t) {
+            logger.error("Cannot identify SQLDialect {}. Possible values are: {} and the config is case sensitive",
+                    config.SQLDialect, SQLDialect.values());
+            return null;
+        }
+
+        AtomicReference<String> writeModeErrorMessage = new AtomicReference<>();
+        Optional<JDBCWriteMode> writeModeHolder = JDBCWriteMode.getValueFromString(config.writeMode, writeModeErrorMessage);
+        if (!writeModeHolder.isPresent()) {
+            logger.error("Cannot identify writeMode {} for JDBCSink: {}", config.writeMode, writeModeErrorMessage.get());
+            return null;
+        }
+        if (writeModeHolder.get() == JDBCWriteMode.Copy && dialect != SQLDialect.POSTGRES) {
+            logger.error("writeMode {} is supported only for SQLDialect {}", JDBCWriteMode.Copy, SQLDialect.POSTGRES);
+            return null;
+        }
+        if (writeModeHolder.get() == JDBCWriteMode.LoadData && dialect != SQLDialect.MYSQL) {
+            logger.error("writeMode {} is supported only for SQLDialect {}", JDBCWriteMode.LoadData, SQLDialect.MYSQL);
+            return null;
+        }
+
+        DatasourceProvider datasourceProvider = Application.context.createBean(DatasourceProvider.class);
+        var datasource = datasourceProvider.apply(config.datasource);
+        if (Objects.isNull(datasource)) {
+            logger.error("Cannot beam (up) datasource. JDBCSink cannot be built");
+            return null;
+        }
+        return this.build(config, dialect, writeModeHolder.get(), datasource);
+    }
+
+    /**
+     * Builds the sink for the given data source, after the schema of the database is checked.
+     */
+    JDBCSink build(Config config, SQLDialect dialect, JDBCWriteMode writeMode, DataSource datasource) {
         this.tableConfigs.put(ReportType.INITIATED_CALL, config.initiatedCallsTable);
         this.tableConfigs.put(ReportType.FINISHED_CALL, config.finishedCallsTable);
         this.tableConfigs.put(ReportType.JOINED_PEER_CONNECTION, config.joinedPeerConnectionsTable);
@@ -59,21 +99,6 @@ public class JDBCSinkBuilder extends AbstractBuilder implements Builder<Sink> {
         this.tableConfigs.put(ReportType.CLIENT_DETAILS, config.clientDetailsTable);
         this.tableConfigs.put(ReportType.EXTENSION, config.extensionTable);
 
-        SQLDialect dialect;
-        try {
-            dialect = SQLDialect.valueOf(config.SQLDialect);
-        } catch (Throwable t) {
-            logger.error("Cannot identify SQLDialect {}. Possible values are: {} and the config is case sensitive",
-                    config.SQLDialect, SQLDialect.values());
-            return null;
-        }
-
-        DatasourceProvider datasourceProvider = Application.context.createBean(DatasourceProvider.class);
-        var datasource = datasourceProvider.apply(config.datasource);
-        if (Objects.isNull(datasource)) {
-            logger.error("Cannot beam (up) datasource. JDBCSink cannot be built");
-            return null;
-        }
         JOOQSchemaMapper jooqSchemaMapper = JOOQSchemaMapper.makeSchemaMapperFor(dialect, config.database, datasource);
         Map<ReportType, ReportMapper> reportMappers = this.runSchemaAdapter(jooqSchemaMapper, config);
         if (Objects.isNull(reportMappers)) {
@@ -111,7 +136,33 @@ public class JDBCSinkBuilder extends AbstractBuilder implements Builder<Sink> {
                                     fields
                             );
                         });
-
+        if (writeMode == JDBCWriteMode.BatchedInserts) {
+            result.withBatchedInserts(datasource);
+        } else if (writeMode == JDBCWriteMode.Copy) {
+            result.withCopy(datasource);
+        } else if (writeMode == JDBCWriteMode.LoadData) {
+            result.withLoadData(datasource);
+        }
+        result.withRetries(config.maxRetries, config.retryBackoffInMs);
+        if (1 < config.maxConcurrentWrites) {
+            if (writeMode == JDBCWriteMode.MultiRowInsert) {
+                logger.warn("maxConcurrentWrites is not supported for writeMode {}, report types are written one after another", writeMode);
+            } else {
+                logger.warn("With maxConcurrentWrites {} the report types of a batch are committed in their own transactions, " +
+                        "a failed batch may leave the reports of other types written", config.maxConcurrentWrites);
+                result.withConcurrentWrites(config.maxConcurrentWrites);
+            }
+        }
+        if (Objects.nonNull(config.deadLetterSink)) {
+            SinkBuilder sinkBuilder = new SinkBuilder();
+            sinkBuilder.withConfiguration(config.deadLetterSink);
+            Sink deadLetterSink = sinkBuilder.build();
+            if (Objects.isNull(deadLetterSink)) {
+                logger.error("The dead letter sink cannot be built. JDBCSink cannot be built");
+                return null;
+            }
+            result.withDeadLetterSink(deadLetterSink);
+        }
         return result;
     }
 
@@ -160,6 +211,39 @@ public class JDBCSinkBuilder extends AbstractBuilder implements Builder<Sink> {
         @NotNull
         public String SQLDialect;
 
+        /**
+         * MultiRowInsert, BatchedInserts, Copy or LoadData (see JDBCWriteMode)
+         */
+        @NotNull
+        public String writeMode = JDBCWriteMode.BatchedInserts.name();
+
+        /**
+         * The number of report types of a batch written concurrently, each by its own connection.
+         * The pool of the datasource must have at least that many connections.
+         * Greater than 1 gives up the atomicity of a batch: every report type is committed in its own transaction,
+         * so a failed batch may leave the reports of other types written.
+         */
+        @Min(1)
+        public int maxConcurrentWrites = 1;
+
+        /**
+         * The number of times a batch failed by a transient error (deadlock, connection reset, etc.) is retried
+         */
+        @Min(0)
+        public int maxRetries = 3;
+
+        /**
+         * The time waited before the first retry of a batch, doubled for every further retry
+         */
+        @Min(0)
+        public int retryBackoffInMs = 100;
+
+        /**
+         * The sink (type and config, i.e.: a FileSink) the reports are routed to, which cannot be written on their own.
+         * If it is not given, a batch having such a report stops the pipeline.
+         */
+        public Map<String, Object> deadLetterSink = null;
+
         public SchemaCheckConfig schemaCheck = new SchemaCheckConfig();
 
         public static class SchemaCheckConfig {
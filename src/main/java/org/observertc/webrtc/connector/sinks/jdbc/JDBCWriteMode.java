@@ -0,0 +1,45 @@
+package org.observertc.webrtc.connector.sinks.jdbc;
+
+import javax.validation.constraints.NotNull;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * The ways a {@link JDBCSink} writes the reports of a batch into the tables.
+ */
+public enum JDBCWriteMode {
+    /**
+     * One INSERT statement per table and batch, rendered with all the values of the batch
+     */
+    MultiRowInsert,
+    /**
+     * One prepared INSERT statement per table, reused across batches, the values are bound and executed as a JDBC batch
+     */
+    BatchedInserts,
+    /**
+     * One COPY ... FROM STDIN per table and batch, streaming the values of the batch in CSV format (PostgreSQL only)
+     */
+    Copy,
+    /**
+     * One LOAD DATA LOCAL INFILE per table and batch, streaming the values of the batch in tab separated format (MySQL only)
+     */
+    LoadData
+    ;
+
+    public static Optional<JDBCWriteMode> getValueFromString(@NotNull String value, AtomicReference<String> errorMessage) {
+        JDBCWriteMode[] modes = JDBCWriteMode.values();
+        for (int i = 0; i < modes.length; ++i) {
+            JDBCWriteMode mode = modes[i];
+            if (mode.name().equalsIgnoreCase(value)) {
+                return Optional.of(mode);
+            }
+        }
+        if (Objects.nonNull(errorMessage)) {
+            errorMessage.set("No match for value " + value + " in JDBCWriteMode. possible values are:" + Arrays.stream(modes).map(Enum::name).collect(Collectors.joining(", ")));
+        }
+        return Optional.empty();
+    }
+}
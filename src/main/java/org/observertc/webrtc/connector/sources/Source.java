@@ -1,10 +1,13 @@
 package org.observertc.webrtc.connector.sources;
 
 import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.core.BackpressureStrategy;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.Observer;
 import org.observertc.webrtc.connector.common.RestartPolicy;
 import org.observertc.webrtc.connector.pipelines.Pipeline;
+import org.observertc.webrtc.schemas.reports.Report;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,6 +56,96 @@ public abstract class Source extends Observable<byte[]> implements Runnable {
 
     protected abstract Observable<byte[]> makeObservable();
 
+    /**
+     * Makes a flow of the source emitting only as many items as it is requested by the downstream.
+     *
+     * <p>Sources capable of holding back their input (i.e.: polling only on demand)
+     * should override this method, the default implementation buffers the
+     * observable source without limits.
+     *
+     * @return a backpressure-aware flow of the source
+     */
+    protected Flowable<byte[]> makeFlowable() {
+        logger.warn("{} does not support backpressure, its items are buffered without limits",
+                this.getClass().getSimpleName());
+        return this.makeObservable().toFlowable(BackpressureStrategy.BUFFER);
+    }
+
+    /**
+     * Tells whether the source expects its items to be acknowledged by {@link #acknowledge(long)}
+     * after the reports decoded from them are written by the sink.
+     *
+     * @return true if the source waits for acknowledgements
+     */
+    public boolean requiresAcknowledgement() {
+        return false;
+    }
+
+    /**
+     * Acknowledges every item the source emitted up to, and including the given sequence number.
+     * The sequence number of an item is its index in the order the source emitted it.
+     *
+     * @param sequence the sequence number of the last processed item
+     */
+    public void acknowledge(long sequence) {
+
+    }
+
+    /**
+     * Tells whether the items of the source are emitted in partitions (see {@link #asPartitions()}).
+     *
+     * @return true if the source can be consumed by its partitions
+     */
+    public boolean isPartitioned() {
+        return false;
+    }
+
+    /**
+     * Makes a flow of the partitions of the source, sources emitting their items
+     * in partitions should override this method together with {@link #isPartitioned()}.
+     * The acknowledgements of the items are given to their partitions.
+     *
+     * @return a flow of partitions emitted when the source starts to emit them,
+     * by default a flow failing by {@link UnsupportedOperationException}
+     */
+    protected Flowable<SourcePartition> makePartitions() {
+        return Flowable.error(new UnsupportedOperationException(this.getClass().getSimpleName() + " does not emit its items in partitions"));
+    }
+
+    /**
+     * Tells whether the source makes the reports itself (see {@link #asReports()}), in which case
+     * the pipeline takes the reports from the source as they are, without encoding and decoding them.
+     *
+     * @return true if the source can emit decoded reports
+     */
+    public boolean emitsReports() {
+        return false;
+    }
+
+    /**
+     * Makes a backpressure-aware flow of the reports of the source, sources making the reports
+     * themselves (i.e.: from database rows) should override this method together with {@link #emitsReports()}.
+     * The reports are the items of the source, and they are acknowledged in the order they are emitted.
+     *
+     * @return a flow of the reports of the source,
+     * by default a flow failing by {@link UnsupportedOperationException}
+     */
+    protected Flowable<Report> makeReports() {
+        return Flowable.error(new UnsupportedOperationException(this.getClass().getSimpleName() + " does not emit decoded reports"));
+    }
+
+    public Flowable<byte[]> asFlowable() {
+        return this.makeFlowable();
+    }
+
+    public Flowable<Report> asReports() {
+        return this.makeReports();
+    }
+
+    public Flowable<SourcePartition> asPartitions() {
+        return this.makePartitions();
+    }
+
     public Source inPipeline(Pipeline pipeline) {
         if (Objects.isNull(pipeline)) {
             logger.warn("{} tried to be assigned with a null pipeline", this.getClass().getSimpleName());
@@ -0,0 +1,41 @@
+package org.observertc.webrtc.connector.sources;
+
+import io.reactivex.rxjava3.core.Flowable;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Items of a partitioned source, which must be processed in the order they are emitted,
+ * but independently from the items of the other partitions (i.e.: the records of a kafka partition).
+ *
+ * <p>The items are completed when the source stops emitting the partition (i.e.: the partition is revoked).
+ */
+public class SourcePartition {
+    private final int id;
+    private final Flowable<byte[]> items;
+    private final LongConsumer acknowledge;
+
+    public SourcePartition(int id, Flowable<byte[]> items, LongConsumer acknowledge) {
+        this.id = id;
+        this.items = items;
+        this.acknowledge = acknowledge;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    public Flowable<byte[]> getItems() {
+        return this.items;
+    }
+
+    /**
+     * Acknowledges every item of the partition up to, and including the given sequence number.
+     * The sequence number of an item is its index in the order the partition emitted it.
+     *
+     * @param sequence the sequence number of the last processed item
+     */
+    public void acknowledge(long sequence) {
+        this.acknowledge.accept(sequence);
+    }
+}
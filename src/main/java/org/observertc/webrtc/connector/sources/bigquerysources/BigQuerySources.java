@@ -1,22 +1,78 @@
 package org.observertc.webrtc.connector.sources.bigquerysources;
 
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.functions.Function;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.apache.avro.message.BinaryMessageEncoder;
 import org.observertc.webrtc.connector.common.BigQueryService;
 import org.observertc.webrtc.connector.sources.Source;
 import org.observertc.webrtc.connector.sources.bigquerysources.observabletables.*;
 import org.observertc.webrtc.schemas.reports.Report;
 import org.observertc.webrtc.schemas.reports.ReportType;
 
-import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
+/**
+ * Reads the reports of the tables of a BigQuery dataset.
+ *
+ * <p>Tables can be read concurrently (see {@link #withMaxConcurrentReads(int)}), and big tables
+ * can be split into row ranges read concurrently (see {@link #withRowRanges(int, long)}).
+ * Reports are emitted in the order of the tables only if one table is read at a time.
+ *
+ * <p>With checkpoints (see {@link Checkpoints}) the ranges of the tables and the rows acknowledged
+ * in every range are persisted, and the source resumes reading the tables from the checkpoint.
+ * A range failed by an error is not taken as read then: the other ranges are read to their ends,
+ * and the source fails by the error afterwards, so the failed range is resumed from its checkpoint.
+ */
 public class BigQuerySources extends Source {
+    private static final Map<ReportType, BiFunction<BigQueryService, String, RecordMapperAbstract>> MAPPERS = new LinkedHashMap<>();
+
+    static {
+        MAPPERS.put(ReportType.FINISHED_CALL, FinishedCalls::new);
+        MAPPERS.put(ReportType.INITIATED_CALL, InitiatedCalls::new);
+        MAPPERS.put(ReportType.OBSERVER_EVENT, ObserverEvents::new);
+        MAPPERS.put(ReportType.JOINED_PEER_CONNECTION, JoinedPeerConnections::new);
+        MAPPERS.put(ReportType.DETACHED_PEER_CONNECTION, DetachedPeerConnections::new);
+        MAPPERS.put(ReportType.ICE_CANDIDATE_PAIR, ICECandidatePairs::new);
+        MAPPERS.put(ReportType.ICE_LOCAL_CANDIDATE, ICELocalCandidates::new);
+        MAPPERS.put(ReportType.ICE_REMOTE_CANDIDATE, ICERemoteCandidates::new);
+        MAPPERS.put(ReportType.INBOUND_RTP, InboundRTPs::new);
+        MAPPERS.put(ReportType.OUTBOUND_RTP, OutboundRTPs::new);
+        MAPPERS.put(ReportType.REMOTE_INBOUND_RTP, RemoteInboundRTPs::new);
+        MAPPERS.put(ReportType.MEDIA_SOURCE, MediaSources::new);
+        MAPPERS.put(ReportType.TRACK, Tracks::new);
+        MAPPERS.put(ReportType.USER_MEDIA_ERROR, UserMediaErrors::new);
+    }
+
     private final Map<ReportType, String> tableNames;
     private final BigQueryService bigQueryService;
     private String forcedMarker = null;
+    private int maxConcurrentReads = 1;
+    private int maxRangesPerTable = 1;
+    private long minRowsPerRange = 1;
+    private long pageSize = RecordMapperAbstract.DEFAULT_PAGE_SIZE;
+    private Checkpoints checkpoints = null;
+
+    private static class Row<T> {
+        final RowRange range;
+        final long index;
+        final T item;
+
+        private Row(RowRange range, long index, T item) {
+            this.range = range;
+            this.index = index;
+            this.item = item;
+        }
+    }
 
     public BigQuerySources(BigQueryService bigQueryService) {
         this.tableNames = new HashMap<>();
@@ -25,29 +81,150 @@ public class BigQuerySources extends Source {
 
     @Override
     protected Observable<byte[]> makeObservable() {
-        List<RecordMapperAbstract> sources = List.of(
-                new FinishedCalls(this.bigQueryService, this.tableNames.get(ReportType.FINISHED_CALL)),
-                new InitiatedCalls(this.bigQueryService, this.tableNames.get(ReportType.INITIATED_CALL)),
-                new ObserverEvents(this.bigQueryService, this.tableNames.get(ReportType.OBSERVER_EVENT)),
-                new JoinedPeerConnections(this.bigQueryService, this.tableNames.get(ReportType.JOINED_PEER_CONNECTION)),
-                new DetachedPeerConnections(this.bigQueryService, this.tableNames.get(ReportType.DETACHED_PEER_CONNECTION)),
-                new ICECandidatePairs(this.bigQueryService, this.tableNames.get(ReportType.ICE_CANDIDATE_PAIR)),
-                new ICELocalCandidates(this.bigQueryService, this.tableNames.get(ReportType.ICE_LOCAL_CANDIDATE)),
-                new ICERemoteCandidates(this.bigQueryService, this.tableNames.get(ReportType.ICE_REMOTE_CANDIDATE)),
-                new InboundRTPs(this.bigQueryService, this.tableNames.get(ReportType.INBOUND_RTP)),
-                new OutboundRTPs(this.bigQueryService, this.tableNames.get(ReportType.OUTBOUND_RTP)),
-                new RemoteInboundRTPs(this.bigQueryService, this.tableNames.get(ReportType.REMOTE_INBOUND_RTP)),
-                new MediaSources(this.bigQueryService, this.tableNames.get(ReportType.MEDIA_SOURCE)),
-                new Tracks(this.bigQueryService, this.tableNames.get(ReportType.TRACK)),
-                new UserMediaErrors(this.bigQueryService, this.tableNames.get(ReportType.USER_MEDIA_ERROR))
-        );
+        return this.makeFlowable().toObservable();
+    }
 
-        if (Objects.nonNull(this.forcedMarker)) {
-            sources.forEach(s -> s.withMarker(this.forcedMarker));
+    @Override
+    protected Flowable<byte[]> makeFlowable() {
+        Flowable<byte[]> result = this.makeRecords();
+        if (Objects.isNull(this.checkpoints)) {
+            return result;
+        }
+        return this.checkpoints.watch(result);
+    }
+
+    @Override
+    public boolean emitsReports() {
+        return true;
+    }
+
+    @Override
+    protected Flowable<Report> makeReports() {
+        Flowable<Report> result = this.makeReportRecords();
+        if (Objects.isNull(this.checkpoints)) {
+            return result;
+        }
+        return this.checkpoints.watch(result);
+    }
+
+    @Override
+    public boolean requiresAcknowledgement() {
+        return Objects.nonNull(this.checkpoints);
+    }
+
+    /**
+     * Acknowledges the rows emitted by the source, which are checkpointed by the next checkpoint.
+     */
+    @Override
+    public void acknowledge(long sequence) {
+        if (Objects.nonNull(this.checkpoints)) {
+            this.checkpoints.acknowledge(sequence);
+        }
+    }
+
+    /**
+     * Makes the flow of the encoded reports without loading and writing the checkpoints,
+     * which are handled by the flow the records are part of (see {@link Checkpoints#watch(Flowable)}).
+     * The reports are encoded by the mappers, so concurrently read ranges are encoded concurrently.
+     */
+    Flowable<byte[]> makeRecords() {
+        BinaryMessageEncoder<Report> encoder = Report.getEncoder();
+        return this.makeItems(report -> encoder.encode(report).array());
+    }
+
+    /**
+     * Makes the flow of the reports without loading and writing the checkpoints (see {@link #makeRecords()}).
+     */
+    Flowable<Report> makeReportRecords() {
+        return this.makeItems(report -> report);
+    }
+
+    private <T> Flowable<T> makeItems(Function<Report, T> converter) {
+        Flowable<RowRange> ranges = Flowable.fromIterable(MAPPERS.keySet())
+                .concatMapIterable(this::makeRanges);
+        if (1 < this.maxConcurrentReads) {
+            // the number of rows are fetched by the io scheduler as well, not by the thread requesting the reports
+            ranges = ranges.subscribeOn(Schedulers.io());
+        }
+        Flowable<T> result = ranges
+                .flatMap(range -> {
+                    Flowable<Row<T>> rows = this.read(range, converter);
+                    if (1 < this.maxConcurrentReads) {
+                        rows = rows.subscribeOn(Schedulers.io());
+                    }
+                    return rows;
+                }, true, this.maxConcurrentReads)
+                .map(row -> {
+                    if (Objects.nonNull(this.checkpoints)) {
+                        this.checkpoints.add(row.range, row.index);
+                    }
+                    return row.item;
+                });
+        return result;
+    }
+
+    private <T> Flowable<Row<T>> read(RowRange range, Function<Report, T> converter) {
+        RecordMapperAbstract mapper = this.makeMapper(range.getReportType())
+                .withRowRange(range.getNext(), range.getRemainingRows());
+        if (Objects.nonNull(this.checkpoints)) {
+            mapper.withErrorsPropagated();
         }
+        AtomicLong index = new AtomicLong(range.getNext());
+        return mapper.asFlowable()
+                .map(report -> new Row<>(range, index.getAndIncrement(), converter.apply(report)));
+    }
 
-        var encoder = Report.getEncoder();
-        return Observable.concat(sources).map(encoder::encode).map(ByteBuffer::array);
+    /**
+     * Makes the row ranges of the table of the report type.
+     * If the table has a checkpoint, the unfinished ranges of the checkpoint are resumed,
+     * otherwise the table is split into ranges, where the last range is open,
+     * so rows appended to the table after its size is taken are read as well.
+     */
+    private List<RowRange> makeRanges(ReportType reportType) {
+        String tableName = this.tableNames.get(reportType);
+        String table = String.join(".", this.bigQueryService.getProjectId(), this.bigQueryService.getDatasetId(), tableName);
+        if (Objects.nonNull(this.checkpoints)) {
+            List<RowRange> checkpointed = this.checkpoints.getRanges(table);
+            if (!checkpointed.isEmpty()) {
+                List<RowRange> result = checkpointed.stream()
+                        .filter(range -> !range.isFinished())
+                        .map(range -> range.withReportType(reportType))
+                        .collect(Collectors.toList());
+                logger.info("Table {} is resumed from its checkpoint in {} ranges", tableName, result.size());
+                return result;
+            }
+        }
+        List<RowRange> result = new ArrayList<>();
+        long ranges = 1;
+        long rowsPerRange = 0;
+        if (1 < this.maxRangesPerTable) {
+            try {
+                long numRows = this.makeMapper(reportType).getNumRows();
+                ranges = Math.max(1, Math.min(this.maxRangesPerTable, numRows / this.minRowsPerRange));
+                rowsPerRange = (numRows + ranges - 1) / ranges;
+                logger.info("Table {} having {} rows is read in {} ranges", tableName, numRows, ranges);
+            } catch (Throwable ex) {
+                logger.warn("Number of rows cannot be fetched for {}, the table is read in one range. Message: {}",
+                        tableName, ex.getMessage());
+            }
+        }
+        for (int range = 0; range < ranges; ++range) {
+            long start = range * rowsPerRange;
+            Long end = range < ranges - 1 ? start + rowsPerRange : null;
+            RowRange rowRange = Objects.isNull(this.checkpoints) ?
+                    new RowRange(table, start, start, end) :
+                    this.checkpoints.addRange(table, start, end);
+            result.add(rowRange.withReportType(reportType));
+        }
+        return result;
+    }
+
+    private RecordMapperAbstract makeMapper(ReportType reportType) {
+        RecordMapperAbstract result = MAPPERS.get(reportType).apply(this.bigQueryService, this.tableNames.get(reportType));
+        if (Objects.nonNull(this.forcedMarker)) {
+            result.withMarker(this.forcedMarker);
+        }
+        return result.withPageSize(this.pageSize);
     }
 
     BigQuerySources withTableName(ReportType reportType, String tableName) {
@@ -59,4 +236,25 @@ public class BigQuerySources extends Source {
         this.forcedMarker = forcedMarker;
         return this;
     }
+
+    BigQuerySources withMaxConcurrentReads(int maxConcurrentReads) {
+        this.maxConcurrentReads = maxConcurrentReads;
+        return this;
+    }
+
+    BigQuerySources withRowRanges(int maxRangesPerTable, long minRowsPerRange) {
+        this.maxRangesPerTable = maxRangesPerTable;
+        this.minRowsPerRange = Math.max(1, minRowsPerRange);
+        return this;
+    }
+
+    BigQuerySources withPageSize(long pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    BigQuerySources withCheckpoints(Checkpoints checkpoints) {
+        this.checkpoints = checkpoints;
+        return this;
+    }
 }
@@ -1,19 +1,26 @@
 package org.observertc.webrtc.connector.sources.bigquerysources;
 
 import io.micronaut.context.annotation.Prototype;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Observable;
 import org.observertc.webrtc.connector.common.BigQueryService;
 import org.observertc.webrtc.connector.configbuilders.AbstractBuilder;
 import org.observertc.webrtc.connector.configbuilders.Builder;
 import org.observertc.webrtc.connector.sources.Source;
+import org.observertc.webrtc.connector.sources.bigquerysources.observabletables.RecordMapperAbstract;
+import org.observertc.webrtc.schemas.reports.Report;
 import org.observertc.webrtc.schemas.reports.ReportType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 @Prototype
 public class BigQuerySourcesBuilder extends AbstractBuilder implements Builder<Source> {
@@ -28,6 +35,10 @@ public class BigQuerySourcesBuilder extends AbstractBuilder implements Builder<S
     public Source build() {
         Config mainConfig = this.convertAndValidate(Config.class);
         List<BigQuerySources> bigQuerySources = new LinkedList<>();
+        Checkpoints checkpoints = null;
+        if (Objects.nonNull(mainConfig.checkpointFile)) {
+            checkpoints = new Checkpoints(Paths.get(mainConfig.checkpointFile), TimeUnit.SECONDS.toMillis(mainConfig.checkpointIntervalInS));
+        }
         for (InnerConfig config : mainConfig.sources) {
             BigQueryService bigQueryService = new BigQueryService(config.projectId, config.datasetId, config.credentialFile);
 
@@ -48,21 +59,63 @@ public class BigQuerySourcesBuilder extends AbstractBuilder implements Builder<S
                     .withTableName(ReportType.OBSERVER_EVENT, config.observerEventTable)
 
                     ;
-            result.withForcedMarker(config.forcedMarker);
+            result.withForcedMarker(config.forcedMarker)
+                    .withMaxConcurrentReads(config.maxConcurrentReads)
+                    .withRowRanges(config.maxRangesPerTable, config.minRowsPerRange)
+                    .withPageSize(config.pageSize)
+                    .withCheckpoints(checkpoints);
             bigQuerySources.add(result);
         }
 
+        Checkpoints sourceCheckpoints = checkpoints;
         return new Source() {
             List<BigQuerySources> sources = bigQuerySources;
             @Override
             protected Observable<byte[]> makeObservable() {
-                List<Observable<byte[]>> observables = new ArrayList<>();
+                return this.makeFlowable().toObservable();
+            }
+
+            @Override
+            protected Flowable<byte[]> makeFlowable() {
+                List<Flowable<byte[]>> flowables = new ArrayList<>();
                 for (BigQuerySources s : this.sources) {
-                    Observable<byte[]> source = s.makeObservable().share();
-                    observables.add(source);
+                    flowables.add(s.makeRecords());
+                }
+                Flowable<byte[]> result = Flowable.concat(flowables);
+                if (Objects.isNull(sourceCheckpoints)) {
+                    return result;
                 }
+                return sourceCheckpoints.watch(result);
+            }
 
-                return Observable.concat(observables);
+            @Override
+            public boolean emitsReports() {
+                return true;
+            }
+
+            @Override
+            protected Flowable<Report> makeReports() {
+                List<Flowable<Report>> flowables = new ArrayList<>();
+                for (BigQuerySources s : this.sources) {
+                    flowables.add(s.makeReportRecords());
+                }
+                Flowable<Report> result = Flowable.concat(flowables);
+                if (Objects.isNull(sourceCheckpoints)) {
+                    return result;
+                }
+                return sourceCheckpoints.watch(result);
+            }
+
+            @Override
+            public boolean requiresAcknowledgement() {
+                return Objects.nonNull(sourceCheckpoints);
+            }
+
+            @Override
+            public void acknowledge(long sequence) {
+                if (Objects.nonNull(sourceCheckpoints)) {
+                    sourceCheckpoints.acknowledge(sequence);
+                }
             }
         };
     }
@@ -70,6 +123,17 @@ public class BigQuerySourcesBuilder extends AbstractBuilder implements Builder<S
     public static class Config {
 
         public List<InnerConfig> sources;
+
+        /**
+         * The file the progress of the migration is checkpointed to and resumed from, null means no checkpoints
+         */
+        public String checkpointFile = null;
+
+        /**
+         * The period the checkpoint file is written in
+         */
+        @Min(1)
+        public int checkpointIntervalInS = 60;
     }
 
     public static class InnerConfig {
@@ -85,6 +149,30 @@ public class BigQuerySourcesBuilder extends AbstractBuilder implements Builder<S
 
         public String forcedMarker = null;
 
+        /**
+         * The maximal number of tables or row ranges read at the same time
+         */
+        @Min(1)
+        public int maxConcurrentReads = 1;
+
+        /**
+         * The maximal number of row ranges a table is split into to be read concurrently
+         */
+        @Min(1)
+        public int maxRangesPerTable = 1;
+
+        /**
+         * The minimal number of rows in a row range, smaller tables are split into fewer ranges
+         */
+        @Min(1)
+        public long minRowsPerRange = 1000000;
+
+        /**
+         * The maximal number of rows listed by one request
+         */
+        @Min(1)
+        public long pageSize = RecordMapperAbstract.DEFAULT_PAGE_SIZE;
+
         public String initiatedCallsTable = "InitiatedCalls";
 
         public String finishedCallsTable = "FinishedCalls";
@@ -0,0 +1,214 @@
+package org.observertc.webrtc.connector.sources.bigquerysources;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Persists the row ranges of the migrated tables together with the index of the next row to be read,
+ * so a migration can be resumed from the checkpoint after a restart.
+ *
+ * <p>A row counts as read only after the item emitted from it is acknowledged (i.e.: the sink has written it),
+ * hence a resumed migration can write the rows emitted after the last checkpoint again, but it never skips a row.
+ * The checkpoint file is written periodically, and when every emitted row is acknowledged after the source is completed.
+ * If the flow fails or it is cancelled (i.e.: the sink fails), no more rows are acknowledged,
+ * so the checkpoint is written and the periodic writes are stopped right away.
+ * The file is replaced atomically, so a crash during writing leaves the previous checkpoint.
+ */
+class Checkpoints {
+    private static final Logger logger = LoggerFactory.getLogger(Checkpoints.class);
+    private static final String KEY_SEPARATOR = "/";
+    private static final String VALUE_SEPARATOR = ",";
+
+    private static class PendingRow {
+        final long sequence;
+        final RowRange range;
+        final long index;
+
+        private PendingRow(long sequence, RowRange range, long index) {
+            this.sequence = sequence;
+            this.range = range;
+            this.index = index;
+        }
+    }
+
+    private final Path path;
+    private final long intervalInMs;
+    private final Map<String, List<RowRange>> ranges = new LinkedHashMap<>();
+    private final Queue<PendingRow> pendingRows = new LinkedList<>();
+    private Disposable timer = Disposable.disposed();
+    private long emitted = 0;
+    private boolean dirty = false;
+    private boolean completed = false;
+
+    Checkpoints(Path path, long intervalInMs) {
+        this.path = path;
+        this.intervalInMs = intervalInMs;
+    }
+
+    /**
+     * Wraps the flow of the migration to load the checkpoint when it is subscribed,
+     * and to write the checkpoint periodically while the rows are acknowledged.
+     */
+    <T> Flowable<T> watch(Flowable<T> flow) {
+        return Flowable.defer(() -> {
+            this.open();
+            return flow
+                    .doOnComplete(this::complete)
+                    .doOnError(error -> this.close())
+                    .doOnCancel(this::close);
+        });
+    }
+
+    /**
+     * Gets the checkpointed ranges of the table, or an empty list if the table has no checkpoint yet.
+     */
+    synchronized List<RowRange> getRanges(String table) {
+        List<RowRange> result = this.ranges.get(table);
+        if (Objects.isNull(result)) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Registers a new range of a table, which is going to be checkpointed.
+     */
+    synchronized RowRange addRange(String table, long start, Long end) {
+        RowRange result = new RowRange(table, start, start, end);
+        this.ranges.computeIfAbsent(table, t -> new ArrayList<>()).add(result);
+        this.dirty = true;
+        return result;
+    }
+
+    /**
+     * Registers an emitted row, the sequence number of the emitted item is its index in the order of the calls.
+     */
+    synchronized void add(RowRange range, long index) {
+        this.pendingRows.add(new PendingRow(this.emitted++, range, index));
+    }
+
+    synchronized void acknowledge(long sequence) {
+        while (!this.pendingRows.isEmpty() && this.pendingRows.peek().sequence <= sequence) {
+            PendingRow row = this.pendingRows.poll();
+            row.range.setNext(row.index + 1);
+            this.dirty = true;
+        }
+        if (this.completed && this.pendingRows.isEmpty()) {
+            this.close();
+        }
+    }
+
+    synchronized void save() throws IOException {
+        if (!this.dirty) {
+            return;
+        }
+        Properties properties = new Properties();
+        for (List<RowRange> tableRanges : this.ranges.values()) {
+            for (RowRange range : tableRanges) {
+                String key = range.getTable() + KEY_SEPARATOR + range.getStart();
+                String value = Long.toString(range.getNext());
+                if (Objects.nonNull(range.getEnd())) {
+                    value = value + VALUE_SEPARATOR + range.getEnd();
+                }
+                properties.setProperty(key, value);
+            }
+        }
+        Path directory = this.path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, this.path.getFileName().toString(), ".tmp");
+        try (OutputStream output = Files.newOutputStream(temporary)) {
+            properties.store(output, "BigQuerySources checkpoint");
+        }
+        Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.dirty = false;
+    }
+
+    private synchronized void open() throws IOException {
+        this.load();
+        this.completed = false;
+        if (0 < this.intervalInMs) {
+            this.timer = Schedulers.io().schedulePeriodicallyDirect(this::trySave,
+                    this.intervalInMs, this.intervalInMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void complete() {
+        this.completed = true;
+        if (this.pendingRows.isEmpty()) {
+            this.close();
+        } else {
+            this.trySave();
+        }
+    }
+
+    /**
+     * Tells if the checkpoint is written periodically.
+     */
+    synchronized boolean isWatching() {
+        return !this.timer.isDisposed();
+    }
+
+    private synchronized void close() {
+        this.timer.dispose();
+        this.trySave();
+    }
+
+    private void trySave() {
+        try {
+            this.save();
+        } catch (IOException e) {
+            logger.warn("Checkpoint cannot be written to {}", this.path, e);
+        }
+    }
+
+    private void load() throws IOException {
+        this.ranges.clear();
+        this.pendingRows.clear();
+        this.dirty = false;
+        if (!Files.exists(this.path)) {
+            logger.info("No checkpoint exists at {}, the migration starts from the beginning of the tables", this.path);
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(this.path)) {
+            properties.load(input);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            int separator = key.lastIndexOf(KEY_SEPARATOR);
+            String[] values = properties.getProperty(key).split(VALUE_SEPARATOR);
+            try {
+                String table = key.substring(0, separator);
+                long start = Long.parseLong(key.substring(separator + 1));
+                long next = Long.parseLong(values[0].trim());
+                Long end = 1 < values.length ? Long.parseLong(values[1].trim()) : null;
+                this.ranges.computeIfAbsent(table, t -> new ArrayList<>()).add(new RowRange(table, start, next, end));
+            } catch (RuntimeException e) {
+                throw new IOException("Invalid checkpoint " + key + " in " + this.path, e);
+            }
+        }
+        this.ranges.values().forEach(tableRanges -> tableRanges.sort(Comparator.comparingLong(RowRange::getStart)));
+        logger.info("Checkpoint is loaded from {} for tables {}", this.path,
+                this.ranges.keySet().stream().collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,76 @@
+package org.observertc.webrtc.connector.sources.bigquerysources;
+
+import org.observertc.webrtc.schemas.reports.ReportType;
+
+import java.util.Objects;
+
+/**
+ * A range of the rows of a table read by one mapper, with the index of the next row
+ * the range has to be read from.
+ */
+class RowRange {
+    private final String table;
+    private final long start;
+    private final Long end;
+    private volatile long next;
+    private ReportType reportType = null;
+
+    /**
+     * @param table the qualified name of the table (project, dataset and table)
+     * @param start the index of the first row of the range
+     * @param next  the index of the next row to read
+     * @param end   the index after the last row of the range, or null if the range lasts until the end of the table
+     */
+    RowRange(String table, long start, long next, Long end) {
+        this.table = table;
+        this.start = start;
+        this.next = next;
+        this.end = end;
+    }
+
+    String getTable() {
+        return this.table;
+    }
+
+    long getStart() {
+        return this.start;
+    }
+
+    ReportType getReportType() {
+        return this.reportType;
+    }
+
+    long getNext() {
+        return this.next;
+    }
+
+    Long getEnd() {
+        return this.end;
+    }
+
+    /**
+     * Gets the number of rows left to read from the next row, or null if the range is open.
+     */
+    Long getRemainingRows() {
+        if (Objects.isNull(this.end)) {
+            return null;
+        }
+        return Math.max(0, this.end - this.next);
+    }
+
+    boolean isFinished() {
+        return Objects.nonNull(this.end) && this.end <= this.next;
+    }
+
+    void setNext(long next) {
+        this.next = next;
+    }
+
+    /**
+     * Sets the type of the reports the rows of the range are mapped to, which is not part of the checkpoint.
+     */
+    RowRange withReportType(ReportType reportType) {
+        this.reportType = reportType;
+        return this;
+    }
+}
@@ -2,6 +2,8 @@ package org.observertc.webrtc.connector.sources.bigquerysources.observabletables
 
 import com.google.cloud.bigquery.*;
 import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.core.Emitter;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.Observer;
 import org.observertc.webrtc.connector.common.BigQueryService;
@@ -22,13 +24,17 @@ public abstract class RecordMapperAbstract extends Observable<Report> {
     public static final String MARKER_FIELD_NAME = "marker";
 
     public static final int MIGRATED_REPORT_VERSION = 1;
+    public static final long DEFAULT_PAGE_SIZE = 500000;
     private final BigQueryService bigQueryService;
     private final String tableName;
     private final ReportType reportType;
-    private final int limit = 500000;
+    private long pageSize = DEFAULT_PAGE_SIZE;
+    private long startIndex = 0;
+    private Long maxRows = null;
     private final Map<String, Integer> fieldMap = new HashMap<>();
     private Logger logger = DEFAULT_LOGGER;
     private String forcedMarker = null;
+    private boolean propagateErrors = false;
     protected Schema schema;
 
     public RecordMapperAbstract(BigQueryService bigQueryService, String tableName, ReportType reportType) {
@@ -40,29 +46,79 @@ public abstract class RecordMapperAbstract extends Observable<Report> {
 
     @Override
     protected void subscribeActual(@NonNull Observer<? super Report> observer) {
+        this.asFlowable().toObservable().subscribe(observer);
+    }
+
+    /**
+     * Makes a flow of the reports of the table (or of the row range given by {@link #withRowRange(long, Long)}),
+     * which lists the pages of the table only when the downstream requests the reports of it.
+     * A table whose schema cannot be fetched is skipped. An error reading the rows stops the flow of the table,
+     * which completes, unless errors are propagated (see {@link #withErrorsPropagated()}).
+     */
+    public Flowable<Report> asFlowable() {
         String projectId = this.bigQueryService.getProjectId();
         String datasetId = this.bigQueryService.getDatasetId();
-        BigQuery bigquery = this.bigQueryService.getBigQuery();
-        try {
-            TableId tableId = TableId.of(this.bigQueryService.getDatasetId(), this.tableName);
-            TableResult result = bigquery.listTableData(tableId, BigQuery.TableDataListOption.pageSize(this.limit));
-            this.fieldMap.putAll(this.buildFieldMap(tableId));
-            logger.info("{}:{} Fetching records for {} has begun", projectId, datasetId, this.tableName);
-            int fetched = 0;
-            for (FieldValueList row : result.iterateAll()) {
-                Report report = this.makeReport(row);
-                observer.onNext(report);
-                if (this.limit <= ++fetched) {
-                    logger.info("{}:{} Fetched {} records from table {}",  projectId, datasetId, fetched, this.tableName);
-                    fetched = 0;
-                }
+        return Flowable.defer(() -> {
+            try {
+                this.fieldMap.putAll(this.buildFieldMap());
+            } catch (Throwable ex) {
+                // i.e.: the dataset does not have the table
+                logger.warn("{}:{} Schema of {} cannot be fetched, the table is skipped. Message: {}", projectId, datasetId, this.tableName, ex.getMessage());
+                return Flowable.<List<FieldValueList>>empty();
             }
-            logger.info("{}:{} Fetching records for {} has ended",  projectId, datasetId, this.tableName);
+            logger.info("{}:{} Fetching records for {} from row {} has begun", projectId, datasetId, this.tableName, this.startIndex);
+            return Flowable.generate(() -> this.startIndex, (Long next, Emitter<List<FieldValueList>> emitter) -> {
+                long remaining = Objects.isNull(this.maxRows) ? Long.MAX_VALUE : this.startIndex + this.maxRows - next;
+                List<FieldValueList> rows = remaining < 1 ? Collections.emptyList() :
+                        this.bigQueryService.listRows(this.tableName, next, Math.min(this.pageSize, remaining));
+                if (rows.isEmpty()) {
+                    emitter.onComplete();
+                    return next;
+                }
+                logger.info("{}:{} Fetched {} records from table {}", projectId, datasetId, rows.size(), this.tableName);
+                emitter.onNext(rows);
+                return next + rows.size();
+            });
+        })
+                .concatMapIterable(rows -> rows)
+                .map(this::makeReport)
+                .doOnComplete(() -> logger.info("{}:{} Fetching records for {} has ended", projectId, datasetId, this.tableName))
+                .onErrorResumeNext(ex -> {
+                    logger.warn("{}:{} Migration for {} is stoppped due to exception: {}", projectId, datasetId, this.tableName, ex.getMessage());
+                    return this.propagateErrors ? Flowable.error(ex) : Flowable.empty();
+                });
+    }
 
-        } catch (Throwable ex) {
-            logger.warn("{}:{} Migration for {} is stoppped due to exception: {}",  projectId, datasetId, this.tableName, ex.getMessage());
-        }
-        observer.onComplete();
+    /**
+     * Gets the number of rows of the table to split it into row ranges.
+     */
+    public long getNumRows() {
+        return this.bigQueryService.getNumRows(this.tableName);
+    }
+
+    /**
+     * Restricts the mapper to read the rows of the table from the start index.
+     *
+     * @param startIndex the index of the first row to read
+     * @param maxRows    the maximal number of rows to read, or null to read until the end of the table
+     */
+    public RecordMapperAbstract withRowRange(long startIndex, Long maxRows) {
+        this.startIndex = startIndex;
+        this.maxRows = maxRows;
+        return this;
+    }
+
+    /**
+     * Makes the flow of the table fail by the error stopping it, instead of completing it.
+     */
+    public RecordMapperAbstract withErrorsPropagated() {
+        this.propagateErrors = true;
+        return this;
+    }
+
+    public RecordMapperAbstract withPageSize(long pageSize) {
+        this.pageSize = pageSize;
+        return this;
     }
 
     public RecordMapperAbstract withLogger(Logger logger) {
@@ -80,9 +136,9 @@ public abstract class RecordMapperAbstract extends Observable<Report> {
     }
     private Function<FieldValue, Long> timestampResolver;
 
-    private Map<String, Integer> buildFieldMap(TableId tableId){
+    private Map<String, Integer> buildFieldMap(){
         Map<String, Integer> result = new HashMap<>();
-        this.schema = this.bigQueryService.getBigQuery().getTable(tableId).getDefinition().getSchema();
+        this.schema = this.bigQueryService.getSchema(this.tableName);
         FieldList fieldList = schema.getFields();
         List<String> fieldNames = this.getReportFieldNames();
         for (String fieldName : fieldNames) {
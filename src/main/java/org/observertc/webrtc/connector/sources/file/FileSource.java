@@ -1,22 +1,40 @@
 package org.observertc.webrtc.connector.sources.file;
 
-import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.observertc.webrtc.connector.common.SegmentFormat;
 import org.observertc.webrtc.connector.sources.Source;
+import org.observertc.webrtc.schemas.reports.ReportType;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Objects;
-import java.util.stream.Stream;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
 
+/**
+ * Reads the files of a directory tree in the order of their names (see {@link SortedPaths}).
+ *
+ * <p>Files are read by a configurable number of concurrent I/O workers,
+ * while they are emitted in order, so at most the number of workers files are read ahead.
+ * Files are read into heap arrays, as the reports are emitted as byte arrays, so files of 2 GiB or more cannot be read.
+ *
+ * <p>Segment files are read record by record (see {@link SegmentReader}), their indexes are not emitted.
+ * Reports can be selected by their timestamps and types, which is done by the index of the segments if they have any.
+ */
 public class FileSource extends Source {
+    private static final int READ_AHEAD = 128;
+    // the maximal length of an array is slightly less than Integer.MAX_VALUE on most of the VMs
+    private static final long MAX_FILE_SIZE = Integer.MAX_VALUE - 8;
     private String path;
+    private int ioWorkers = 1;
+    private ReportFilter filter = new ReportFilter(null, null, Collections.emptySet());
 
     public FileSource() {
 
@@ -24,30 +42,47 @@ public class FileSource extends Source {
 
     @Override
     protected Observable<byte[]> makeObservable() {
-        return new Observable<byte[]>() {
-            @Override
-            protected void subscribeActual(@NonNull Observer<? super byte[]> observer) {
-                try (Stream<Path> paths = Files.walk(Paths.get(path))) {
-                    paths
-                            .filter(Files::isRegularFile)
-                            .map(Path::toFile)
-                            .map(FileSource.this::read)
-                            .filter(Objects::nonNull)
-                            .forEach(observer::onNext);
-                } catch (IOException e) {
-                    observer.onError(e);
-                }
-                observer.onComplete();
-            }
-        };
+        return this.makeFlowable().toObservable();
+    }
+
+    @Override
+    protected Flowable<byte[]> makeFlowable() {
+        Flowable<Path> paths = Flowable.fromIterable(() -> new SortedPaths(Paths.get(this.path)))
+                .filter(file -> !SegmentFormat.isIndex(file));
+        if (this.ioWorkers < 2) {
+            return paths.concatMap(this::readFile);
+        }
+        return paths.concatMapEager(file -> this.readFile(file).subscribeOn(Schedulers.io()),
+                this.ioWorkers, READ_AHEAD);
+    }
+
+    private Flowable<byte[]> readFile(Path file) {
+        if (SegmentFormat.isSegment(file)) {
+            SegmentReader segmentReader = new SegmentReader(this.filter);
+            return Flowable.fromIterable(() -> segmentReader.read(file));
+        }
+        return Maybe.fromCallable(() -> this.read(file))
+                .filter(this.filter::matches)
+                .toFlowable();
     }
 
-    private byte[] read(File file) {
-        byte[] result = null;
-        try (InputStream inputStream = new FileInputStream(file)) {
-            long fileSize = file.length();
-            result = new byte[(int) fileSize];
-            inputStream.read(result);
+    private byte[] read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (MAX_FILE_SIZE < fileSize) {
+                logger.error("File {} is skipped, because its size ({} bytes) exceeds the maximal size of a file read ({} bytes). " +
+                        "Split it into smaller files, or write its reports into segments", file, fileSize, MAX_FILE_SIZE);
+                return null;
+            }
+            byte[] result = new byte[(int) fileSize];
+            // the channel reads into its thread-local pooled direct buffer, and may read less than requested
+            ByteBuffer buffer = ByteBuffer.wrap(result);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    logger.warn("File {} is truncated while it is read", file);
+                    return Arrays.copyOf(result, buffer.position());
+                }
+            }
             return result;
         } catch (IOException ex) {
             logger.warn("Exception occurred while reading file {}", file, ex);
@@ -59,4 +94,14 @@ public class FileSource extends Source {
         this.path = path;
         return this;
     }
+
+    FileSource withIOWorkers(int ioWorkers) {
+        this.ioWorkers = ioWorkers;
+        return this;
+    }
+
+    FileSource withFilter(Long fromTimestamp, Long toTimestamp, Set<ReportType> reportTypes) {
+        this.filter = new ReportFilter(fromTimestamp, toTimestamp, reportTypes);
+        return this;
+    }
 }
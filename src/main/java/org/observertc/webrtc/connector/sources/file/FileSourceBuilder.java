@@ -4,11 +4,17 @@ import io.micronaut.context.annotation.Prototype;
 import org.observertc.webrtc.connector.configbuilders.AbstractBuilder;
 import org.observertc.webrtc.connector.configbuilders.Builder;
 import org.observertc.webrtc.connector.sources.Source;
+import org.observertc.webrtc.schemas.reports.ReportType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Prototype
 public class FileSourceBuilder extends AbstractBuilder implements Builder<Source> {
@@ -24,8 +30,19 @@ public class FileSourceBuilder extends AbstractBuilder implements Builder<Source
             logger.error("The given path ({}) for a FileSource is not exists or it is not a directory", config.path);
             return null;
         }
+        Set<ReportType> reportTypes = new HashSet<>();
+        for (String reportType : config.reportTypes) {
+            try {
+                reportTypes.add(ReportType.valueOf(reportType));
+            } catch (IllegalArgumentException e) {
+                logger.error("The given report type ({}) for a FileSource does not exist", reportType);
+                return null;
+            }
+        }
         return result
                 .setPath(config.path)
+                .withFilter(config.fromTimestamp, config.toTimestamp, reportTypes)
+                .withIOWorkers(config.ioWorkers)
                 ;
     }
 
@@ -34,6 +51,28 @@ public class FileSourceBuilder extends AbstractBuilder implements Builder<Source
 
         @NotNull
         public String path;
+
+        /**
+         * The number of files read concurrently
+         */
+        @Min(1)
+        public int ioWorkers = 1;
+
+        /**
+         * If it is given, only reports with the same or later timestamp are read
+         */
+        public Long fromTimestamp = null;
+
+        /**
+         * If it is given, only reports with earlier timestamp are read
+         */
+        public Long toTimestamp = null;
+
+        /**
+         * If it is not empty, only reports of the given types are read
+         */
+        @NotNull
+        public List<String> reportTypes = new ArrayList<>();
     }
 
 }
@@ -0,0 +1,67 @@
+package org.observertc.webrtc.connector.sources.file;
+
+import org.observertc.webrtc.connector.decoders.AvroDecoder;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.observertc.webrtc.schemas.reports.ReportType;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Selects the reports read by the {@link FileSource} by their timestamps and types.
+ * The timestamp range includes its start and excludes its end, both are optional.
+ */
+class ReportFilter {
+    private static final ReportType[] REPORT_TYPES = ReportType.values();
+    private static final AvroDecoder DECODER = new AvroDecoder();
+    private static final ThreadLocal<Report> REUSED_REPORT = ThreadLocal.withInitial(Report::new);
+
+    private final Long from;
+    private final Long to;
+    private final Set<ReportType> reportTypes;
+
+    ReportFilter(Long from, Long to, Set<ReportType> reportTypes) {
+        this.from = from;
+        this.to = to;
+        this.reportTypes = reportTypes;
+    }
+
+    boolean isEmpty() {
+        return Objects.isNull(this.from) && Objects.isNull(this.to) && this.reportTypes.isEmpty();
+    }
+
+    boolean matches(long timestamp, int reportTypeOrdinal) {
+        if (reportTypeOrdinal < 0 || REPORT_TYPES.length <= reportTypeOrdinal) {
+            return false;
+        }
+        return this.matches(timestamp, REPORT_TYPES[reportTypeOrdinal]);
+    }
+
+    boolean matches(long timestamp, ReportType reportType) {
+        if (Objects.nonNull(this.from) && timestamp < this.from) {
+            return false;
+        }
+        if (Objects.nonNull(this.to) && this.to <= timestamp) {
+            return false;
+        }
+        return this.reportTypes.isEmpty() || this.reportTypes.contains(reportType);
+    }
+
+    /**
+     * Decodes the report to match it, used only if there is no index for the encoded report.
+     */
+    boolean matches(byte[] encoded) {
+        if (this.isEmpty()) {
+            return true;
+        }
+        try {
+            // the report is dropped after it is matched, so the decoded report is reused
+            Report report = DECODER.read(ByteBuffer.wrap(encoded), REUSED_REPORT.get());
+            return this.matches(report.getTimestamp(), report.getType());
+        } catch (Exception e) {
+            // the decoder of the pipeline reports the bytes cannot be decoded
+            return true;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package org.observertc.webrtc.connector.sources.file;
+
+import org.observertc.webrtc.connector.common.SegmentCodec;
+import org.observertc.webrtc.connector.common.SegmentFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Reads the records of a segment (see {@link SegmentFormat}) from the memory-mapped segment file,
+ * and decompresses its blocks by the codec written into the header of the segment.
+ *
+ * <p>If the reports are filtered and the segment has an index, only the blocks of the records selected by the index are read,
+ * and a segment without selected records is not mapped at all. Without an index the records are decoded to be filtered.
+ * A block truncated at the end of the segment (i.e.: the segment is being written) is not read,
+ * neither is a block claiming to be bigger than the block size written into the header of the segment.
+ */
+class SegmentReader {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentReader.class);
+
+    private final ReportFilter filter;
+
+    SegmentReader(ReportFilter filter) {
+        this.filter = filter;
+    }
+
+    Iterator<byte[]> read(Path segmentPath) {
+        try {
+            Path index = SegmentFormat.getIndexOf(segmentPath);
+            if (this.filter.isEmpty() || !Files.isRegularFile(index)) {
+                return this.readAll(segmentPath);
+            }
+            List<long[]> entries = this.findEntries(index);
+            if (entries.isEmpty()) {
+                return Collections.emptyIterator();
+            }
+            Segment segment = Segment.open(segmentPath);
+            if (Objects.isNull(segment)) {
+                return Collections.emptyIterator();
+            }
+            return new RecordIterator() {
+                private final Iterator<long[]> it = entries.iterator();
+                private long blockPosition = -1;
+                private ByteBuffer block = null;
+
+                @Override
+                protected byte[] readNext() {
+                    while (it.hasNext()) {
+                        long[] entry = it.next();
+                        if (entry[0] != this.blockPosition) {
+                            this.blockPosition = entry[0];
+                            this.block = segment.readBlock(entry[0]);
+                        }
+                        if (Objects.isNull(this.block)) {
+                            return null;
+                        }
+                        byte[] result = segment.readRecord(this.block, (int) entry[1]);
+                        if (Objects.nonNull(result)) {
+                            return result;
+                        }
+                    }
+                    return null;
+                }
+            };
+        } catch (IOException e) {
+            logger.warn("Exception occurred while reading segment {}", segmentPath, e);
+            return Collections.emptyIterator();
+        }
+    }
+
+    private Iterator<byte[]> readAll(Path segmentPath) throws IOException {
+        Segment segment = Segment.open(segmentPath);
+        if (Objects.isNull(segment)) {
+            return Collections.emptyIterator();
+        }
+        return new RecordIterator() {
+            private long nextBlockPosition = SegmentFormat.SEGMENT_HEADER_SIZE;
+            private ByteBuffer block = null;
+            private int nextRecordPosition = 0;
+
+            @Override
+            protected byte[] readNext() {
+                for (;;) {
+                    while (Objects.isNull(this.block) || this.block.limit() <= this.nextRecordPosition) {
+                        if (segment.getSize() <= this.nextBlockPosition) {
+                            return null;
+                        }
+                        this.block = segment.readBlock(this.nextBlockPosition);
+                        if (Objects.isNull(this.block)) {
+                            return null;
+                        }
+                        this.nextBlockPosition += SegmentFormat.BLOCK_HEADER_SIZE + segment.getBlockLength(this.nextBlockPosition);
+                        this.nextRecordPosition = 0;
+                    }
+                    byte[] result = segment.readRecord(this.block, this.nextRecordPosition);
+                    if (Objects.isNull(result)) {
+                        return null;
+                    }
+                    this.nextRecordPosition += SegmentFormat.RECORD_HEADER_SIZE + result.length;
+                    if (filter.matches(result)) {
+                        return result;
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the block position and the record position of the selected entries of the index
+     */
+    private List<long[]> findEntries(Path index) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(index));
+        List<long[]> result = new ArrayList<>();
+        if (!hasHeader(buffer, SegmentFormat.INDEX_MAGIC)) {
+            logger.warn("Index {} has no valid header, it is not used", index);
+            return result;
+        }
+        for (int entry = SegmentFormat.HEADER_SIZE; entry + SegmentFormat.INDEX_ENTRY_SIZE <= buffer.limit(); entry += SegmentFormat.INDEX_ENTRY_SIZE) {
+            long timestamp = buffer.getLong(entry);
+            long blockPosition = buffer.getLong(entry + 8);
+            int recordPosition = buffer.getInt(entry + 16);
+            int reportType = buffer.getShort(entry + 20);
+            if (this.filter.matches(timestamp, reportType)) {
+                result.add(new long[]{blockPosition, recordPosition});
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasHeader(ByteBuffer buffer, byte[] magic) {
+        if (buffer.limit() < SegmentFormat.HEADER_SIZE) {
+            return false;
+        }
+        byte[] header = new byte[magic.length];
+        buffer.duplicate().get(header);
+        return Arrays.equals(magic, header) && buffer.get(magic.length) == SegmentFormat.VERSION;
+    }
+
+    private static class Segment {
+        private final Path path;
+        private final ByteBuffer buffer;
+        private final SegmentCodec.Codec codec;
+        private final int blockSizeInBytes;
+
+        private Segment(Path path, ByteBuffer buffer, SegmentCodec.Codec codec, int blockSizeInBytes) {
+            this.path = path;
+            this.buffer = buffer;
+            this.codec = codec;
+            this.blockSizeInBytes = blockSizeInBytes;
+        }
+
+        private static Segment open(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (Integer.MAX_VALUE < size) {
+                    logger.warn("Segment {} is too big ({} bytes) to be read", path, size);
+                    return null;
+                }
+                // the mapping remains valid after the channel is closed
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (buffer.limit() < SegmentFormat.SEGMENT_HEADER_SIZE || !hasHeader(buffer, SegmentFormat.SEGMENT_MAGIC)) {
+                    logger.warn("Segment {} has no valid header, it is not read", path);
+                    return null;
+                }
+                byte codecId = buffer.get(SegmentFormat.HEADER_SIZE - 1);
+                Optional<SegmentCodec> codec = SegmentCodec.getValueFromId(codecId);
+                if (!codec.isPresent()) {
+                    logger.warn("Segment {} is compressed by an unknown codec ({}), it is not read", path, codecId);
+                    return null;
+                }
+                int blockSizeInBytes = buffer.getInt(SegmentFormat.HEADER_SIZE);
+                if (blockSizeInBytes < 1) {
+                    logger.warn("Segment {} has an invalid block size ({}), it is not read", path, blockSizeInBytes);
+                    return null;
+                }
+                return new Segment(path, buffer, codec.get().createCodec(), blockSizeInBytes);
+            }
+        }
+
+        private int getSize() {
+            return this.buffer.limit();
+        }
+
+        private int getBlockLength(long position) {
+            return this.buffer.getInt((int) position);
+        }
+
+        private ByteBuffer readBlock(long position) {
+            int start = (int) position + SegmentFormat.BLOCK_HEADER_SIZE;
+            int length = start <= this.buffer.limit() ? this.getBlockLength(position) : -1;
+            if (length < 0 || this.buffer.limit() - start < length) {
+                logger.warn("Segment {} has a truncated block at {}, the rest of the segment is not read", this.path, position);
+                return null;
+            }
+            ByteBuffer compressed = this.buffer.duplicate();
+            compressed.position(start);
+            compressed.limit(start + length);
+            try {
+                return this.codec.decompress(compressed.slice(), this.blockSizeInBytes).slice();
+            } catch (IOException e) {
+                logger.warn("Block at {} of segment {} cannot be decompressed", position, this.path, e);
+                return null;
+            }
+        }
+
+        /**
+         * Reads a record of a block returned by {@link #readBlock(long)}, which starts at position 0.
+         */
+        private byte[] readRecord(ByteBuffer block, int position) {
+            int start = position + SegmentFormat.RECORD_HEADER_SIZE;
+            int length = start <= block.limit() ? block.getInt(position) : -1;
+            if (length < 0 || block.limit() - start < length) {
+                logger.warn("Segment {} has an invalid record at {} of a block", this.path, position);
+                return null;
+            }
+            byte[] result = new byte[length];
+            ByteBuffer record = block.duplicate();
+            record.position(start);
+            record.get(result);
+            return result;
+        }
+    }
+
+    private static abstract class RecordIterator implements Iterator<byte[]> {
+        private byte[] next = null;
+        private boolean done = false;
+
+        /**
+         * @return the next record, or null if there is no more record
+         */
+        protected abstract byte[] readNext();
+
+        @Override
+        public boolean hasNext() {
+            if (Objects.isNull(this.next) && !this.done) {
+                this.next = this.readNext();
+                this.done = Objects.isNull(this.next);
+            }
+            return Objects.nonNull(this.next);
+        }
+
+        @Override
+        public byte[] next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            byte[] result = this.next;
+            this.next = null;
+            return result;
+        }
+    }
+}
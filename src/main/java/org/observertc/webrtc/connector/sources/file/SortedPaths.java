@@ -0,0 +1,110 @@
+package org.observertc.webrtc.connector.sources.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Iterates over the regular files of a directory tree depth-first, in the order of their names,
+ * where the names starting with numbers (i.e.: the sequence numbers of the FileSink) are ordered by the numbers,
+ * so 100000-INITIATED_CALL.dat follows 99999-INITIATED_CALL.dat.
+ *
+ * <p>Only the listings of the directories on the path to the current file are held in memory,
+ * every one of them is listed and sorted entirely when the iteration enters it.
+ * Symbolic links of directories are not followed.
+ */
+class SortedPaths implements Iterator<Path> {
+
+    private final Deque<Iterator<Path>> directories = new ArrayDeque<>();
+    private Path next = null;
+
+    SortedPaths(Path root) {
+        if (Files.isDirectory(root, LinkOption.NOFOLLOW_LINKS)) {
+            this.directories.push(this.list(root));
+        } else if (Files.isRegularFile(root)) {
+            this.next = root;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (Objects.isNull(this.next) && !this.directories.isEmpty()) {
+            Iterator<Path> entries = this.directories.peek();
+            if (!entries.hasNext()) {
+                this.directories.pop();
+                continue;
+            }
+            Path entry = entries.next();
+            if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                this.directories.push(this.list(entry));
+            } else if (Files.isRegularFile(entry)) {
+                this.next = entry;
+            }
+        }
+        return Objects.nonNull(this.next);
+    }
+
+    @Override
+    public Path next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Path result = this.next;
+        this.next = null;
+        return result;
+    }
+
+    /**
+     * Compares the names by the numbers they start with, and by the names themselves if the numbers are equal,
+     * or if any of the names does not start with a number.
+     */
+    static int compareNames(Path first, Path second) {
+        String firstName = first.getFileName().toString();
+        String secondName = second.getFileName().toString();
+        String firstNumber = getLeadingNumber(firstName);
+        String secondNumber = getLeadingNumber(secondName);
+        if (!firstNumber.isEmpty() && !secondNumber.isEmpty()) {
+            // the numbers are compared as digits, as they can be longer than a long
+            int result = Integer.compare(firstNumber.length(), secondNumber.length());
+            if (result == 0) {
+                result = firstNumber.compareTo(secondNumber);
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        return firstName.compareTo(secondName);
+    }
+
+    /**
+     * Gets the digits the name starts with without the leading zeros, or an empty string if it does not start with a digit.
+     */
+    private static String getLeadingNumber(String name) {
+        int end = 0;
+        while (end < name.length() && '0' <= name.charAt(end) && name.charAt(end) <= '9') {
+            ++end;
+        }
+        int start = 0;
+        while (start < end - 1 && name.charAt(start) == '0') {
+            ++start;
+        }
+        return name.substring(start, end);
+    }
+
+    private Iterator<Path> list(Path directory) {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.sorted(SortedPaths::compareNames).collect(Collectors.toList()).iterator();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,20 +1,29 @@
 package org.observertc.webrtc.connector.sources.kafka;
 
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Observable;
-import org.apache.kafka.common.utils.Bytes;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+import org.apache.kafka.common.TopicPartition;
 import org.observertc.webrtc.connector.sources.Source;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.observertc.webrtc.connector.sources.SourcePartition;
 import reactor.core.publisher.Flux;
 import reactor.kafka.receiver.KafkaReceiver;
 import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverPartition;
 import reactor.kafka.receiver.ReceiverRecord;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class KafkaSource extends Source {
     private final Properties properties;
     private String topic;
+    private boolean atLeastOnce = false;
+    private boolean partitioned = false;
+    private Duration commitInterval = Duration.ofSeconds(5);
+    private int commitBatchSize = 0;
+    private final PendingOffsets pendingOffsets = new PendingOffsets();
 
     public KafkaSource() {
         this.properties = new Properties();
@@ -22,17 +31,108 @@ public class KafkaSource extends Source {
 
     @Override
     protected Observable<byte[]> makeObservable() {
-        ReceiverOptions<UUID, Bytes> receiverOptions = ReceiverOptions.create(this.properties);
-        ReceiverOptions<UUID, Bytes> subscribedOptions = receiverOptions.subscription(Collections.singleton(this.topic));
-        Flux<ReceiverRecord<UUID, Bytes>> kafkaFlux = KafkaReceiver.create(subscribedOptions).receive();
-
-        return Observable.fromPublisher(kafkaFlux)
-            .map(record -> {
-                record.receiverOffset().acknowledge();
-                return record.value();
-            })
-            .filter(Objects::nonNull)
-            .map(Bytes::get);
+        return Observable.fromPublisher(this.makeFlux(revokedPartitions -> {}))
+            .mapOptional(record -> this.receive(record, this.pendingOffsets));
+    }
+
+    @Override
+    protected Flowable<byte[]> makeFlowable() {
+        // the receiver polls the consumer only as long as there is an outstanding demand
+        return Flowable.fromPublisher(this.makeFlux(revokedPartitions -> {}))
+            .mapOptional(record -> this.receive(record, this.pendingOffsets));
+    }
+
+    /**
+     * Makes a partition for every topic partition assigned to the consumer.
+     * When a partition is revoked, its items are completed and its pending offsets are dropped,
+     * the reports already emitted from the partition are processed, but their offsets are not committed,
+     * hence the new owner of the partition receives them again.
+     */
+    @Override
+    protected Flowable<SourcePartition> makePartitions() {
+        PublishProcessor<TopicPartition> revocations = PublishProcessor.create();
+        Flux<ReceiverRecord<Object, Object>> records = this.makeFlux(revokedPartitions -> {
+            for (ReceiverPartition revokedPartition : revokedPartitions) {
+                logger.info("Partition {} is revoked", revokedPartition.topicPartition());
+                revocations.onNext(revokedPartition.topicPartition());
+            }
+        });
+        return Flowable.fromPublisher(records.groupBy(record -> record.receiverOffset().topicPartition()))
+            .map(group -> {
+                TopicPartition topicPartition = group.key();
+                PendingOffsets partitionOffsets = new PendingOffsets();
+                Flowable<byte[]> items = Flowable.fromPublisher(group)
+                        .takeUntil(revocations.filter(topicPartition::equals))
+                        .doFinally(partitionOffsets::close)
+                        .mapOptional(record -> this.receive(record, partitionOffsets));
+                logger.info("Partition {} is assigned", topicPartition);
+                return new SourcePartition(topicPartition.partition(), items, partitionOffsets::acknowledge);
+            });
+    }
+
+    @Override
+    public boolean requiresAcknowledgement() {
+        return this.atLeastOnce;
+    }
+
+    @Override
+    public boolean isPartitioned() {
+        return this.partitioned;
+    }
+
+    /**
+     * Acknowledges the offsets of the records processed by the pipeline,
+     * which are committed by the receiver in batches according to the commit interval and batch size.
+     */
+    @Override
+    public void acknowledge(long sequence) {
+        this.pendingOffsets.acknowledge(sequence);
+    }
+
+    private Optional<byte[]> receive(ReceiverRecord<Object, Object> record, PendingOffsets offsets) {
+        Object value = record.value();
+        if (!this.atLeastOnce) {
+            record.receiverOffset().acknowledge();
+        } else {
+            offsets.add(record.receiverOffset(), Objects.nonNull(value));
+        }
+        if (Objects.isNull(value)) {
+            return Optional.empty();
+        }
+        return Optional.of(RecordValues.toBytes(value));
+    }
+
+    private Flux<ReceiverRecord<Object, Object>> makeFlux(Consumer<Collection<ReceiverPartition>> revokeListener) {
+        ReceiverOptions<Object, Object> receiverOptions = ReceiverOptions.create(this.properties);
+        if (this.atLeastOnce) {
+            receiverOptions = receiverOptions
+                    .commitInterval(this.commitInterval)
+                    .commitBatchSize(this.commitBatchSize);
+        }
+        ReceiverOptions<Object, Object> subscribedOptions = receiverOptions
+                .addRevokeListener(revokeListener)
+                .subscription(Collections.singleton(this.topic));
+        return KafkaReceiver.create(subscribedOptions).receive();
+    }
+
+    KafkaSource withAtLeastOnce(boolean value) {
+        this.atLeastOnce = value;
+        return this;
+    }
+
+    KafkaSource withPartitioned(boolean value) {
+        this.partitioned = value;
+        return this;
+    }
+
+    KafkaSource withCommitInterval(Duration commitInterval) {
+        this.commitInterval = commitInterval;
+        return this;
+    }
+
+    KafkaSource withCommitBatchSize(int commitBatchSize) {
+        this.commitBatchSize = commitBatchSize;
+        return this;
     }
 
     KafkaSource withProperty(String key, Object value) {
@@ -2,6 +2,7 @@ package org.observertc.webrtc.connector.sources.kafka;
 
 import io.micronaut.context.annotation.Prototype;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteBufferDeserializer;
 import org.apache.kafka.common.serialization.BytesDeserializer;
 import org.apache.kafka.common.serialization.UUIDDeserializer;
 import org.observertc.webrtc.connector.configbuilders.AbstractBuilder;
@@ -11,7 +12,9 @@ import org.observertc.webrtc.connector.sources.Source;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
@@ -27,14 +30,18 @@ public class KafkaSourceBuilder extends AbstractBuilder implements Builder<Sourc
         Config config = this.convertAndValidate(Config.class);
         KafkaSource result = new KafkaSource();
         Map<String, Object> flattenedProperties = ConfigConverter.flatten(config.properties, ".");
-        this.evaluateProperties(this.sourceName, flattenedProperties);
+        this.evaluateProperties(this.sourceName, flattenedProperties, config.zeroCopy);
         flattenedProperties.entrySet().stream().forEach(entry -> result.withProperty(entry.getKey(), entry.getValue()));
 
-        result.forTopic(config.topic);
+        result.forTopic(config.topic)
+                .withAtLeastOnce(config.atLeastOnce)
+                .withPartitioned(config.partitioned)
+                .withCommitInterval(Duration.ofMillis(config.commitIntervalInMs))
+                .withCommitBatchSize(config.commitBatchSize);
         return result;
     }
 
-    private void evaluateProperties(String name, Map<String, Object> flattenedMap) {
+    private void evaluateProperties(String name, Map<String, Object> flattenedMap, boolean zeroCopy) {
         BiConsumer<String, Object> check = (property, defaultValue)->  {
             Object value = flattenedMap.get(property);
             if (Objects.isNull(value)) {
@@ -45,8 +52,13 @@ public class KafkaSourceBuilder extends AbstractBuilder implements Builder<Sourc
         };
         check.accept(ConsumerConfig.CLIENT_ID_CONFIG, KafkaSource.class.getSimpleName() + new Random().nextInt(10000));
         check.accept(ConsumerConfig.GROUP_ID_CONFIG, KafkaSource.class.getSimpleName());
-        check.accept(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, UUIDDeserializer.class);
-        check.accept(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, BytesDeserializer.class);
+        if (zeroCopy) {
+            check.accept(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, SkippingDeserializer.class);
+            check.accept(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteBufferDeserializer.class);
+        } else {
+            check.accept(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, UUIDDeserializer.class);
+            check.accept(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, BytesDeserializer.class);
+        }
         check.accept(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
     }
 
@@ -62,6 +74,31 @@ public class KafkaSourceBuilder extends AbstractBuilder implements Builder<Sourc
 
         @NotNull
         public String topic;
+
+        /**
+         * If it is true, offsets are committed only after the reports are written by the sink
+         */
+        public boolean atLeastOnce = false;
+
+        @Min(1)
+        public int commitIntervalInMs = 5000;
+
+        /**
+         * The number of acknowledged records triggering a commit, 0 means commits are triggered by the interval only
+         */
+        @Min(0)
+        public int commitBatchSize = 0;
+
+        /**
+         * If it is true, the records of every assigned partition are processed on their own rail
+         */
+        public boolean partitioned = false;
+
+        /**
+         * If it is true, keys are not deserialized and values are handed over
+         * to the decoder in the array the consumer fetched them into
+         */
+        public boolean zeroCopy = false;
     }
 
 }
@@ -0,0 +1,52 @@
+package org.observertc.webrtc.connector.sources.kafka;
+
+import reactor.kafka.receiver.ReceiverOffset;
+
+import java.util.LinkedList;
+import java.util.Queue;
+
+/**
+ * Holds the offsets of the received records until the items emitted from them are acknowledged.
+ *
+ * <p>Records without value are not emitted, their offsets are acknowledged together with the previous record.
+ * After it is closed (i.e.: the partition is revoked) the pending offsets are dropped
+ * and acknowledgements are ignored, so the records are received again by the new owner of the partition.
+ */
+class PendingOffsets {
+
+    private static class PendingOffset {
+        final long sequence;
+        final ReceiverOffset offset;
+
+        private PendingOffset(long sequence, ReceiverOffset offset) {
+            this.sequence = sequence;
+            this.offset = offset;
+        }
+    }
+
+    private final Queue<PendingOffset> offsets = new LinkedList<>();
+    private long emitted = 0;
+    private boolean closed = false;
+
+    synchronized void add(ReceiverOffset offset, boolean emitting) {
+        if (this.closed) {
+            return;
+        }
+        long sequence = emitting ? this.emitted++ : this.emitted - 1;
+        this.offsets.add(new PendingOffset(sequence, offset));
+    }
+
+    synchronized void acknowledge(long sequence) {
+        if (this.closed) {
+            return;
+        }
+        while (!this.offsets.isEmpty() && this.offsets.peek().sequence <= sequence) {
+            this.offsets.poll().offset.acknowledge();
+        }
+    }
+
+    synchronized void close() {
+        this.closed = true;
+        this.offsets.clear();
+    }
+}
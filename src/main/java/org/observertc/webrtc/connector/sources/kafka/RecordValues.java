@@ -0,0 +1,44 @@
+package org.observertc.webrtc.connector.sources.kafka;
+
+import org.apache.kafka.common.utils.Bytes;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Gives the bytes of the record values deserialized by
+ * {@link org.apache.kafka.common.serialization.ByteBufferDeserializer},
+ * {@link org.apache.kafka.common.serialization.BytesDeserializer} or
+ * {@link org.apache.kafka.common.serialization.ByteArrayDeserializer}
+ * without copying them if it is possible.
+ */
+class RecordValues {
+
+    private RecordValues() {
+
+    }
+
+    static byte[] toBytes(Object value) {
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        if (value instanceof ByteBuffer) {
+            return toBytes((ByteBuffer) value);
+        }
+        if (value instanceof Bytes) {
+            return ((Bytes) value).get();
+        }
+        throw new IllegalStateException("Records with value type " + value.getClass().getName() +
+                " cannot be received, use a deserializer providing bytes");
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        // ByteBufferDeserializer wraps the array the consumer fetched the value into
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 &&
+                buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] result = new byte[buffer.remaining()];
+        buffer.duplicate().get(result);
+        return result;
+    }
+}
@@ -0,0 +1,15 @@
+package org.observertc.webrtc.connector.sources.kafka;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Deserializer for the keys of the records, which are not used by the {@link KafkaSource},
+ * hence it does not read the bytes and does not allocate anything.
+ */
+public class SkippingDeserializer implements Deserializer<Object> {
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return null;
+    }
+}
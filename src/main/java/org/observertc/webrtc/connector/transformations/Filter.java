@@ -22,11 +22,21 @@ public class Filter extends Transformation {
 
     @Override
     protected Optional<Report> transform(Report report) throws Throwable {
+        if (!this.matches(report)) {
+            return Optional.empty();
+        }
+        return Optional.of(report);
+    }
+
+    /**
+     * Tests the report by every predicate of the filter.
+     */
+    public boolean matches(Report report) throws Throwable {
         for (Predicate<Report> predicate : this.filters) {
             if (!predicate.test(report)) {
-                return Optional.empty();
+                return false;
             }
         }
-        return Optional.of(report);
+        return true;
     }
 }
@@ -0,0 +1,89 @@
+package org.observertc.webrtc.connector.decoders;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Compares the reports decoded per second and the bytes allocated per decoded report
+ * by the static decoder of the reports and by the {@link AvroDecoder}.
+ * Runs only if the benchmark system property is true (e.g.: -Dbenchmark=true).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class AvroDecoderBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(AvroDecoderBenchmarkTest.class);
+    private static final int REPORTS_NUM = 10000;
+    private static final int ITERATIONS = 50;
+    private static final int ROUNDS = 3;
+
+    private interface Decoding {
+        Report decode(ByteBuffer buffer) throws IOException;
+    }
+
+    @Test
+    public void shouldCompareDecodings() throws IOException {
+        // Given
+        ReportGenerator generator = new ReportGenerator();
+        List<Supplier<Report>> suppliers = List.of(
+                generator.initiatedCallReportSupplier(),
+                generator.finishedCallReportSupplier(),
+                generator.joinedPeerConnectionReportSupplier()
+        );
+        List<byte[]> encodedReports = new ArrayList<>();
+        for (int i = 0; i < REPORTS_NUM; ++i) {
+            encodedReports.add(suppliers.get(i % suppliers.size()).get().toByteBuffer().array());
+        }
+        AvroDecoder avroDecoder = new AvroDecoder();
+        Report reuse = new Report();
+        Map<String, Decoding> decodings = Map.of(
+                "Report.fromByteBuffer", Report::fromByteBuffer,
+                "AvroDecoder", avroDecoder::decode,
+                "AvroDecoder reusing reports", buffer -> avroDecoder.decode(buffer, reuse)
+        );
+
+        for (int round = 1; round <= ROUNDS; ++round) {
+            for (Map.Entry<String, Decoding> entry : decodings.entrySet()) {
+                // When
+                Decoding decoding = entry.getValue();
+                long allocatedBefore = this.getAllocatedBytes();
+                long started = System.nanoTime();
+                long decoded = 0;
+                for (int iteration = 0; iteration < ITERATIONS; ++iteration) {
+                    for (byte[] encoded : encodedReports) {
+                        if (decoding.decode(ByteBuffer.wrap(encoded)) != null) {
+                            ++decoded;
+                        }
+                    }
+                }
+                long elapsed = System.nanoTime() - started;
+                long allocated = this.getAllocatedBytes() - allocatedBefore;
+
+                // Then
+                Assertions.assertEquals((long) REPORTS_NUM * ITERATIONS, decoded);
+                logger.info("{} round {}: {} reports/s, {} bytes allocated per report", entry.getKey(), round,
+                        decoded * 1000000000L / Math.max(1, elapsed),
+                        allocated < 0 ? "n/a" : String.format("%.1f", (double) allocated / decoded));
+            }
+        }
+    }
+
+    private long getAllocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -3,10 +3,12 @@ package org.observertc.webrtc.connector.decoders;
 import io.reactivex.rxjava3.core.Observable;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.observertc.webrtc.connector.ReportGenerator;
 import org.observertc.webrtc.schemas.reports.Report;
 import org.observertc.webrtc.schemas.reports.ReportType;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -40,4 +42,74 @@ class AvroDecoderTest {
         Assertions.assertEquals(subject.getServiceUUID(), report.getServiceUUID());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldDecodeTheRemainingBytesOfByteBuffers() throws IOException {
+        // Given
+        Report report = Report.newBuilder()
+                .setVersion(1)
+                .setServiceUUID(UUID.randomUUID().toString())
+                .setServiceName("serviceName")
+                .setType(ReportType.INITIATED_CALL)
+                .setTimestamp(1234L)
+                .build();
+        byte[] encoded = report.toByteBuffer().array();
+        ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 3);
+        buffer.put(new byte[3]).put(encoded).position(3);
+
+        // When
+        Report subject = new AvroDecoder().decode(buffer);
+
+        // Then
+        Assertions.assertEquals(report, subject);
+        Assertions.assertEquals(3, buffer.position());
+    }
+
+    @Test
+    public void shouldDecodeIntoReusedReports() throws IOException {
+        // Given
+        ReportGenerator generator = new ReportGenerator();
+        Report initiatedCall = generator.initiatedCallReportSupplier().get();
+        Report finishedCall = generator.finishedCallReportSupplier().get();
+        AvroDecoder decoder = new AvroDecoder();
+        Report reuse = new Report();
+
+        // When
+        Report first = decoder.decode(initiatedCall.toByteBuffer(), reuse);
+        Assertions.assertEquals(initiatedCall, first);
+        Report second = decoder.decode(finishedCall.toByteBuffer(), reuse);
+
+        // Then
+        Assertions.assertSame(reuse, first);
+        Assertions.assertSame(reuse, second);
+        Assertions.assertEquals(finishedCall, second);
+    }
+
+    @Test
+    public void shouldDecodeDirectByteBuffers() throws IOException {
+        // Given
+        Report report = new ReportGenerator().joinedPeerConnectionReportSupplier().get();
+        byte[] encoded = report.toByteBuffer().array();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length);
+        buffer.put(encoded).flip();
+
+        // When
+        Report subject = new AvroDecoder().decode(buffer);
+
+        // Then
+        Assertions.assertEquals(report, subject);
+    }
+
+    @Test
+    public void shouldNotDecodeMessagesOfUnknownSchemas() throws IOException {
+        // Given
+        byte[] encoded = new ReportGenerator().initiatedCallReportSupplier().get().toByteBuffer().array();
+        // the last byte of the fingerprint is changed
+        encoded[9] = (byte) (encoded[9] + 1);
+
+        // When
+        Report subject = new AvroDecoder().decode(encoded);
+
+        // Then
+        Assertions.assertNull(subject);
+    }
+}
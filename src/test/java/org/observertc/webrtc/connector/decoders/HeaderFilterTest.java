@@ -0,0 +1,110 @@
+package org.observertc.webrtc.connector.decoders;
+
+import io.reactivex.rxjava3.core.Observable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.observertc.webrtc.schemas.reports.ReportType;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class HeaderFilterTest {
+
+    static ReportGenerator generator = new ReportGenerator();
+
+    @Test
+    public void shouldDropReportsByTheirTypesBeforeDecoding() throws IOException {
+        // Given
+        HeaderFilterBuilder builder = new HeaderFilterBuilder();
+        builder.withConfiguration(Map.of("reportType", Map.of("including", List.of(ReportType.FINISHED_CALL.name()))));
+        HeaderFilter headerFilter = builder.build();
+
+        // When
+        List<Report> reports = Observable.fromArray(
+                generator.initiatedCallReportSupplier().get().toByteBuffer().array(),
+                generator.finishedCallReportSupplier().get().toByteBuffer().array(),
+                generator.joinedPeerConnectionReportSupplier().get().toByteBuffer().array())
+                .lift(headerFilter)
+                .lift(new AvroDecoder())
+                .toList()
+                .blockingGet();
+
+        // Then
+        Assertions.assertEquals(List.of(ReportType.FINISHED_CALL),
+                reports.stream().map(Report::getType).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldDropReportsByTheirMarkers() throws Throwable {
+        // Given
+        HeaderFilterBuilder builder = new HeaderFilterBuilder();
+        builder.withConfiguration(Map.of("marker", Map.of("excluding", List.of("marker"))));
+        HeaderFilter headerFilter = builder.build();
+        Report marked = generator.finishedCallReportSupplier().get();
+        Report notMarked = Report.newBuilder(marked).setMarker(null).setServiceName(null).build();
+
+        // When
+        boolean markedMatches = headerFilter.matches(marked.toByteBuffer().array());
+        boolean notMarkedMatches = headerFilter.matches(notMarked.toByteBuffer().array());
+
+        // Then
+        Assertions.assertFalse(markedMatches);
+        // null values are not allowed by the filter, the same way as by the Filter transformation
+        Assertions.assertFalse(notMarkedMatches);
+    }
+
+    @Test
+    public void shouldPassMalformedMessagesToTheDecoder() throws IOException {
+        // Given
+        HeaderFilterBuilder builder = new HeaderFilterBuilder();
+        builder.withConfiguration(Map.of("reportType", Map.of("including", List.of(ReportType.FINISHED_CALL.name()))));
+        HeaderFilter headerFilter = builder.build();
+        Report finishedCall = generator.finishedCallReportSupplier().get();
+        byte[] malformed = Arrays.copyOf(finishedCall.toByteBuffer().array(), SingleObjectHeader.LENGTH + 2);
+        // version 0, and the serviceUUID of length -1 (zig-zag encoded)
+        malformed[SingleObjectHeader.LENGTH] = 0x00;
+        malformed[SingleObjectHeader.LENGTH + 1] = 0x01;
+
+        // When
+        List<Report> reports = Observable.fromArray(malformed, finishedCall.toByteBuffer().array())
+                .lift(headerFilter)
+                .lift(new AvroDecoder())
+                .toList()
+                .blockingGet();
+
+        // Then
+        Assertions.assertEquals(List.of(finishedCall), reports);
+    }
+
+    @Test
+    public void shouldPassMessagesWithUnknownHeaders() throws Throwable {
+        // Given
+        HeaderFilterBuilder builder = new HeaderFilterBuilder();
+        builder.withConfiguration(Map.of("reportType", Map.of("including", List.of(ReportType.FINISHED_CALL.name()))));
+        HeaderFilter headerFilter = builder.build();
+
+        // When
+        boolean matches = headerFilter.matches(new byte[]{1, 2, 3});
+
+        // Then
+        Assertions.assertTrue(matches);
+    }
+
+    @Test
+    public void shouldNotBeBuiltToFilterByCallNames() {
+        // Given
+        HeaderFilterBuilder builder = new HeaderFilterBuilder();
+        builder.withConfiguration(Map.of("nullableCallNames", false));
+
+        // When
+        HeaderFilter headerFilter = builder.build();
+
+        // Then
+        Assertions.assertNull(headerFilter);
+    }
+}
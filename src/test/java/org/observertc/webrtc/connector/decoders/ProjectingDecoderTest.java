@@ -0,0 +1,72 @@
+package org.observertc.webrtc.connector.decoders;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.schemas.reports.FinishedCall;
+import org.observertc.webrtc.schemas.reports.JoinedPeerConnection;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.observertc.webrtc.schemas.reports.ReportType;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+class ProjectingDecoderTest {
+
+    @Test
+    public void shouldDecodeOnlyTheGivenPayloadFields() throws IOException {
+        // Given
+        Report report = new ReportGenerator().joinedPeerConnectionReportSupplier("callName").get();
+        JoinedPeerConnection payload = (JoinedPeerConnection) report.getPayload();
+        ProjectingDecoder decoder = new ProjectingDecoder(Map.of(
+                ReportType.JOINED_PEER_CONNECTION, Set.of("peerConnectionUUID", "callName")
+        ));
+
+        // When
+        Report subject = decoder.decode(report.toByteBuffer());
+
+        // Then
+        Assertions.assertEquals(report.getType(), subject.getType());
+        Assertions.assertEquals(report.getMarker(), subject.getMarker());
+        Assertions.assertEquals(report.getTimestamp(), subject.getTimestamp());
+        JoinedPeerConnection projected = (JoinedPeerConnection) subject.getPayload();
+        Assertions.assertEquals(payload.getPeerConnectionUUID(), projected.getPeerConnectionUUID());
+        Assertions.assertEquals(payload.getCallName(), projected.getCallName());
+        Assertions.assertNull(projected.getCallUUID());
+    }
+
+    @Test
+    public void shouldDecodeNotProjectedPayloadsEntirely() throws IOException {
+        // Given
+        Report report = new ReportGenerator().finishedCallReportSupplier().get();
+        ProjectingDecoder decoder = new ProjectingDecoder(Map.of(
+                ReportType.JOINED_PEER_CONNECTION, Set.of("peerConnectionUUID")
+        ));
+
+        // When
+        Report subject = decoder.decode(report.toByteBuffer());
+
+        // Then
+        Assertions.assertEquals(report, subject);
+        Assertions.assertTrue(subject.getPayload() instanceof FinishedCall);
+    }
+
+    @Test
+    public void shouldNotBeBuiltWithUnknownFields() {
+        // Given
+        DecoderBuilder builder = new DecoderBuilder();
+        builder.withConfiguration(Map.of(
+                "type", "ProjectingDecoder",
+                "config", Map.of("payloadFields", Map.of("JOINED_PEER_CONNECTION", List.of("notExistingField")))
+        ));
+
+        // When
+        Optional<Decoder> decoder = builder.build();
+
+        // Then
+        Assertions.assertFalse(decoder.isPresent());
+    }
+}
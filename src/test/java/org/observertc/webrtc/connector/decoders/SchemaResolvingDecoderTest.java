@@ -0,0 +1,120 @@
+package org.observertc.webrtc.connector.decoders;
+
+import io.reactivex.rxjava3.core.Observable;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.avro.specific.SpecificData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.schemas.reports.Report;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class SchemaResolvingDecoderTest {
+
+    /**
+     * A previous version of the report schema, which has no marker.
+     */
+    private static final Schema PREVIOUS_SCHEMA = makePreviousSchema();
+
+    @Test
+    public void shouldDecodeMixedVersions() throws IOException {
+        // Given
+        ReportGenerator generator = new ReportGenerator();
+        Report current = Report.newBuilder(generator.initiatedCallReportSupplier().get())
+                .setMarker("marker")
+                .build();
+        Report previous = Report.newBuilder(generator.finishedCallReportSupplier().get())
+                .setMarker(null)
+                .build();
+        SchemaResolvingDecoder decoder = new SchemaResolvingDecoder()
+                .withWriterSchema(PREVIOUS_SCHEMA);
+
+        // When
+        List<Report> decoded = Observable.fromArray(
+                current.toByteBuffer().array(),
+                encodeByPreviousSchema(previous),
+                current.toByteBuffer().array())
+                .lift(decoder)
+                .toList()
+                .blockingGet();
+
+        // Then
+        Assertions.assertEquals(List.of(current, previous, current), decoded);
+    }
+
+    @Test
+    public void shouldDropMessagesOfUnknownSchemas() throws IOException {
+        // Given
+        Report previous = new ReportGenerator().finishedCallReportSupplier().get();
+        SchemaResolvingDecoder decoder = new SchemaResolvingDecoder();
+
+        // When
+        Report subject = decoder.decode(encodeByPreviousSchema(previous));
+
+        // Then
+        Assertions.assertNull(subject);
+    }
+
+    @Test
+    public void shouldCountMessagesOfUnknownSchemas() throws IOException {
+        // Given
+        byte[] message = encodeByPreviousSchema(new ReportGenerator().finishedCallReportSupplier().get());
+        SchemaResolvingDecoder decoder = new SchemaResolvingDecoder();
+
+        // When
+        decoder.decode(message);
+        decoder.decode(message);
+
+        // Then
+        Assertions.assertEquals(2, decoder.getUnknownSchemaMessages());
+    }
+
+    @Test
+    public void shouldBeBuiltWithTheGivenWriterSchemas(@TempDir Path directory) throws IOException {
+        // Given
+        Files.writeString(directory.resolve("report-v0.avsc"), PREVIOUS_SCHEMA.toString());
+        Report previous = Report.newBuilder(new ReportGenerator().finishedCallReportSupplier().get())
+                .setMarker(null)
+                .build();
+        DecoderBuilder builder = new DecoderBuilder();
+        builder.withConfiguration(Map.of(
+                "type", "SchemaResolvingDecoder",
+                "config", Map.of("writerSchemas", List.of(directory.toString()))
+        ));
+
+        // When
+        Decoder decoder = builder.build().get();
+
+        // Then
+        Assertions.assertTrue(decoder instanceof SchemaResolvingDecoder);
+        Assertions.assertEquals(previous, ((SchemaResolvingDecoder) decoder).decode(encodeByPreviousSchema(previous)));
+    }
+
+    private static byte[] encodeByPreviousSchema(Report report) throws IOException {
+        GenericData.Record record = new GenericData.Record(PREVIOUS_SCHEMA);
+        for (Schema.Field field : PREVIOUS_SCHEMA.getFields()) {
+            record.put(field.name(), report.get(field.name()));
+        }
+        return new BinaryMessageEncoder<GenericData.Record>(SpecificData.get(), PREVIOUS_SCHEMA)
+                .encode(record)
+                .array();
+    }
+
+    private static Schema makePreviousSchema() {
+        Schema schema = Report.getClassSchema();
+        List<Schema.Field> fields = schema.getFields().stream()
+                .filter(field -> !field.name().equals("marker"))
+                .map(field -> new Schema.Field(field, field.schema()))
+                .collect(Collectors.toList());
+        return Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), false, fields);
+    }
+}
@@ -0,0 +1,76 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.schemas.reports.Report;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class AcknowledgementsTest {
+
+    private static ReportGenerator generator = new ReportGenerator();
+
+    @Test
+    public void shouldAcknowledgeWrittenReports() {
+        // Given
+        ReportSequences sequences = new ReportSequences();
+        List<Long> acknowledged = new ArrayList<>();
+        Acknowledgements acknowledgements = new Acknowledgements(sequences, acknowledged::add);
+        List<Report> reports = this.makeSequencedReports(sequences, 3);
+        reports.forEach(acknowledgements::onBuffered);
+
+        // When
+        acknowledgements.onWritten(reports);
+
+        // Then
+        Assertions.assertEquals(List.of(2L), acknowledged);
+    }
+
+    @Test
+    public void shouldNotAcknowledgeBeyondUnwrittenReports() {
+        // Given
+        ReportSequences sequences = new ReportSequences();
+        List<Long> acknowledged = new ArrayList<>();
+        Acknowledgements acknowledgements = new Acknowledgements(sequences, acknowledged::add);
+        List<Report> reports = this.makeSequencedReports(sequences, 4);
+        reports.forEach(acknowledgements::onBuffered);
+
+        // When
+        acknowledgements.onWritten(List.of(reports.get(0), reports.get(2)));
+        acknowledgements.onWritten(List.of(reports.get(1), reports.get(3)));
+
+        // Then
+        Assertions.assertEquals(List.of(0L, 3L), acknowledged);
+    }
+
+    @Test
+    public void shouldAcknowledgeDroppedReportsWithTheFollowingOnes() {
+        // Given
+        ReportSequences sequences = new ReportSequences();
+        List<Long> acknowledged = new ArrayList<>();
+        Acknowledgements acknowledgements = new Acknowledgements(sequences, acknowledged::add);
+        List<Report> reports = this.makeSequencedReports(sequences, 3);
+        // the report with sequence 1 is dropped before the buffer
+        sequences.remove(reports.get(1));
+        acknowledgements.onBuffered(reports.get(0));
+        acknowledgements.onBuffered(reports.get(2));
+
+        // When
+        acknowledgements.onWritten(List.of(reports.get(0), reports.get(2)));
+
+        // Then
+        Assertions.assertEquals(List.of(2L), acknowledged);
+    }
+
+    private List<Report> makeSequencedReports(ReportSequences sequences, int number) {
+        List<Report> result = new ArrayList<>();
+        for (long sequence = 0; sequence < number; ++sequence) {
+            Report report = generator.initiatedCallReportSupplier().get();
+            sequences.put(report, sequence);
+            result.add(report);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveBatchSizeTest {
+
+    @Test
+    public void shouldGrowIfFullBatchesAreFlushedFast() {
+        // Given
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(100, 1000, 1000);
+
+        // When
+        batchSize.onFlushed(100, 10, BatchCloseReason.MaxItems);
+
+        // Then
+        Assertions.assertTrue(100 < batchSize.getAsInt());
+    }
+
+    @Test
+    public void shouldNotGrowIfBatchesAreNotFull() {
+        // Given
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(100, 1000, 1000);
+
+        // When
+        batchSize.onFlushed(10, 1, BatchCloseReason.MaxWaitingTime);
+
+        // Then
+        Assertions.assertEquals(100, batchSize.getAsInt());
+    }
+
+    @Test
+    public void shouldGrowIfBatchesClosedByTheirSizeAreFlushedFast() {
+        // Given
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(100, 1000, 1000);
+
+        // When
+        batchSize.onFlushed(10, 1, BatchCloseReason.MaxBytes);
+
+        // Then
+        Assertions.assertTrue(100 < batchSize.getAsInt());
+    }
+
+    @Test
+    public void shouldNotGrowIfBatchesAreClosedByTheEndOfTheInput() {
+        // Given
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(100, 1000, 1000);
+
+        // When
+        batchSize.onFlushed(100, 1, BatchCloseReason.Completed);
+
+        // Then
+        Assertions.assertEquals(100, batchSize.getAsInt());
+    }
+
+    @Test
+    public void shouldShrinkIfBatchesAreFlushedSlowly() {
+        // Given
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(100, 1000, 1000);
+        for (int i = 0; i < 10; ++i) {
+            batchSize.onFlushed(batchSize.getAsInt(), 1, BatchCloseReason.MaxItems);
+        }
+        int grown = batchSize.getAsInt();
+
+        // When
+        batchSize.onFlushed(grown, 4000, BatchCloseReason.MaxItems);
+
+        // Then
+        Assertions.assertEquals(1000, grown);
+        Assertions.assertTrue(batchSize.getAsInt() < grown);
+    }
+
+    @Test
+    public void shouldKeepTheLowerBound() {
+        // Given
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(100, 1000, 1000);
+
+        // When
+        batchSize.onFlushed(100, 100000, BatchCloseReason.MaxItems);
+
+        // Then
+        Assertions.assertEquals(100, batchSize.getAsInt());
+    }
+}
@@ -0,0 +1,163 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.processors.UnicastProcessor;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class BatchingOperatorTest {
+
+    @Test
+    public void shouldBatchByNumberOfItems() {
+        // Given
+        BatchingOperator<Integer> operator = new BatchingOperator<>(3, 0, 128);
+
+        // When
+        TestSubscriber<List<Integer>> subscriber = Flowable.range(0, 7)
+                .lift(operator)
+                .test();
+
+        // Then
+        subscriber.assertValues(List.of(0, 1, 2), List.of(3, 4, 5), List.of(6));
+        subscriber.assertComplete();
+    }
+
+    @Test
+    public void shouldBatchBySizeOfItems() {
+        // Given
+        BatchingOperator<Integer> operator = new BatchingOperator<Integer>(100, 0, 128)
+                .withMaxBytes(10, item -> item);
+
+        // When
+        TestSubscriber<List<Integer>> subscriber = Flowable.just(4, 5, 3, 20, 1)
+                .lift(operator)
+                .test();
+
+        // Then
+        subscriber.assertValues(List.of(4, 5), List.of(3), List.of(20), List.of(1));
+        subscriber.assertComplete();
+    }
+
+    @Test
+    public void shouldBatchByPartitions() {
+        // Given
+        BatchingOperator<Integer> operator = new BatchingOperator<Integer>(2, 0, 128)
+                .withPartitions(item -> item % 2);
+
+        // When
+        TestSubscriber<List<Integer>> subscriber = Flowable.just(1, 2, 3, 5, 4)
+                .lift(operator)
+                .test();
+
+        // Then
+        subscriber.assertValues(List.of(1, 3), List.of(2, 4), List.of(5));
+        subscriber.assertComplete();
+    }
+
+    @Test
+    public void shouldBatchPartitionsByElapsedTime() {
+        // Given
+        TestScheduler scheduler = new TestScheduler();
+        BatchingOperator<Integer> operator = new BatchingOperator<Integer>(100, 1000, 128, scheduler)
+                .withPartitions(item -> item % 2);
+
+        // When
+        TestSubscriber<List<Integer>> subscriber = Flowable.<Integer>never()
+                .startWithArray(1, 2, 3)
+                .lift(operator)
+                .test();
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        // Then
+        subscriber.assertValues(List.of(1, 3), List.of(2));
+        subscriber.assertNotComplete();
+    }
+
+    @Test
+    public void shouldBatchByElapsedTime() {
+        // Given
+        TestScheduler scheduler = new TestScheduler();
+        BatchingOperator<Integer> operator = new BatchingOperator<>(100, 1000, 128, scheduler);
+
+        // When
+        TestSubscriber<List<Integer>> subscriber = Flowable.<Integer>never()
+                .startWithArray(1, 2)
+                .lift(operator)
+                .test();
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        // Then
+        subscriber.assertValues(List.of(1, 2));
+        subscriber.assertNotComplete();
+        Assertions.assertEquals(BatchCloseReason.MaxWaitingTime, ((BatchingOperator.ClosedBatch<Integer>) subscriber.values().get(0)).getCloseReason());
+    }
+
+    @Test
+    public void shouldTellTheReasonTheBatchesWereClosed() {
+        // Given
+        BatchingOperator<Integer> operator = new BatchingOperator<Integer>(3, 0, 128)
+                .withMaxBytes(10, item -> item);
+
+        // When
+        TestSubscriber<List<Integer>> subscriber = Flowable.just(4, 5, 3, 1, 1, 2)
+                .lift(operator)
+                .test();
+
+        // Then
+        subscriber.assertValues(List.of(4, 5), List.of(3, 1, 1), List.of(2));
+        Assertions.assertEquals(BatchCloseReason.MaxBytes, ((BatchingOperator.ClosedBatch<Integer>) subscriber.values().get(0)).getCloseReason());
+        Assertions.assertEquals(BatchCloseReason.MaxItems, ((BatchingOperator.ClosedBatch<Integer>) subscriber.values().get(1)).getCloseReason());
+        Assertions.assertEquals(BatchCloseReason.Completed, ((BatchingOperator.ClosedBatch<Integer>) subscriber.values().get(2)).getCloseReason());
+    }
+
+    @Test
+    public void shouldNotRequestMoreThanTwoBatchesWithoutDemand() {
+        // Given
+        AtomicLong requested = new AtomicLong(0);
+        BatchingOperator<Integer> operator = new BatchingOperator<>(10, 0, 4);
+
+        // When
+        TestSubscriber<List<Integer>> subscriber = Flowable.range(0, 1000)
+                .doOnRequest(requested::addAndGet)
+                .lift(operator)
+                .test(0);
+
+        // Then
+        subscriber.assertNoValues();
+        Assertions.assertTrue(requested.get() <= 20);
+
+        // When
+        subscriber.request(1);
+
+        // Then
+        subscriber.assertValueCount(1);
+        Assertions.assertTrue(requested.get() <= 30);
+    }
+
+    @Test
+    public void shouldCloseTheOpenBatchIfMaxItemsShrinksBelowItsSize() {
+        // Given
+        AtomicInteger maxItems = new AtomicInteger(4);
+        BatchingOperator<Integer> operator = new BatchingOperator<Integer>(4, 0, 4)
+                .withMaxItems(maxItems::get)
+                .withMaxBytes(10, item -> item);
+        UnicastProcessor<Integer> upstream = UnicastProcessor.create();
+        TestSubscriber<List<Integer>> subscriber = upstream.lift(operator).test(0);
+        // the second item exceeds the bytes, so the first batch waits for the demand and the second one is open
+        List.of(6, 6, 1, 1).forEach(upstream::onNext);
+
+        // When
+        maxItems.set(2);
+        subscriber.request(10);
+
+        // Then
+        subscriber.assertValues(List.of(6), List.of(6, 1, 1));
+    }
+}
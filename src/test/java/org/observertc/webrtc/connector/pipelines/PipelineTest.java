@@ -0,0 +1,643 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Observable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.connector.decoders.AvroDecoder;
+import org.observertc.webrtc.connector.decoders.HeaderFilterBuilder;
+import org.observertc.webrtc.connector.sinks.Sink;
+import org.observertc.webrtc.connector.sources.Source;
+import org.observertc.webrtc.connector.sources.SourcePartition;
+import org.observertc.webrtc.connector.transformations.Transformation;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.observertc.webrtc.schemas.reports.ReportType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+class PipelineTest {
+
+    private static ReportGenerator generator = new ReportGenerator();
+
+    @Test
+    public void shouldDeliverReportsToSink() throws IOException {
+        // Given
+        List<List<Report>> batches = new ArrayList<>();
+        Pipeline pipeline = this.makePipeline(10, batches);
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(10, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    public void shouldDeliverReportsToSinkWithBackpressure() throws IOException {
+        // Given
+        List<List<Report>> batches = new ArrayList<>();
+        BackpressureConfig backpressureConfig = new BackpressureConfig();
+        backpressureConfig.enabled = true;
+        Pipeline pipeline = this.makePipeline(10, batches)
+                .withBackpressure(backpressureConfig);
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(3, batches.size());
+        Assertions.assertEquals(10, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    public void shouldDeliverReportsToSinkOnStageSchedulers() throws IOException {
+        // Given
+        List<List<Report>> batches = Collections.synchronizedList(new ArrayList<>());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Pipeline pipeline = this.makePipeline(10, batches)
+                .withStages(this.makeStagesConfig())
+                .withMeterRegistry(meterRegistry);
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(10, batches.stream().mapToInt(List::size).sum());
+        Assertions.assertTrue(meterRegistry.find(Pipeline.STAGE_QUEUE_DEPTH_METRIC_NAME).gauges().isEmpty());
+    }
+
+    @Test
+    public void shouldDeliverReportsToSinkOnStageSchedulersWithBackpressure() throws IOException {
+        // Given
+        List<List<Report>> batches = Collections.synchronizedList(new ArrayList<>());
+        BackpressureConfig backpressureConfig = new BackpressureConfig();
+        backpressureConfig.enabled = true;
+        Pipeline pipeline = this.makePipeline(10, batches)
+                .withBackpressure(backpressureConfig)
+                .withStages(this.makeStagesConfig());
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(3, batches.size());
+        Assertions.assertEquals(10, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    public void shouldDeliverReportsToSinkOnParallelRails() throws IOException {
+        // Given
+        List<List<Report>> batches = Collections.synchronizedList(new ArrayList<>());
+        Set<Integer> usedRails = ConcurrentHashMap.newKeySet();
+        Pipeline pipeline = this.makeParallelPipeline(100, batches, usedRails, false);
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(100, batches.stream().mapToInt(List::size).sum());
+        Assertions.assertTrue(1 < usedRails.size());
+    }
+
+    @Test
+    public void shouldDeliverReportsToSinkOnParallelRailsWithBackpressure() throws IOException {
+        // Given
+        List<List<Report>> batches = Collections.synchronizedList(new ArrayList<>());
+        Set<Integer> usedRails = ConcurrentHashMap.newKeySet();
+        Pipeline pipeline = this.makeParallelPipeline(100, batches, usedRails, true);
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(100, batches.stream().mapToInt(List::size).sum());
+        Assertions.assertTrue(1 < usedRails.size());
+    }
+
+    private Pipeline makeParallelPipeline(int numberOfReports, List<List<Report>> batches, Set<Integer> usedRails, boolean backpressure) throws IOException {
+        BackpressureConfig backpressureConfig = new BackpressureConfig();
+        backpressureConfig.enabled = backpressure;
+        Pipeline result = this.makePipeline(numberOfReports, batches)
+                .withBackpressure(backpressureConfig)
+                .withParallelism(4);
+        for (int rail = 0; rail < 4; ++rail) {
+            final int railIndex = rail;
+            result.withTransformation(rail, new Transformation() {
+                @Override
+                protected Optional<Report> transform(Report report) {
+                    usedRails.add(railIndex);
+                    return Optional.of(report);
+                }
+            });
+        }
+        return result;
+    }
+
+    @Test
+    public void shouldDeliverReportsToSinkWithAdaptiveBuffer() throws IOException {
+        // Given
+        List<List<Report>> batches = new ArrayList<>();
+        BufferConfig bufferConfig = new BufferConfig();
+        bufferConfig.maxItems = 4;
+        bufferConfig.maxWaitingTimeInMs = 100;
+        bufferConfig.adaptive.enabled = true;
+        bufferConfig.adaptive.minItems = 2;
+        Pipeline pipeline = this.makePipeline(10, batches)
+                .withBuffer(bufferConfig);
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(10, batches.stream().mapToInt(List::size).sum());
+        Assertions.assertTrue(batches.stream().allMatch(batch -> batch.size() <= 4));
+    }
+
+    @Test
+    public void shouldLimitBatchesByBytes() throws IOException {
+        // Given
+        List<List<Report>> batches = new ArrayList<>();
+        BufferConfig bufferConfig = new BufferConfig();
+        bufferConfig.maxItems = 4;
+        bufferConfig.maxWaitingTimeInS = 0;
+        bufferConfig.maxBytes = 1;
+        Pipeline pipeline = this.makePipeline(10, batches)
+                .withBuffer(bufferConfig);
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(10, batches.size());
+    }
+
+    @Test
+    public void shouldBatchByReportTypes() throws IOException {
+        // Given
+        List<List<Report>> batches = new ArrayList<>();
+        BufferConfig bufferConfig = new BufferConfig();
+        bufferConfig.maxItems = 4;
+        bufferConfig.maxWaitingTimeInS = 0;
+        bufferConfig.partitionByReportType = true;
+        List<Report> reports = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            reports.add(generator.initiatedCallReportSupplier().get());
+            reports.add(generator.joinedPeerConnectionReportSupplier().get());
+        }
+        Pipeline pipeline = this.makePipeline(reports, batches)
+                .withBuffer(bufferConfig);
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(4, batches.size());
+        Assertions.assertEquals(10, batches.stream().mapToInt(List::size).sum());
+        Assertions.assertTrue(batches.stream().allMatch(batch -> batch.stream().map(Report::getType).distinct().count() == 1));
+    }
+
+    @Test
+    public void shouldAcknowledgeReportsDroppedByTheHeaderFilter() throws IOException {
+        // Given
+        List<Report> written = Collections.synchronizedList(new ArrayList<>());
+        List<Long> acknowledged = Collections.synchronizedList(new ArrayList<>());
+        List<byte[]> encodedReports = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            Report report = i % 2 == 0 ?
+                    generator.initiatedCallReportSupplier().get() :
+                    generator.finishedCallReportSupplier().get();
+            encodedReports.add(report.toByteBuffer().array());
+        }
+        HeaderFilterBuilder headerFilterBuilder = new HeaderFilterBuilder();
+        headerFilterBuilder.withConfiguration(Map.of("reportType", Map.of("including", List.of(ReportType.FINISHED_CALL.name()))));
+        BufferConfig bufferConfig = new BufferConfig();
+        bufferConfig.maxItems = 2;
+        bufferConfig.maxWaitingTimeInS = 0;
+        Pipeline pipeline = new Pipeline("testPipeline")
+                .withSource(new Source() {
+                    @Override
+                    protected Observable<byte[]> makeObservable() {
+                        return Observable.fromIterable(encodedReports);
+                    }
+
+                    @Override
+                    public boolean requiresAcknowledgement() {
+                        return true;
+                    }
+
+                    @Override
+                    public void acknowledge(long sequence) {
+                        acknowledged.add(sequence);
+                    }
+                })
+                .withHeaderFilter(headerFilterBuilder.build())
+                .withDecoder(new AvroDecoder())
+                .withBuffer(bufferConfig)
+                .withSink(new Sink() {
+                    @Override
+                    public void onNext(List<Report> reports) {
+                        written.addAll(reports);
+                    }
+                });
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(5, written.size());
+        Assertions.assertTrue(written.stream().allMatch(report -> report.getType() == ReportType.FINISHED_CALL));
+        Assertions.assertEquals(List.of(3L, 7L, 9L), acknowledged);
+    }
+
+    @Test
+    public void shouldAcknowledgeWrittenReports() throws IOException {
+        // Given
+        List<List<Report>> batches = new ArrayList<>();
+        List<Long> acknowledged = Collections.synchronizedList(new ArrayList<>());
+        List<byte[]> encodedReports = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            encodedReports.add(generator.initiatedCallReportSupplier().get().toByteBuffer().array());
+        }
+        BufferConfig bufferConfig = new BufferConfig();
+        bufferConfig.maxItems = 4;
+        bufferConfig.maxWaitingTimeInS = 0;
+        Pipeline pipeline = new Pipeline("testPipeline")
+                .withSource(new Source() {
+                    @Override
+                    protected Observable<byte[]> makeObservable() {
+                        return Observable.fromIterable(encodedReports);
+                    }
+
+                    @Override
+                    public boolean requiresAcknowledgement() {
+                        return true;
+                    }
+
+                    @Override
+                    public void acknowledge(long sequence) {
+                        acknowledged.add(sequence);
+                    }
+                })
+                .withDecoder(new AvroDecoder())
+                .withBuffer(bufferConfig)
+                .withSink(new Sink() {
+                    @Override
+                    public void onNext(List<Report> reports) {
+                        batches.add(reports);
+                    }
+                });
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(List.of(3L, 7L, 9L), acknowledged);
+    }
+
+    @Test
+    public void shouldFilterTheReportsOfSourcesEmittingReportsByTheHeaderFilter() {
+        for (boolean backpressure : List.of(false, true)) {
+            // Given
+            List<Report> written = Collections.synchronizedList(new ArrayList<>());
+            List<Long> acknowledged = Collections.synchronizedList(new ArrayList<>());
+            List<Report> reports = new ArrayList<>();
+            for (int i = 0; i < 10; ++i) {
+                reports.add(i % 2 == 0 ?
+                        generator.initiatedCallReportSupplier().get() :
+                        generator.finishedCallReportSupplier().get());
+            }
+            HeaderFilterBuilder headerFilterBuilder = new HeaderFilterBuilder();
+            headerFilterBuilder.withConfiguration(Map.of("reportType", Map.of("including", List.of(ReportType.FINISHED_CALL.name()))));
+            BufferConfig bufferConfig = new BufferConfig();
+            bufferConfig.maxItems = 2;
+            bufferConfig.maxWaitingTimeInS = 0;
+            BackpressureConfig backpressureConfig = new BackpressureConfig();
+            backpressureConfig.enabled = backpressure;
+            Pipeline pipeline = new Pipeline("testPipeline")
+                    .withSource(new Source() {
+                        @Override
+                        protected Observable<byte[]> makeObservable() {
+                            return Observable.error(new IllegalStateException("Reports must not be encoded"));
+                        }
+
+                        @Override
+                        public boolean emitsReports() {
+                            return true;
+                        }
+
+                        @Override
+                        protected Flowable<Report> makeReports() {
+                            return Flowable.fromIterable(reports);
+                        }
+
+                        @Override
+                        public boolean requiresAcknowledgement() {
+                            return true;
+                        }
+
+                        @Override
+                        public void acknowledge(long sequence) {
+                            acknowledged.add(sequence);
+                        }
+                    })
+                    .withHeaderFilter(headerFilterBuilder.build())
+                    .withBuffer(bufferConfig)
+                    .withBackpressure(backpressureConfig)
+                    .withSink(new Sink() {
+                        @Override
+                        public void onNext(List<Report> reports) {
+                            written.addAll(reports);
+                        }
+                    });
+
+            // When
+            pipeline.run();
+
+            // Then
+            Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+            Assertions.assertEquals(5, written.size());
+            Assertions.assertTrue(written.stream().allMatch(report -> report.getType() == ReportType.FINISHED_CALL));
+            // dropped reports following a written batch may be acknowledged together with the batch
+            Assertions.assertEquals(9L, acknowledged.get(acknowledged.size() - 1));
+        }
+    }
+
+    @Test
+    public void shouldAcknowledgeTheLastReportsDroppedByTransformations() {
+        for (boolean backpressure : List.of(false, true)) {
+            // Given
+            List<Long> acknowledged = Collections.synchronizedList(new ArrayList<>());
+            List<Report> reports = new ArrayList<>();
+            for (int i = 0; i < 10; ++i) {
+                reports.add(generator.initiatedCallReportSupplier().get());
+            }
+            Set<Report> dropped = Set.copyOf(reports.subList(7, 10));
+            BufferConfig bufferConfig = new BufferConfig();
+            bufferConfig.maxItems = 2;
+            bufferConfig.maxWaitingTimeInS = 0;
+            BackpressureConfig backpressureConfig = new BackpressureConfig();
+            backpressureConfig.enabled = backpressure;
+            Pipeline pipeline = new Pipeline("testPipeline")
+                    .withSource(new Source() {
+                        @Override
+                        protected Observable<byte[]> makeObservable() {
+                            return Observable.error(new IllegalStateException("Reports must not be encoded"));
+                        }
+
+                        @Override
+                        public boolean emitsReports() {
+                            return true;
+                        }
+
+                        @Override
+                        protected Flowable<Report> makeReports() {
+                            return Flowable.fromIterable(reports);
+                        }
+
+                        @Override
+                        public boolean requiresAcknowledgement() {
+                            return true;
+                        }
+
+                        @Override
+                        public void acknowledge(long sequence) {
+                            acknowledged.add(sequence);
+                        }
+                    })
+                    .withTransformation(0, new Transformation() {
+                        @Override
+                        protected Optional<Report> transform(Report report) {
+                            return dropped.contains(report) ? Optional.empty() : Optional.of(report);
+                        }
+                    })
+                    .withBuffer(bufferConfig)
+                    .withBackpressure(backpressureConfig)
+                    .withSink(new Sink() {
+                        @Override
+                        public void onNext(List<Report> reports) {
+
+                        }
+                    });
+
+            // When
+            pipeline.run();
+
+            // Then
+            Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+            Assertions.assertEquals(9L, acknowledged.get(acknowledged.size() - 1));
+        }
+    }
+
+    @Test
+    public void shouldTakeTheReportsOfSourcesEmittingReports() {
+        for (boolean backpressure : List.of(false, true)) {
+            // Given
+            List<List<Report>> batches = new ArrayList<>();
+            List<Long> acknowledged = Collections.synchronizedList(new ArrayList<>());
+            List<Report> reports = new ArrayList<>();
+            for (int i = 0; i < 10; ++i) {
+                reports.add(generator.initiatedCallReportSupplier().get());
+            }
+            BufferConfig bufferConfig = new BufferConfig();
+            bufferConfig.maxItems = 4;
+            bufferConfig.maxWaitingTimeInS = 0;
+            BackpressureConfig backpressureConfig = new BackpressureConfig();
+            backpressureConfig.enabled = backpressure;
+            Pipeline pipeline = new Pipeline("testPipeline")
+                    .withSource(new Source() {
+                        @Override
+                        protected Observable<byte[]> makeObservable() {
+                            return Observable.error(new IllegalStateException("Reports must not be encoded"));
+                        }
+
+                        @Override
+                        public boolean emitsReports() {
+                            return true;
+                        }
+
+                        @Override
+                        protected Flowable<Report> makeReports() {
+                            return Flowable.fromIterable(reports);
+                        }
+
+                        @Override
+                        public boolean requiresAcknowledgement() {
+                            return true;
+                        }
+
+                        @Override
+                        public void acknowledge(long sequence) {
+                            acknowledged.add(sequence);
+                        }
+                    })
+                    .withBuffer(bufferConfig)
+                    .withBackpressure(backpressureConfig)
+                    .withSink(new Sink() {
+                        @Override
+                        public void onNext(List<Report> reports) {
+                            batches.add(reports);
+                        }
+                    });
+
+            // When
+            pipeline.run();
+
+            // Then
+            Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+            List<Report> written = batches.stream().flatMap(List::stream).collect(Collectors.toList());
+            Assertions.assertEquals(reports.size(), written.size());
+            for (int i = 0; i < reports.size(); ++i) {
+                Assertions.assertSame(reports.get(i), written.get(i));
+            }
+            Assertions.assertEquals(List.of(3L, 7L, 9L), acknowledged);
+        }
+    }
+
+    @Test
+    public void shouldProcessPartitionsOnTheirRails() throws IOException {
+        // Given
+        List<List<Report>> batches = Collections.synchronizedList(new ArrayList<>());
+        Map<String, Set<Integer>> railsOfPartitions = new ConcurrentHashMap<>();
+        Map<Integer, Long> acknowledged = new ConcurrentHashMap<>();
+        List<SourcePartition> partitions = new ArrayList<>();
+        for (int id = 0; id < 3; ++id) {
+            List<byte[]> encodedReports = new ArrayList<>();
+            for (long timestamp = 0; timestamp < 20; ++timestamp) {
+                Report report = Report.newBuilder(generator.initiatedCallReportSupplier().get())
+                        .setServiceName("partition-" + id)
+                        .setTimestamp(timestamp)
+                        .build();
+                encodedReports.add(report.toByteBuffer().array());
+            }
+            final int partitionId = id;
+            partitions.add(new SourcePartition(id, Flowable.fromIterable(encodedReports),
+                    sequence -> acknowledged.merge(partitionId, sequence, Math::max)));
+        }
+        BufferConfig bufferConfig = new BufferConfig();
+        bufferConfig.maxItems = 7;
+        bufferConfig.maxWaitingTimeInS = 0;
+        Pipeline pipeline = new Pipeline("testPipeline")
+                .withSource(new Source() {
+                    @Override
+                    protected Observable<byte[]> makeObservable() {
+                        return Observable.empty();
+                    }
+
+                    @Override
+                    public boolean isPartitioned() {
+                        return true;
+                    }
+
+                    @Override
+                    protected Flowable<SourcePartition> makePartitions() {
+                        return Flowable.fromIterable(partitions);
+                    }
+
+                    @Override
+                    public boolean requiresAcknowledgement() {
+                        return true;
+                    }
+                })
+                .withDecoder(new AvroDecoder())
+                .withBuffer(bufferConfig)
+                .withParallelism(2)
+                .withSink(new Sink() {
+                    @Override
+                    public void onNext(List<Report> reports) {
+                        batches.add(reports);
+                    }
+                });
+        for (int rail = 0; rail < 2; ++rail) {
+            final int railIndex = rail;
+            pipeline.withTransformation(rail, new Transformation() {
+                @Override
+                protected Optional<Report> transform(Report report) {
+                    railsOfPartitions.computeIfAbsent(report.getServiceName(), name -> ConcurrentHashMap.newKeySet()).add(railIndex);
+                    return Optional.of(report);
+                }
+            });
+        }
+
+        // When
+        pipeline.run();
+
+        // Then
+        Assertions.assertEquals(Pipeline.State.FINISHED, pipeline.getState());
+        Assertions.assertEquals(60, batches.stream().mapToInt(List::size).sum());
+        Assertions.assertEquals(Set.of(0), railsOfPartitions.get("partition-0"));
+        Assertions.assertEquals(Set.of(1), railsOfPartitions.get("partition-1"));
+        Assertions.assertEquals(Set.of(0), railsOfPartitions.get("partition-2"));
+        Assertions.assertEquals(Map.of(0, 19L, 1, 19L, 2, 19L), acknowledged);
+        for (int id = 0; id < 3; ++id) {
+            String serviceName = "partition-" + id;
+            List<Long> timestamps = batches.stream()
+                    .flatMap(List::stream)
+                    .filter(report -> report.getServiceName().equals(serviceName))
+                    .map(Report::getTimestamp)
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(LongStream.range(0, 20).boxed().collect(Collectors.toList()), timestamps);
+        }
+    }
+
+    private StagesConfig makeStagesConfig() {
+        StagesConfig result = new StagesConfig();
+        result.decoder.scheduler = StageScheduler.Computation.name();
+        result.sink.scheduler = StageScheduler.IO.name();
+        return result;
+    }
+
+    private Pipeline makePipeline(int numberOfReports, List<List<Report>> batches) throws IOException {
+        List<Report> reports = new ArrayList<>();
+        for (int i = 0; i < numberOfReports; ++i) {
+            reports.add(generator.initiatedCallReportSupplier().get());
+        }
+        return this.makePipeline(reports, batches);
+    }
+
+    private Pipeline makePipeline(List<Report> reports, List<List<Report>> batches) throws IOException {
+        List<byte[]> encodedReports = new ArrayList<>();
+        for (Report report : reports) {
+            encodedReports.add(report.toByteBuffer().array());
+        }
+        BufferConfig bufferConfig = new BufferConfig();
+        bufferConfig.maxItems = 4;
+        bufferConfig.maxWaitingTimeInS = 0;
+        return new Pipeline("testPipeline")
+                .withSource(new Source() {
+                    @Override
+                    protected Observable<byte[]> makeObservable() {
+                        return Observable.fromIterable(encodedReports);
+                    }
+                })
+                .withDecoder(new AvroDecoder())
+                .withBuffer(bufferConfig)
+                .withSink(new Sink() {
+                    @Override
+                    public void onNext(List<Report> reports) {
+                        batches.add(reports);
+                    }
+                });
+    }
+}
@@ -0,0 +1,48 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.schemas.reports.InitiatedCall;
+import org.observertc.webrtc.schemas.reports.JoinedPeerConnection;
+import org.observertc.webrtc.schemas.reports.Report;
+
+class RailSelectorTest {
+
+    private static ReportGenerator generator = new ReportGenerator();
+
+    @Test
+    public void shouldSelectTheSameRailForTheSameCall() {
+        // Given
+        RailSelector railSelector = new RailSelector(8);
+        Report initiatedCall = generator.initiatedCallReportSupplier().get();
+        String callUUID = ((InitiatedCall) initiatedCall.getPayload()).getCallUUID();
+        Report generatedJoinedPeerConnection = generator.joinedPeerConnectionReportSupplier().get();
+        Report joinedPeerConnection = Report.newBuilder(generatedJoinedPeerConnection)
+                .setPayload(JoinedPeerConnection.newBuilder((JoinedPeerConnection) generatedJoinedPeerConnection.getPayload())
+                        .setCallUUID(callUUID)
+                        .build())
+                .build();
+
+        // When
+        Integer initiatedCallRail = railSelector.apply(initiatedCall);
+        Integer joinedPeerConnectionRail = railSelector.apply(joinedPeerConnection);
+
+        // Then
+        Assertions.assertEquals(initiatedCallRail, joinedPeerConnectionRail);
+        Assertions.assertTrue(0 <= initiatedCallRail && initiatedCallRail < 8);
+    }
+
+    @Test
+    public void shouldSelectTheFirstRailForOneRail() {
+        // Given
+        RailSelector railSelector = new RailSelector(1);
+        Report report = generator.initiatedCallReportSupplier().get();
+
+        // When
+        Integer rail = railSelector.apply(report);
+
+        // Then
+        Assertions.assertEquals(0, rail);
+    }
+}
@@ -0,0 +1,72 @@
+package org.observertc.webrtc.connector.pipelines;
+
+import io.reactivex.rxjava3.core.Observable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.connector.decoders.AvroDecoder;
+import org.observertc.webrtc.connector.transformations.Transformation;
+import org.observertc.webrtc.schemas.reports.Report;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+class ReportSizesTest {
+
+    private static ReportGenerator generator = new ReportGenerator();
+
+    @Test
+    public void shouldRecordTheSizeOfTheDecodedBytes() throws IOException {
+        // Given
+        ReportSizes reportSizes = new ReportSizes(100);
+        byte[] bytes = generator.joinedPeerConnectionReportSupplier().get().toByteBuffer().array();
+
+        // When
+        List<Report> reports = Observable.just(bytes)
+                .lift(reportSizes.recordBy(new AvroDecoder()))
+                .toList()
+                .blockingGet();
+
+        // Then
+        Assertions.assertEquals(1, reports.size());
+        Assertions.assertEquals(bytes.length, reportSizes.sizeOf(reports.get(0)));
+    }
+
+    @Test
+    public void shouldCarryTheSizeThroughTransformations() throws IOException {
+        // Given
+        ReportSizes reportSizes = new ReportSizes(100);
+        Report report = generator.joinedPeerConnectionReportSupplier().get();
+        reportSizes.put(report, 42);
+        Transformation copier = new Transformation() {
+            @Override
+            protected Optional<Report> transform(Report report) {
+                return Optional.of(Report.newBuilder(report).build());
+            }
+        };
+
+        // When
+        List<Report> reports = Observable.just(report)
+                .lift(reportSizes.carryBy(copier))
+                .toList()
+                .blockingGet();
+
+        // Then
+        Assertions.assertNotSame(report, reports.get(0));
+        Assertions.assertEquals(42, reportSizes.sizeOf(reports.get(0)));
+    }
+
+    @Test
+    public void shouldEncodeReportsWithoutRecordedSize() throws IOException {
+        // Given
+        ReportSizes reportSizes = new ReportSizes(100);
+        Report report = generator.initiatedCallReportSupplier().get();
+
+        // When
+        int size = reportSizes.sizeOf(report);
+
+        // Then
+        Assertions.assertEquals(report.toByteBuffer().remaining(), size);
+    }
+}
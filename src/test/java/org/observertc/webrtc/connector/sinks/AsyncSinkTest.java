@@ -0,0 +1,135 @@
+package org.observertc.webrtc.connector.sinks;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.schemas.reports.Report;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+class AsyncSinkTest {
+
+    private static ReportGenerator generator = new ReportGenerator();
+
+    @Test
+    public void shouldWriteBatchesInOrder() {
+        // Given
+        List<List<Report>> written = Collections.synchronizedList(new ArrayList<>());
+        List<List<Report>> batches = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            batches.add(List.of(generator.initiatedCallReportSupplier().get()));
+        }
+        Sink sink = new AsyncSink(new Sink() {
+            @Override
+            public void onNext(List<Report> reports) {
+                written.add(reports);
+            }
+        }, 2);
+
+        // When
+        batches.forEach(sink::onNext);
+        sink.onComplete();
+
+        // Then
+        Assertions.assertEquals(batches, written);
+    }
+
+    @Test
+    public void shouldWriteOnAnotherThread() {
+        // Given
+        List<Thread> writerThreads = Collections.synchronizedList(new ArrayList<>());
+        Sink sink = new AsyncSink(new Sink() {
+            @Override
+            public void onNext(List<Report> reports) {
+                writerThreads.add(Thread.currentThread());
+            }
+        }, 1);
+
+        // When
+        sink.onNext(List.of(generator.initiatedCallReportSupplier().get()));
+        sink.onComplete();
+
+        // Then
+        Assertions.assertEquals(1, writerThreads.size());
+        Assertions.assertNotEquals(Thread.currentThread(), writerThreads.get(0));
+    }
+
+    @Test
+    public void shouldFailAfterAFailedBatch() {
+        // Given
+        Sink sink = new AsyncSink(new Sink() {
+            @Override
+            public void onNext(List<Report> reports) {
+                throw new RuntimeException("Cannot write");
+            }
+        }, 1);
+        sink.onNext(List.of(generator.initiatedCallReportSupplier().get()));
+
+        // When, Then
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            // the second batch waits for the first to be written, the third sees the failure
+            sink.onNext(List.of(generator.initiatedCallReportSupplier().get()));
+            sink.onNext(List.of(generator.initiatedCallReportSupplier().get()));
+        });
+    }
+
+    @Test
+    public void shouldFailTheCompletionIfTheLastBatchFails() {
+        // Given
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        List<Boolean> completed = Collections.synchronizedList(new ArrayList<>());
+        Sink sink = new AsyncSink(new Sink() {
+            @Override
+            public void onNext(List<Report> reports) {
+                throw new RuntimeException("Cannot write");
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                errors.add(e);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.add(true);
+            }
+        }, 2);
+        sink.onNext(List.of(generator.initiatedCallReportSupplier().get()));
+
+        // When
+        Assertions.assertThrows(IllegalStateException.class, sink::onComplete);
+
+        // Then
+        Assertions.assertTrue(completed.isEmpty());
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertEquals("Cannot write", errors.get(0).getMessage());
+    }
+
+    @Test
+    public void shouldDecorateTheWriterOfTheBatches() {
+        // Given
+        List<Thread> decoratorThreads = Collections.synchronizedList(new ArrayList<>());
+        Sink sink = new AsyncSink(new Sink() {
+            @Override
+            public void onNext(List<Report> reports) {
+
+            }
+        }, 1).decorateWriter(writer -> new Sink() {
+            @Override
+            public void onNext(List<Report> reports) {
+                decoratorThreads.add(Thread.currentThread());
+                writer.onNext(reports);
+            }
+        });
+
+        // When
+        sink.onNext(List.of(generator.initiatedCallReportSupplier().get()));
+        sink.onComplete();
+
+        // Then
+        Assertions.assertEquals(1, decoratorThreads.size());
+        Assertions.assertNotEquals(Thread.currentThread(), decoratorThreads.get(0));
+    }
+}
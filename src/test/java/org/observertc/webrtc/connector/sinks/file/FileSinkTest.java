@@ -3,15 +3,21 @@ package org.observertc.webrtc.connector.sinks.file;
 
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import org.junit.Assert;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.connector.common.SegmentFormat;
 import org.observertc.webrtc.connector.sinks.Sink;
 import org.observertc.webrtc.schemas.reports.Report;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @MicronautTest
 public class FileSinkTest {
@@ -19,7 +25,7 @@ public class FileSinkTest {
     private static ReportGenerator reportGenerator = new ReportGenerator();
 
     @TempDir
-    static File temporaryFolder;
+    File temporaryFolder;
 
 
 //    @Rule
@@ -38,6 +44,56 @@ public class FileSinkTest {
         Assert.assertEquals(1, temporaryFolder.listFiles().length);
     }
 
+    @Test
+    public void shouldRollSegments(@TempDir Path directory) throws IOException {
+        // Given
+        Sink sink = new FileSink()
+                .withPath(directory.toString())
+                .withSegments(1000, 0, true);
+        List<Report> reports = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            reports.add(reportGenerator.joinedPeerConnectionReportSupplier("callName").get());
+        }
+
+        // When
+        sink.onNext(reports);
+        sink.onComplete();
+
+        // Then
+        List<Path> segments = Files.list(directory).filter(SegmentFormat::isSegment).sorted().collect(Collectors.toList());
+        long indexEntries = 0;
+        for (Path segment : segments) {
+            Assertions.assertTrue(Files.size(segment) <= 1000);
+            long indexSize = Files.size(SegmentFormat.getIndexOf(segment));
+            indexEntries += (indexSize - SegmentFormat.HEADER_SIZE) / SegmentFormat.INDEX_ENTRY_SIZE;
+        }
+        Assertions.assertTrue(1 < segments.size());
+        Assertions.assertEquals("0000000001.seg", segments.get(0).getFileName().toString());
+        Assertions.assertEquals(20, indexEntries);
+    }
+
+    @Test
+    public void shouldNotOverwriteExistingSegments(@TempDir Path directory) throws IOException {
+        // Given
+        Report report = reportGenerator.joinedPeerConnectionReportSupplier("callName").get();
+        Sink firstSink = new FileSink()
+                .withPath(directory.toString())
+                .withSegments(0, 0, false);
+        firstSink.onNext(List.of(report));
+        firstSink.onComplete();
+        Sink secondSink = new FileSink()
+                .withPath(directory.toString())
+                .withSegments(0, 0, false);
+
+        // When
+        secondSink.onNext(List.of(report));
+        secondSink.onComplete();
+
+        // Then
+        Assertions.assertTrue(Files.exists(directory.resolve("0000000001.seg")));
+        Assertions.assertTrue(Files.exists(directory.resolve("0000000002.seg")));
+    }
+
 
 
 }
\ No newline at end of file
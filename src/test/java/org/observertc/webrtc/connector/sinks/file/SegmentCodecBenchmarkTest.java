@@ -0,0 +1,96 @@
+package org.observertc.webrtc.connector.sinks.file;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.connector.common.SegmentCodec;
+import org.observertc.webrtc.connector.common.SegmentFormat;
+import org.observertc.webrtc.connector.sources.file.FileSourceBuilder;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compares the size and the write and read throughput of segments by their codecs.
+ * Runs only if the benchmark system property is true (e.g.: -Dbenchmark=true).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SegmentCodecBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentCodecBenchmarkTest.class);
+    private static final int REPORTS_NUM = 100000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int ROUNDS = 3;
+
+    private static ReportGenerator reportGenerator = new ReportGenerator();
+
+    @Test
+    public void shouldCompareCodecs(@TempDir Path temporaryDirectory) throws IOException {
+        // Given
+        List<Supplier<Report>> suppliers = List.of(
+                reportGenerator.initiatedCallReportSupplier(),
+                reportGenerator.finishedCallReportSupplier(),
+                reportGenerator.joinedPeerConnectionReportSupplier()
+        );
+        List<Report> reports = new ArrayList<>();
+        for (int i = 0; i < REPORTS_NUM; ++i) {
+            reports.add(suppliers.get(i % suppliers.size()).get());
+        }
+
+        for (SegmentCodec codec : SegmentCodec.values()) {
+            for (int round = 1; round <= ROUNDS; ++round) {
+                // When
+                Path directory = Files.createDirectory(temporaryDirectory.resolve(codec.name() + round));
+                FileSink sink = new FileSink()
+                        .withPath(directory.toString())
+                        .withSegments(0, 0, true, codec, 65536);
+                long writeStarted = System.nanoTime();
+                for (int from = 0; from < REPORTS_NUM; from += BATCH_SIZE) {
+                    sink.onNext(reports.subList(from, Math.min(REPORTS_NUM, from + BATCH_SIZE)));
+                }
+                sink.onComplete();
+                long writeElapsed = System.nanoTime() - writeStarted;
+
+                long readStarted = System.nanoTime();
+                FileSourceBuilder sourceBuilder = new FileSourceBuilder();
+                sourceBuilder.withConfiguration(Map.of("path", directory.toString()));
+                long read = sourceBuilder.build()
+                        .asFlowable()
+                        .count()
+                        .blockingGet();
+                long readElapsed = System.nanoTime() - readStarted;
+
+                // Then
+                Assertions.assertEquals(REPORTS_NUM, read);
+                long bytes = this.getSegmentsSize(directory);
+                logger.info("{} round {}: {} bytes per report, writes {} reports/s, reads {} reports/s",
+                        codec.name(), round,
+                        String.format("%.1f", (double) bytes / REPORTS_NUM),
+                        REPORTS_NUM * 1000000000L / Math.max(1, writeElapsed),
+                        REPORTS_NUM * 1000000000L / Math.max(1, readElapsed));
+            }
+        }
+    }
+
+    private long getSegmentsSize(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            List<Path> segments = paths.filter(SegmentFormat::isSegment).collect(Collectors.toList());
+            long result = 0;
+            for (Path segment : segments) {
+                result += Files.size(segment);
+            }
+            return result;
+        }
+    }
+}
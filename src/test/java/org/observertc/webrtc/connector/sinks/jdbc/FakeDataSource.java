@@ -0,0 +1,128 @@
+package org.observertc.webrtc.connector.sinks.jdbc;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Stands in for a database, records the statements prepared on its connections, the rows executed by them,
+ * and the rows committed by the transactions.
+ * Batches having a row with the poison value fail by a constraint violation,
+ * and the given number of batches fail by a deadlock before any batch succeeds.
+ * Connections can be used concurrently.
+ */
+class FakeDataSource {
+    final List<String> preparedSqls = Collections.synchronizedList(new ArrayList<>());
+    final List<List<Object>> executedRows = Collections.synchronizedList(new ArrayList<>());
+    final List<List<Object>> committedRows = Collections.synchronizedList(new ArrayList<>());
+    Object poisonValue = null;
+    int transientFailures = 0;
+    String failingSqlState = null;
+    int openedConnections = 0;
+    int closedConnections = 0;
+    int executedBatches = 0;
+    int rollbacks = 0;
+
+    DataSource toDataSource() {
+        return (DataSource) Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class[]{DataSource.class}, (proxy, method, args) -> {
+            if (method.getName().equals("getConnection")) {
+                synchronized (this) {
+                    ++this.openedConnections;
+                }
+                return this.makeConnection();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private Connection makeConnection() {
+        List<List<Object>> pendingRows = new ArrayList<>();
+        return (Connection) Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> {
+            synchronized (this) {
+                switch (method.getName()) {
+                    case "prepareStatement":
+                        this.preparedSqls.add((String) args[0]);
+                        return this.makeStatement(pendingRows);
+                    case "close":
+                        ++this.closedConnections;
+                        return null;
+                    case "setAutoCommit":
+                        return null;
+                    case "commit":
+                        this.committedRows.addAll(pendingRows);
+                        pendingRows.clear();
+                        return null;
+                    case "rollback":
+                        ++this.rollbacks;
+                        pendingRows.clear();
+                        return null;
+                    case "isClosed":
+                        return false;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            }
+        });
+    }
+
+    private PreparedStatement makeStatement(List<List<Object>> pendingRows) {
+        Map<Integer, Object> parameters = new HashMap<>();
+        List<List<Object>> batch = new ArrayList<>();
+        return (PreparedStatement) Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "setObject":
+                    parameters.put((Integer) args[0], args[1]);
+                    return null;
+                case "setNull":
+                    parameters.put((Integer) args[0], null);
+                    return null;
+                case "addBatch":
+                    List<Object> row = new ArrayList<>();
+                    for (int i = 1; i <= parameters.size(); ++i) {
+                        row.add(parameters.get(i));
+                    }
+                    batch.add(row);
+                    parameters.clear();
+                    return null;
+                case "executeBatch":
+                    return this.execute(batch, pendingRows);
+                case "clearBatch":
+                    batch.clear();
+                    return null;
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private synchronized int[] execute(List<List<Object>> batch, List<List<Object>> pendingRows) throws SQLException {
+        ++this.executedBatches;
+        try {
+            if (0 < this.transientFailures) {
+                --this.transientFailures;
+                throw new SQLException("deadlock detected", "40P01");
+            }
+            if (Objects.nonNull(this.failingSqlState)) {
+                throw new SQLException("relation does not exist", this.failingSqlState);
+            }
+            if (Objects.nonNull(this.poisonValue) && batch.stream().anyMatch(values -> values.contains(this.poisonValue))) {
+                throw new SQLException("value violates check constraint", "23514");
+            }
+            this.executedRows.addAll(batch);
+            pendingRows.addAll(batch);
+            return new int[batch.size()];
+        } finally {
+            batch.clear();
+        }
+    }
+}
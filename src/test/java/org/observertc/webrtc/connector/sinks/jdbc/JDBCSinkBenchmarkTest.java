@@ -0,0 +1,109 @@
+package org.observertc.webrtc.connector.sinks.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.jooq.SQLDialect;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the reports written per second by the write modes of the {@link JDBCSink}, with and without concurrent writes,
+ * into PostgreSQL and MySQL databases started in docker containers.
+ * Runs only if the benchmark system property is true (e.g.: -Dbenchmark=true).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class JDBCSinkBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(JDBCSinkBenchmarkTest.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final int BATCHES = 50;
+    private static final int ROUNDS = 3;
+
+    @Test
+    public void shouldCompareWriteModesOnPostgres() {
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:13"))) {
+            postgres.start();
+            this.compareWriteModes(postgres, SQLDialect.POSTGRES, null, "reWriteBatchedInserts=true");
+        }
+    }
+
+    @Test
+    public void shouldCompareWriteModesOnMySQL() {
+        try (MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"))
+                .withCommand("--local-infile=1")) {
+            mysql.start();
+            this.compareWriteModes(mysql, SQLDialect.MYSQL, mysql.getDatabaseName(), "rewriteBatchedStatements=true&allowLoadLocalInfile=true");
+        }
+    }
+
+    private void compareWriteModes(JdbcDatabaseContainer<?> container, SQLDialect dialect, String database, String urlParameter) {
+        // Given
+        ReportGenerator generator = new ReportGenerator();
+        List<Supplier<Report>> suppliers = List.of(
+                generator.initiatedCallReportSupplier(),
+                generator.finishedCallReportSupplier(),
+                generator.joinedPeerConnectionReportSupplier()
+        );
+        List<List<Report>> batches = new ArrayList<>();
+        for (int i = 0; i < BATCHES; ++i) {
+            List<Report> batch = new ArrayList<>();
+            for (int j = 0; j < BATCH_SIZE; ++j) {
+                batch.add(suppliers.get(j % suppliers.size()).get());
+            }
+            batches.add(batch);
+        }
+        String url = container.getJdbcUrl();
+        url += (url.contains("?") ? "&" : "?") + urlParameter;
+        try (HikariDataSource dataSource = new HikariDataSourceBuilder()
+                .withURL(url)
+                .withDriverClassName(container.getDriverClassName())
+                .withUsername(container.getUsername())
+                .withPassword(container.getPassword())
+                .build()) {
+            JDBCSinkBuilder.Config config = new JDBCSinkBuilder.Config();
+            config.database = database;
+            config.SQLDialect = dialect.name();
+
+            for (int round = 1; round <= ROUNDS; ++round) {
+                for (JDBCWriteMode writeMode : JDBCWriteMode.values()) {
+                    if (writeMode == JDBCWriteMode.Copy && dialect != SQLDialect.POSTGRES) {
+                        continue;
+                    }
+                    if (writeMode == JDBCWriteMode.LoadData && dialect != SQLDialect.MYSQL) {
+                        continue;
+                    }
+                    for (int concurrentWrites : List.of(1, suppliers.size())) {
+                        if (1 < concurrentWrites && writeMode == JDBCWriteMode.MultiRowInsert) {
+                            continue;
+                        }
+                        // When
+                        config.maxConcurrentWrites = concurrentWrites;
+                        JDBCSink sink = new JDBCSinkBuilder().build(config, dialect, writeMode, dataSource);
+                        Assertions.assertNotNull(sink);
+                        long started = System.nanoTime();
+                        for (List<Report> batch : batches) {
+                            sink.onNext(batch);
+                        }
+                        sink.onComplete();
+                        long elapsed = System.nanoTime() - started;
+
+                        // Then
+                        logger.info("{} {} with {} concurrent writes round {}: {} reports/s", dialect, writeMode,
+                                concurrentWrites, round, (long) BATCH_SIZE * BATCHES * 1000000000L / Math.max(1, elapsed));
+                    }
+                }
+            }
+        }
+    }
+}
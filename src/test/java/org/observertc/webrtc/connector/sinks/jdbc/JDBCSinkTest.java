@@ -0,0 +1,317 @@
+package org.observertc.webrtc.connector.sinks.jdbc;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import org.jooq.Field;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.connector.databases.ReportMapper;
+import org.observertc.webrtc.connector.sinks.Sink;
+import org.observertc.webrtc.schemas.reports.InitiatedCall;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.observertc.webrtc.schemas.reports.ReportType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+class JDBCSinkTest {
+
+    static ReportGenerator generator = new ReportGenerator();
+
+    @Test
+    public void shouldReuseThePreparedStatementsAcrossBatches() {
+        // Given
+        FakeDataSource database = new FakeDataSource();
+        JDBCSink sink = makeSink().withBatchedInserts(database.toDataSource());
+        List<Report> reports = makeReports(6, null);
+
+        // When
+        sink.onNext(reports.subList(0, 3));
+        sink.onNext(reports.subList(3, 6));
+        sink.onComplete();
+
+        // Then
+        Assertions.assertEquals(1, database.openedConnections);
+        Assertions.assertEquals(1, database.closedConnections);
+        Assertions.assertEquals(List.of("insert into \"initiatedcalls\" (\"timestamp\", \"marker\", \"calluuid\", \"callname\") values (?, ?, ?, ?)"),
+                database.preparedSqls);
+        Assertions.assertEquals(2, database.executedBatches);
+        Assertions.assertEquals(6, database.executedRows.size());
+        Report report = reports.get(0);
+        InitiatedCall payload = (InitiatedCall) report.getPayload();
+        Assertions.assertEquals(List.of(report.getTimestamp(), report.getMarker(), payload.getCallUUID(), payload.getCallName()),
+                database.executedRows.get(0));
+    }
+
+    @Test
+    public void shouldBindNullValues() {
+        // Given
+        FakeDataSource database = new FakeDataSource();
+        JDBCSink sink = makeSink().withBatchedInserts(database.toDataSource());
+        Report report = generator.initiatedCallReportSupplier().get();
+
+        // When
+        sink.onNext(List.of(report));
+
+        // Then
+        Assertions.assertNull(database.executedRows.get(0).get(3));
+    }
+
+    @Test
+    public void shouldRetryBatchesFailedByTransientErrors() {
+        // Given
+        FakeDataSource database = new FakeDataSource();
+        database.transientFailures = 2;
+        JDBCSink sink = makeSink()
+                .withBatchedInserts(database.toDataSource())
+                .withRetries(3, 0);
+
+        // When
+        sink.onNext(makeReports(3, null));
+
+        // Then
+        Assertions.assertEquals(3, database.committedRows.size());
+        Assertions.assertEquals(2, database.rollbacks);
+        Assertions.assertEquals(3, database.openedConnections);
+    }
+
+    @Test
+    public void shouldFailTheBatchIfRetriesAreExhausted() {
+        // Given
+        FakeDataSource database = new FakeDataSource();
+        database.transientFailures = 3;
+        JDBCSink sink = makeSink()
+                .withBatchedInserts(database.toDataSource())
+                .withRetries(2, 0)
+                .withDeadLetterSink(new CollectingSink());
+
+        // When
+        Assertions.assertThrows(RuntimeException.class, () -> sink.onNext(makeReports(3, null)));
+
+        // Then
+        Assertions.assertEquals(0, database.committedRows.size());
+        Assertions.assertEquals(3, database.executedBatches);
+    }
+
+    @Test
+    public void shouldRoutePoisonReportsToTheDeadLetterSink() {
+        // Given
+        FakeDataSource database = new FakeDataSource();
+        database.poisonValue = "poison";
+        CollectingSink deadLetterSink = new CollectingSink();
+        JDBCSink sink = makeSink()
+                .withBatchedInserts(database.toDataSource())
+                .withDeadLetterSink(deadLetterSink);
+        List<Report> reports = makeReports(8, 5);
+
+        // When
+        sink.onNext(reports);
+
+        // Then
+        Assertions.assertEquals(7, database.committedRows.size());
+        Assertions.assertEquals(List.of(reports.get(5)), deadLetterSink.reports);
+    }
+
+    @Test
+    public void shouldNotBisectTheBatchIfItFailsByASchemaError() {
+        // Given
+        FakeDataSource database = new FakeDataSource();
+        database.failingSqlState = "42P01";
+        CollectingSink deadLetterSink = new CollectingSink();
+        JDBCSink sink = makeSink()
+                .withBatchedInserts(database.toDataSource())
+                .withDeadLetterSink(deadLetterSink);
+
+        // When
+        Assertions.assertThrows(RuntimeException.class, () -> sink.onNext(makeReports(8, null)));
+
+        // Then
+        Assertions.assertEquals(1, database.executedBatches);
+        Assertions.assertTrue(deadLetterSink.reports.isEmpty());
+        Assertions.assertEquals(1, database.closedConnections);
+    }
+
+    @Test
+    public void shouldRollbackTheBatchWithoutDeadLetterSink() {
+        // Given
+        FakeDataSource database = new FakeDataSource();
+        database.poisonValue = "poison";
+        JDBCSink sink = makeSink().withBatchedInserts(database.toDataSource());
+
+        // When
+        Assertions.assertThrows(RuntimeException.class, () -> sink.onNext(makeReports(8, 5)));
+
+        // Then
+        Assertions.assertEquals(0, database.committedRows.size());
+        Assertions.assertEquals(1, database.rollbacks);
+        Assertions.assertEquals(1, database.closedConnections);
+    }
+
+    @Test
+    public void shouldRollbackTheBatchIfTheMapperFails() {
+        // Given
+        FakeDataSource database = new FakeDataSource();
+        ReportMapper failingMapper = new ReportMapper()
+                .add("timestamp", Function.identity(), Function.identity())
+                .add("marker", Function.identity(), Function.identity())
+                .add("payload", new ReportMapper()
+                        .add("callUUID", Function.identity(), Function.identity())
+                        .add("callName", Function.identity(), callName -> {
+                            if (Objects.equals("poison", callName.toString())) {
+                                throw new IllegalArgumentException("Call name cannot be mapped");
+                            }
+                            return callName;
+                        }));
+        JDBCSink sink = new JDBCSink(() -> DSL.using(SQLDialect.POSTGRES))
+                .withRoute(ReportType.INITIATED_CALL, DSL.table(DSL.name("initiatedcalls")), failingMapper, List.of(
+                        DSL.field(DSL.name("timestamp"), SQLDataType.BIGINT),
+                        DSL.field(DSL.name("marker"), SQLDataType.VARCHAR(255)),
+                        DSL.field(DSL.name("calluuid"), SQLDataType.VARCHAR(255)),
+                        DSL.field(DSL.name("callname"), SQLDataType.VARCHAR(255))
+                ))
+                .withBatchedInserts(database.toDataSource());
+
+        // When
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sink.onNext(makeReports(8, 5)));
+        sink.onNext(makeReports(4, null));
+
+        // Then
+        Assertions.assertEquals(1, database.rollbacks);
+        Assertions.assertEquals(1, database.closedConnections);
+        Assertions.assertEquals(4, database.executedRows.size());
+        Assertions.assertEquals(4, database.committedRows.size());
+    }
+
+    @Test
+    public void shouldWriteTheReportTypesConcurrently() {
+        // Given
+        FakeDataSource database = new FakeDataSource();
+        JDBCSink sink = makeSink()
+                .withBatchedInserts(database.toDataSource())
+                .withConcurrentWrites(3);
+        List<Report> reports = new ArrayList<>(makeReports(4, null));
+        for (int i = 0; i < 4; ++i) {
+            reports.add(generator.finishedCallReportSupplier().get());
+            reports.add(generator.joinedPeerConnectionReportSupplier().get());
+        }
+
+        // When
+        sink.onNext(reports);
+        sink.onComplete();
+
+        // Then
+        Assertions.assertEquals(12, database.committedRows.size());
+        Assertions.assertEquals(3, database.openedConnections);
+        Assertions.assertEquals(3, database.closedConnections);
+        Assertions.assertEquals(3, database.preparedSqls.size());
+    }
+
+    @Test
+    public void shouldWriteTheOtherReportTypesIfOneFails() {
+        // Given
+        FakeDataSource database = new FakeDataSource();
+        database.poisonValue = "poison";
+        JDBCSink sink = makeSink()
+                .withBatchedInserts(database.toDataSource())
+                .withConcurrentWrites(3);
+        List<Report> reports = new ArrayList<>(makeReports(4, 2));
+        for (int i = 0; i < 4; ++i) {
+            reports.add(generator.finishedCallReportSupplier().get());
+            reports.add(generator.joinedPeerConnectionReportSupplier().get());
+        }
+
+        // When
+        Assertions.assertThrows(RuntimeException.class, () -> sink.onNext(reports));
+
+        // Then
+        Assertions.assertEquals(8, database.committedRows.size());
+    }
+
+    @Test
+    public void shouldFormatCsvValuesForCopy() {
+        // Given
+        StringBuilder csv = new StringBuilder();
+        List<Object> values = Arrays.asList(1L, null, "", "say \"hi\", bye", true, ByteBuffer.wrap(new byte[]{0, 15, -1}));
+
+        // When
+        for (Object value : values) {
+            JDBCSink.appendCsvValue(csv, value);
+            csv.append(',');
+        }
+
+        // Then
+        Assertions.assertEquals("1,,\"\",\"say \"\"hi\"\", bye\",true,\"\\x000fff\",", csv.toString());
+    }
+
+    @Test
+    public void shouldFormatTsvValuesForLoadData() {
+        // Given
+        StringBuilder tsv = new StringBuilder();
+        List<Object> values = Arrays.asList(1L, null, false, "a\tb\nc\\d", ByteBuffer.wrap(new byte[]{0, 15, -1}));
+
+        // When
+        for (Object value : values) {
+            JDBCSink.appendTsvValue(tsv, value);
+            tsv.append('\t');
+        }
+
+        // Then
+        Assertions.assertEquals("1\t\\N\t0\ta\\tb\\nc\\\\d\t000fff\t", tsv.toString());
+    }
+
+    /**
+     * Makes reports where the call name of the report at the poison index is poison.
+     */
+    private static List<Report> makeReports(int reportsNum, Integer poisonIndex) {
+        List<Report> result = new ArrayList<>();
+        for (int i = 0; i < reportsNum; ++i) {
+            Report report = generator.initiatedCallReportSupplier().get();
+            InitiatedCall payload = InitiatedCall.newBuilder((InitiatedCall) report.getPayload())
+                    .setCallName(Objects.equals(poisonIndex, i) ? "poison" : "callName")
+                    .build();
+            result.add(Report.newBuilder(report).setPayload(payload).build());
+        }
+        return result;
+    }
+
+    private static JDBCSink makeSink() {
+        Table<?> table = DSL.table(DSL.name("initiatedcalls"));
+        List<Field> fields = List.of(
+                DSL.field(DSL.name("timestamp"), SQLDataType.BIGINT),
+                DSL.field(DSL.name("marker"), SQLDataType.VARCHAR(255)),
+                DSL.field(DSL.name("calluuid"), SQLDataType.VARCHAR(255)),
+                DSL.field(DSL.name("callname"), SQLDataType.VARCHAR(255))
+        );
+        ReportMapper mapper = new ReportMapper()
+                .add("timestamp", Function.identity(), Function.identity())
+                .add("marker", Function.identity(), Function.identity())
+                .add("payload", new ReportMapper()
+                        .add("callUUID", Function.identity(), Function.identity())
+                        .add("callName", Function.identity(), Function.identity()));
+        List<Field> commonFields = fields.subList(0, 2);
+        ReportMapper commonMapper = new ReportMapper()
+                .add("timestamp", Function.identity(), Function.identity())
+                .add("marker", Function.identity(), Function.identity());
+        return new JDBCSink(() -> DSL.using(SQLDialect.POSTGRES))
+                .withRoute(ReportType.INITIATED_CALL, table, mapper, fields)
+                .withRoute(ReportType.FINISHED_CALL, DSL.table(DSL.name("finishedcalls")), commonMapper, commonFields)
+                .withRoute(ReportType.JOINED_PEER_CONNECTION, DSL.table(DSL.name("joinedpeerconnections")), commonMapper, commonFields);
+    }
+
+    private static class CollectingSink extends Sink {
+        private final List<Report> reports = new ArrayList<>();
+
+        @Override
+        public void onNext(@NonNull List<Report> reports) {
+            this.reports.addAll(reports);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.observertc.webrtc.connector.sources;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+import org.junit.jupiter.api.Test;
+import org.observertc.webrtc.schemas.reports.Report;
+
+class SourceTest {
+
+    @Test
+    public void shouldFailTheFlowOfPartitionsIfTheSourceIsNotPartitioned() {
+        // Given
+        Source source = new PlainSource();
+
+        // When
+        TestSubscriber<SourcePartition> subscriber = source.asPartitions().test();
+
+        // Then
+        subscriber.assertError(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void shouldFailTheFlowOfReportsIfTheSourceDoesNotEmitReports() {
+        // Given
+        Source source = new PlainSource();
+
+        // When
+        TestSubscriber<Report> subscriber = source.asReports().test();
+
+        // Then
+        subscriber.assertError(UnsupportedOperationException.class);
+    }
+
+    private static class PlainSource extends Source {
+        @Override
+        protected Observable<byte[]> makeObservable() {
+            return Observable.empty();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package org.observertc.webrtc.connector.sources.bigquerysources;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.observertc.webrtc.connector.common.BigQueryService;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.observertc.webrtc.schemas.reports.ReportType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+public class BigQuerySourcesTest {
+
+    @Test
+    public void shouldReadTablesInOneRange() {
+        // Given
+        FakeBigQueryService bigQueryService = new FakeBigQueryService(Map.of("InitiatedCalls", 100));
+        BigQuerySources source = new BigQuerySources(bigQueryService)
+                .withTableName(ReportType.INITIATED_CALL, "InitiatedCalls")
+                .withPageSize(30);
+
+        // When
+        List<Long> timestamps = this.readTimestamps(source);
+
+        // Then
+        Assertions.assertEquals(LongStream.range(0, 100).boxed().collect(Collectors.toList()), timestamps);
+        Assertions.assertEquals(Set.of(0L, 30L, 60L, 90L, 100L), bigQueryService.startIndexes);
+    }
+
+    @Test
+    public void shouldReadRowRangesConcurrently() {
+        // Given
+        FakeBigQueryService bigQueryService = new FakeBigQueryService(Map.of("InitiatedCalls", 1000, "FinishedCalls", 10));
+        BigQuerySources source = new BigQuerySources(bigQueryService)
+                .withTableName(ReportType.INITIATED_CALL, "InitiatedCalls")
+                .withTableName(ReportType.FINISHED_CALL, "FinishedCalls")
+                .withMaxConcurrentReads(4)
+                .withRowRanges(4, 100)
+                .withPageSize(100);
+
+        // When
+        List<Long> timestamps = this.readTimestamps(source);
+
+        // Then
+        List<Long> expected = LongStream.concat(LongStream.range(0, 1000), LongStream.range(0, 10))
+                .sorted().boxed().collect(Collectors.toList());
+        Assertions.assertEquals(expected, timestamps.stream().sorted().collect(Collectors.toList()));
+        Assertions.assertTrue(bigQueryService.startIndexes.containsAll(Set.of(250L, 500L, 750L)));
+    }
+
+    @Test
+    public void shouldNotSplitSmallTables() {
+        // Given
+        FakeBigQueryService bigQueryService = new FakeBigQueryService(Map.of("InitiatedCalls", 150));
+        BigQuerySources source = new BigQuerySources(bigQueryService)
+                .withTableName(ReportType.INITIATED_CALL, "InitiatedCalls")
+                .withMaxConcurrentReads(4)
+                .withRowRanges(4, 100);
+
+        // When
+        List<Long> timestamps = this.readTimestamps(source);
+
+        // Then
+        Assertions.assertEquals(LongStream.range(0, 150).boxed().collect(Collectors.toList()), timestamps);
+        Assertions.assertEquals(Set.of(0L, 150L), bigQueryService.startIndexes);
+    }
+
+    @Test
+    public void shouldEmitReportsWithoutEncodingThem() {
+        // Given
+        FakeBigQueryService bigQueryService = new FakeBigQueryService(Map.of("InitiatedCalls", 100));
+        BigQuerySources source = new BigQuerySources(bigQueryService)
+                .withTableName(ReportType.INITIATED_CALL, "InitiatedCalls")
+                .withMaxConcurrentReads(2)
+                .withRowRanges(2, 10);
+
+        // When
+        List<Long> timestamps = source.asReports()
+                .map(Report::getTimestamp)
+                .toList()
+                .blockingGet();
+
+        // Then
+        Assertions.assertTrue(source.emitsReports());
+        Assertions.assertEquals(LongStream.range(0, 100).boxed().collect(Collectors.toList()),
+                timestamps.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldResumeFromTheAcknowledgedRows(@TempDir Path directory) throws IOException {
+        // Given
+        Path checkpointFile = directory.resolve("checkpoint.properties");
+        FakeBigQueryService bigQueryService = new FakeBigQueryService(Map.of("InitiatedCalls", 100));
+        Checkpoints checkpoints = new Checkpoints(checkpointFile, 0);
+        BigQuerySources source = new BigQuerySources(bigQueryService)
+                .withTableName(ReportType.INITIATED_CALL, "InitiatedCalls")
+                .withRowRanges(2, 10)
+                .withCheckpoints(checkpoints);
+        this.readTimestamps(source);
+        source.acknowledge(59);
+        checkpoints.save();
+
+        // When
+        FakeBigQueryService resumedBigQueryService = new FakeBigQueryService(Map.of("InitiatedCalls", 100));
+        BigQuerySources resumedSource = new BigQuerySources(resumedBigQueryService)
+                .withTableName(ReportType.INITIATED_CALL, "InitiatedCalls")
+                .withRowRanges(2, 10)
+                .withCheckpoints(new Checkpoints(checkpointFile, 0));
+        List<Long> timestamps = this.readTimestamps(resumedSource);
+
+        // Then
+        Assertions.assertTrue(resumedSource.requiresAcknowledgement());
+        Assertions.assertEquals(LongStream.range(60, 100).boxed().collect(Collectors.toList()), timestamps);
+        Assertions.assertEquals(Set.of(60L, 100L), resumedBigQueryService.startIndexes);
+    }
+
+    @Test
+    public void shouldCheckpointWhenEveryRowIsAcknowledged(@TempDir Path directory) throws IOException {
+        // Given
+        Path checkpointFile = directory.resolve("checkpoint.properties");
+        FakeBigQueryService bigQueryService = new FakeBigQueryService(Map.of("InitiatedCalls", 100));
+        BigQuerySources source = new BigQuerySources(bigQueryService)
+                .withTableName(ReportType.INITIATED_CALL, "InitiatedCalls")
+                .withRowRanges(2, 10)
+                .withCheckpoints(new Checkpoints(checkpointFile, 0));
+        this.readTimestamps(source);
+        source.acknowledge(99);
+
+        // When
+        FakeBigQueryService resumedBigQueryService = new FakeBigQueryService(Map.of("InitiatedCalls", 100));
+        BigQuerySources resumedSource = new BigQuerySources(resumedBigQueryService)
+                .withTableName(ReportType.INITIATED_CALL, "InitiatedCalls")
+                .withRowRanges(2, 10)
+                .withCheckpoints(new Checkpoints(checkpointFile, 0));
+        List<Long> timestamps = this.readTimestamps(resumedSource);
+
+        // Then
+        Assertions.assertTrue(timestamps.isEmpty());
+        // only the open range is listed from its end to look for appended rows
+        Assertions.assertEquals(Set.of(100L), resumedBigQueryService.startIndexes);
+    }
+
+    @Test
+    public void shouldFailAfterTheOtherRangesIfARangeFailsWithCheckpoints(@TempDir Path directory) throws IOException {
+        // Given
+        Path checkpointFile = directory.resolve("checkpoint.properties");
+        FakeBigQueryService bigQueryService = new FakeBigQueryService(Map.of("InitiatedCalls", 100));
+        bigQueryService.failingStartIndex = 0L;
+        BigQuerySources source = new BigQuerySources(bigQueryService)
+                .withTableName(ReportType.INITIATED_CALL, "InitiatedCalls")
+                .withRowRanges(2, 10)
+                .withCheckpoints(new Checkpoints(checkpointFile, 0));
+
+        // When
+        TestSubscriber<Long> subscriber = source.asFlowable()
+                .map(bytes -> Report.fromByteBuffer(ByteBuffer.wrap(bytes)).getTimestamp())
+                .test();
+
+        // Then
+        subscriber.awaitDone(10, TimeUnit.SECONDS);
+        subscriber.assertError(IllegalStateException.class);
+        Assertions.assertEquals(LongStream.range(50, 100).boxed().collect(Collectors.toList()), subscriber.values());
+    }
+
+    @Test
+    public void shouldStopTheCheckpointsIfTheSinkFails(@TempDir Path directory) throws IOException {
+        // Given
+        Path checkpointFile = directory.resolve("checkpoint.properties");
+        Checkpoints checkpoints = new Checkpoints(checkpointFile, 60000);
+        BigQuerySources source = new BigQuerySources(new FakeBigQueryService(Map.of("InitiatedCalls", 100)))
+                .withTableName(ReportType.INITIATED_CALL, "InitiatedCalls")
+                .withCheckpoints(checkpoints);
+
+        // When
+        TestSubscriber<byte[]> subscriber = source.asFlowable()
+                .doOnNext(bytes -> {
+                    throw new IllegalStateException("Reports cannot be written");
+                })
+                .test();
+
+        // Then
+        subscriber.awaitDone(10, TimeUnit.SECONDS);
+        subscriber.assertError(IllegalStateException.class);
+        Assertions.assertFalse(checkpoints.isWatching());
+        Assertions.assertTrue(Files.exists(checkpointFile));
+    }
+
+    @Test
+    public void shouldCompleteIfARangeFailsWithoutCheckpoints() {
+        // Given
+        FakeBigQueryService bigQueryService = new FakeBigQueryService(Map.of("InitiatedCalls", 100));
+        bigQueryService.failingStartIndex = 0L;
+        BigQuerySources source = new BigQuerySources(bigQueryService)
+                .withTableName(ReportType.INITIATED_CALL, "InitiatedCalls")
+                .withRowRanges(2, 10);
+
+        // When
+        List<Long> timestamps = this.readTimestamps(source);
+
+        // Then
+        Assertions.assertEquals(LongStream.range(50, 100).boxed().collect(Collectors.toList()), timestamps);
+    }
+
+    private List<Long> readTimestamps(BigQuerySources source) {
+        return source.asFlowable()
+                .map(bytes -> Report.fromByteBuffer(ByteBuffer.wrap(bytes)).getTimestamp())
+                .toList()
+                .blockingGet();
+    }
+
+    /**
+     * Stands in for a BigQuery dataset, where the timestamps of the rows of a table are their indexes.
+     */
+    private static class FakeBigQueryService extends BigQueryService {
+        private static final Schema SCHEMA = Schema.of(
+                Field.of("serviceUUID", LegacySQLTypeName.STRING),
+                Field.of("serviceName", LegacySQLTypeName.STRING),
+                Field.of("timestamp", LegacySQLTypeName.INTEGER),
+                Field.of("callUUID", LegacySQLTypeName.STRING),
+                Field.of("callName", LegacySQLTypeName.STRING)
+        );
+        private final Map<String, Integer> numRows;
+        private final Set<Long> startIndexes = ConcurrentHashMap.newKeySet();
+        private Long failingStartIndex = null;
+
+        private FakeBigQueryService(Map<String, Integer> numRows) {
+            super("project", "dataset", (BigQuery) null);
+            this.numRows = numRows;
+        }
+
+        @Override
+        public Schema getSchema(String tableName) {
+            this.getNumRows(tableName);
+            return SCHEMA;
+        }
+
+        @Override
+        public long getNumRows(String tableName) {
+            Integer result = this.numRows.get(tableName);
+            if (Objects.isNull(result)) {
+                throw new IllegalStateException("Table " + tableName + " does not exist");
+            }
+            return result;
+        }
+
+        @Override
+        public List<FieldValueList> listRows(String tableName, long startIndex, long maxRows) {
+            this.startIndexes.add(startIndex);
+            if (Objects.equals(this.failingStartIndex, startIndex)) {
+                throw new IllegalStateException("Rows cannot be listed from " + startIndex);
+            }
+            long end = Math.min(this.getNumRows(tableName), startIndex + maxRows);
+            FieldList fields = SCHEMA.getFields();
+            List<FieldValueList> result = new ArrayList<>();
+            for (long index = startIndex; index < end; ++index) {
+                List<FieldValue> values = List.of(
+                        FieldValue.of(FieldValue.Attribute.PRIMITIVE, "serviceUUID"),
+                        FieldValue.of(FieldValue.Attribute.PRIMITIVE, "serviceName"),
+                        FieldValue.of(FieldValue.Attribute.PRIMITIVE, Long.toString(index)),
+                        FieldValue.of(FieldValue.Attribute.PRIMITIVE, "callUUID"),
+                        FieldValue.of(FieldValue.Attribute.PRIMITIVE, "callName")
+                );
+                result.add(FieldValueList.of(values, fields));
+            }
+            return result;
+        }
+    }
+}
@@ -3,23 +3,45 @@ package org.observertc.webrtc.connector.sources.file;
 
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import org.junit.Assert;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.observertc.webrtc.connector.ReportGenerator;
+import org.observertc.webrtc.connector.common.SegmentCodec;
+import org.observertc.webrtc.connector.common.SegmentFormat;
+import org.observertc.webrtc.connector.sinks.Sink;
+import org.observertc.webrtc.connector.sinks.file.FileSinkBuilder;
 import org.observertc.webrtc.connector.sources.Source;
+import org.observertc.webrtc.schemas.reports.Report;
+import org.observertc.webrtc.schemas.reports.ReportType;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 @MicronautTest
 public class FileSourceTest {
 
+    private static ReportGenerator reportGenerator = new ReportGenerator();
+
     @TempDir
-    static File temporaryFolder;
+    File temporaryFolder;
 //    @Rule
 //    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
@@ -38,6 +60,195 @@ public class FileSourceTest {
         Assert.assertEquals(writtenText, new String(lastReadBytes.get()));
     }
 
+    @Test
+    public void shouldReadFilesInTheOrderOfTheirNamesConcurrently(@TempDir Path directory) throws IOException {
+        // Given
+        List<String> writtenTexts = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            String text = String.format("%03d", i);
+            Path subdirectory = directory.resolve(i < 10 ? "a" : "b");
+            Files.createDirectories(subdirectory);
+            Files.write(subdirectory.resolve(text + ".dat"), text.getBytes(StandardCharsets.UTF_8));
+            writtenTexts.add(text);
+        }
+        Source source = new FileSource()
+                .setPath(directory.toString())
+                .withIOWorkers(4);
+
+        // When
+        List<String> readTexts = source.asFlowable()
+                .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                .toList()
+                .blockingGet();
+
+        // Then
+        Assertions.assertEquals(writtenTexts, readTexts);
+    }
+
+    @Test
+    public void shouldReadTheFilesOfTheFileSinkInTheOrderOfTheirSequenceNumbers(@TempDir Path directory) throws IOException {
+        // Given
+        List<String> writtenTexts = List.of("99998", "99999", "100000", "100001");
+        for (String text : writtenTexts) {
+            Files.write(directory.resolve(text + "-INITIATED_CALL.dat"), text.getBytes(StandardCharsets.UTF_8));
+        }
+        Source source = new FileSource()
+                .setPath(directory.toString());
+
+        // When
+        List<String> readTexts = source.asFlowable()
+                .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                .toList()
+                .blockingGet();
+
+        // Then
+        Assertions.assertEquals(writtenTexts, readTexts);
+    }
+
+    @Test
+    public void shouldReadBigFiles(@TempDir Path directory) throws IOException {
+        // Given
+        byte[] writtenBytes = new byte[100000];
+        new Random().nextBytes(writtenBytes);
+        Files.write(directory.resolve("big.dat"), writtenBytes);
+        Source source = new FileSource()
+                .setPath(directory.toString());
+
+        // When
+        List<byte[]> readBytes = source.asFlowable()
+                .toList()
+                .blockingGet();
+
+        // Then
+        Assertions.assertEquals(1, readBytes.size());
+        Assertions.assertArrayEquals(writtenBytes, readBytes.get(0));
+    }
+
+    @Test
+    public void shouldReadSegmentsByTheirIndexes(@TempDir Path directory) throws IOException {
+        // Given
+        this.writeSegments(directory, true);
+        Source source = new FileSource()
+                .setPath(directory.toString())
+                .withFilter(10L, 20L, Set.of(ReportType.INITIATED_CALL));
+
+        // When
+        List<Report> reports = this.readReports(source);
+
+        // Then
+        Assertions.assertEquals(List.of(10L, 12L, 14L, 16L, 18L), reports.stream().map(Report::getTimestamp).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldReadSegmentsWithoutIndexes(@TempDir Path directory) throws IOException {
+        // Given
+        this.writeSegments(directory, false);
+        Source source = new FileSource()
+                .setPath(directory.toString())
+                .withIOWorkers(2)
+                .withFilter(10L, 20L, Set.of(ReportType.INITIATED_CALL));
+
+        // When
+        List<Report> reports = this.readReports(source);
+
+        // Then
+        Assertions.assertEquals(List.of(10L, 12L, 14L, 16L, 18L), reports.stream().map(Report::getTimestamp).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldReadEverySegmentedReport(@TempDir Path directory) throws IOException {
+        // Given
+        this.writeSegments(directory, true);
+        Source source = new FileSource()
+                .setPath(directory.toString());
+
+        // When
+        List<Report> reports = this.readReports(source);
+
+        // Then
+        Assertions.assertEquals(LongStream.range(0, 40).boxed().collect(Collectors.toList()),
+                reports.stream().map(Report::getTimestamp).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldReadCompressedSegments(@TempDir Path temporaryDirectory) throws IOException {
+        for (SegmentCodec codec : SegmentCodec.values()) {
+            // Given
+            Path directory = Files.createDirectory(temporaryDirectory.resolve(codec.name()));
+            this.writeSegments(directory, true, codec);
+            Source everything = new FileSource()
+                    .setPath(directory.toString());
+            Source filtered = new FileSource()
+                    .setPath(directory.toString())
+                    .withFilter(10L, 20L, Set.of(ReportType.FINISHED_CALL));
+
+            // When
+            List<Report> allReports = this.readReports(everything);
+            List<Report> filteredReports = this.readReports(filtered);
+
+            // Then
+            Assertions.assertEquals(LongStream.range(0, 40).boxed().collect(Collectors.toList()),
+                    allReports.stream().map(Report::getTimestamp).collect(Collectors.toList()), codec.name());
+            Assertions.assertEquals(List.of(11L, 13L, 15L, 17L, 19L),
+                    filteredReports.stream().map(Report::getTimestamp).collect(Collectors.toList()), codec.name());
+        }
+    }
+
+    @Test
+    public void shouldNotReadBlocksBiggerThanTheBlockSizeOfTheSegment(@TempDir Path directory) throws IOException {
+        for (SegmentCodec codec : SegmentCodec.values()) {
+            // Given
+            Path codecDirectory = Files.createDirectory(directory.resolve(codec.name()));
+            this.writeSegments(codecDirectory, false, codec);
+            try (Stream<Path> segments = Files.list(codecDirectory)) {
+                for (Path segment : segments.filter(SegmentFormat::isSegment).collect(Collectors.toList())) {
+                    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                        channel.write(ByteBuffer.allocate(4).putInt(0, 16), SegmentFormat.HEADER_SIZE);
+                    }
+                }
+            }
+            Source source = new FileSource()
+                    .setPath(codecDirectory.toString());
+
+            // When
+            List<Report> reports = this.readReports(source);
+
+            // Then
+            Assertions.assertEquals(List.of(), reports, codec.name());
+        }
+    }
+
+    private void writeSegments(Path directory, boolean indexed) {
+        this.writeSegments(directory, indexed, SegmentCodec.None);
+    }
+
+    private void writeSegments(Path directory, boolean indexed, SegmentCodec codec) {
+        Map<String, Object> config = Map.of(
+                "path", directory.toString(),
+                "segments", Map.of("enabled", true, "maxSizeInBytes", 1000, "indexed", indexed,
+                        "codec", codec.name(), "blockSizeInBytes", 300)
+        );
+        FileSinkBuilder builder = new FileSinkBuilder();
+        builder.withConfiguration(config);
+        Sink sink = builder.build();
+        List<Report> reports = new ArrayList<>();
+        for (long timestamp = 0; timestamp < 40; ++timestamp) {
+            Report report = timestamp % 2 == 0 ?
+                    reportGenerator.initiatedCallReportSupplier().get() :
+                    reportGenerator.finishedCallReportSupplier().get();
+            reports.add(Report.newBuilder(report).setTimestamp(timestamp).build());
+        }
+        sink.onNext(reports);
+        sink.onComplete();
+    }
+
+    private List<Report> readReports(Source source) {
+        return source.asFlowable()
+                .map(bytes -> Report.fromByteBuffer(ByteBuffer.wrap(bytes)))
+                .toList()
+                .blockingGet();
+    }
+
     private String writeToFile(String text) throws IOException {
         File tempFile = Path.of(temporaryFolder.getPath(), "tempFile").toFile();
         byte data[] = text.getBytes(StandardCharsets.UTF_8);
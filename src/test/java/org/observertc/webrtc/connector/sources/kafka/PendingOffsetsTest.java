@@ -0,0 +1,90 @@
+package org.observertc.webrtc.connector.sources.kafka;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class PendingOffsetsTest {
+
+    @Test
+    public void shouldAcknowledgeOffsetsUpToTheSequence() {
+        // Given
+        List<Long> acknowledged = new ArrayList<>();
+        PendingOffsets pendingOffsets = new PendingOffsets();
+        for (long offset = 0; offset < 4; ++offset) {
+            pendingOffsets.add(new FakeReceiverOffset(offset, acknowledged), true);
+        }
+
+        // When
+        pendingOffsets.acknowledge(1);
+
+        // Then
+        Assertions.assertEquals(List.of(0L, 1L), acknowledged);
+    }
+
+    @Test
+    public void shouldAcknowledgeNotEmittedOffsetsWithThePreviousOne() {
+        // Given
+        List<Long> acknowledged = new ArrayList<>();
+        PendingOffsets pendingOffsets = new PendingOffsets();
+        pendingOffsets.add(new FakeReceiverOffset(0, acknowledged), true);
+        pendingOffsets.add(new FakeReceiverOffset(1, acknowledged), false);
+        pendingOffsets.add(new FakeReceiverOffset(2, acknowledged), true);
+
+        // When
+        pendingOffsets.acknowledge(0);
+
+        // Then
+        Assertions.assertEquals(List.of(0L, 1L), acknowledged);
+    }
+
+    @Test
+    public void shouldNotAcknowledgeAfterClosed() {
+        // Given
+        List<Long> acknowledged = new ArrayList<>();
+        PendingOffsets pendingOffsets = new PendingOffsets();
+        pendingOffsets.add(new FakeReceiverOffset(0, acknowledged), true);
+
+        // When
+        pendingOffsets.close();
+        pendingOffsets.acknowledge(0);
+
+        // Then
+        Assertions.assertTrue(acknowledged.isEmpty());
+    }
+
+    private static class FakeReceiverOffset implements ReceiverOffset {
+        private final long offset;
+        private final List<Long> acknowledged;
+
+        private FakeReceiverOffset(long offset, List<Long> acknowledged) {
+            this.offset = offset;
+            this.acknowledged = acknowledged;
+        }
+
+        @Override
+        public TopicPartition topicPartition() {
+            return new TopicPartition("topic", 0);
+        }
+
+        @Override
+        public long offset() {
+            return this.offset;
+        }
+
+        @Override
+        public void acknowledge() {
+            this.acknowledged.add(this.offset);
+        }
+
+        @Override
+        public Mono<Void> commit() {
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.observertc.webrtc.connector.sources.kafka;
+
+import org.apache.kafka.common.serialization.ByteBufferDeserializer;
+import org.apache.kafka.common.utils.Bytes;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+class RecordValuesTest {
+
+    @Test
+    public void shouldNotCopyDeserializedByteBuffers() {
+        // Given
+        byte[] fetched = "MyMessage".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer value = new ByteBufferDeserializer().deserialize("topic", fetched);
+
+        // When
+        byte[] bytes = RecordValues.toBytes(value);
+
+        // Then
+        Assertions.assertSame(fetched, bytes);
+    }
+
+    @Test
+    public void shouldCopyTheRemainingBytesOfSlicedByteBuffers() {
+        // Given
+        byte[] fetched = "MyMessage".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer value = ByteBuffer.wrap(fetched, 2, 7).slice();
+
+        // When
+        byte[] bytes = RecordValues.toBytes(value);
+
+        // Then
+        Assertions.assertArrayEquals("Message".getBytes(StandardCharsets.UTF_8), bytes);
+        Assertions.assertEquals(0, value.position());
+    }
+
+    @Test
+    public void shouldGiveTheBytesOfBytes() {
+        // Given
+        byte[] fetched = "MyMessage".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        byte[] bytes = RecordValues.toBytes(new Bytes(fetched));
+
+        // Then
+        Assertions.assertSame(fetched, bytes);
+    }
+
+    @Test
+    public void shouldNotReceiveOtherTypes() {
+        Assertions.assertThrows(IllegalStateException.class, () -> RecordValues.toBytes("MyMessage"));
+    }
+}